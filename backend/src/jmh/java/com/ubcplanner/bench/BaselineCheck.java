@@ -0,0 +1,87 @@
+package com.ubcplanner.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Compares a JMH JSON result with a recorded baseline and exits 1 if any benchmark regressed by
+ * more than the tolerance.
+ *
+ * <pre>
+ * java -cp ... com.ubcplanner.bench.BaselineCheck baseline.json target/jmh.json [tolerancePercent]
+ * </pre>
+ *
+ * Benchmarks are matched on name plus parameters. For time-per-op modes a higher score is a
+ * regression, for throughput a lower one. Benchmarks missing from either file are listed but do
+ * not fail the check.
+ */
+public final class BaselineCheck {
+
+    private BaselineCheck() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BaselineCheck <baseline.json> <result.json> [tolerancePercent=10]");
+            System.exit(2);
+        }
+        double tolerance = (args.length > 2 ? Double.parseDouble(args[2]) : 10d) / 100d;
+        Map<String, JsonNode> baseline = load(new File(args[0]));
+        Map<String, JsonNode> result = load(new File(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> e : result.entrySet()) {
+            JsonNode before = baseline.get(e.getKey());
+            if (before == null) {
+                System.out.printf("NEW        %s%n", e.getKey());
+                continue;
+            }
+            double was = score(before), now = score(e.getValue());
+            boolean throughput = "thrpt".equals(e.getValue().path("mode").asText());
+            double change = (was == 0) ? 0 : (now - was) / was;
+            boolean worse = throughput ? change < -tolerance : change > tolerance;
+            if (worse) regressions++;
+            System.out.printf("%-10s %s  %.3f -> %.3f %s (%+.1f%%)%n", worse ? "REGRESSED" : "ok",
+                    e.getKey(), was, now, unit(e.getValue()), change * 100);
+        }
+        for (String key : baseline.keySet()) {
+            if (!result.containsKey(key)) System.out.printf("MISSING    %s%n", key);
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, tolerance * 100);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, JsonNode> load(File file) throws IOException {
+        Map<String, JsonNode> out = new TreeMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            out.put(key(run), run);
+        }
+        return out;
+    }
+
+    private static String key(JsonNode run) {
+        StringBuilder sb = new StringBuilder(run.path("benchmark").asText());
+        JsonNode params = run.path("params");
+        if (params.isObject()) {
+            List<String> names = new ArrayList<>();
+            params.fieldNames().forEachRemaining(names::add);
+            Collections.sort(names);
+            for (String name : names) sb.append(' ').append(name).append('=').append(params.get(name).asText());
+        }
+        return sb.toString();
+    }
+
+    private static double score(JsonNode run) {
+        return run.path("primaryMetric").path("score").asDouble();
+    }
+
+    private static String unit(JsonNode run) {
+        return run.path("primaryMetric").path("scoreUnit").asText();
+    }
+}
@@ -0,0 +1,159 @@
+package com.ubcplanner.bench;
+
+import com.ubcplanner.exams.Exam;
+import com.ubcplanner.exams.ExamSnapshot;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * Deterministic exam schedules shaped like a UBC winter session.
+ *
+ * A Vancouver December session has roughly 230 subjects, 3,000 to 4,000 exam sittings spread
+ * over 16 exam days in four daily slots, and about 60 buildings. Subject sizes are skewed (a few
+ * subjects run hundreds of sections, most run a handful), and large courses sit several sections
+ * in the same slot. The same seed always produces the same rows.
+ */
+public final class SyntheticSchedule {
+
+    public static final int UBC_WINTER_SIZE = 3_500;
+
+    private static final ZoneId VANCOUVER = ZoneId.of("America/Vancouver");
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 12, 9);
+    private static final int EXAM_DAYS = 16;
+    private static final LocalTime[] SLOTS = {
+            LocalTime.of(8, 30), LocalTime.of(12, 0), LocalTime.of(15, 30), LocalTime.of(19, 0) };
+    private static final int[] DURATIONS = { 120, 120, 120, 150, 180 };
+    private static final int SUBJECTS = 230;
+    private static final int BUILDINGS = 60;
+
+    private static final DateTimeFormatter HTML_DATE = DateTimeFormatter.ofPattern("MMM d, yyyy", Locale.ENGLISH);
+    private static final DateTimeFormatter HTML_TIME = DateTimeFormatter.ofPattern("h:mm a", Locale.ENGLISH);
+
+    public record Row(long id, String campus, String subject, String course, String section,
+                      OffsetDateTime start, int durationMin, String building, String room) {}
+
+    private SyntheticSchedule() {}
+
+    /** {@code n} rows for campus V, in (start, id) order. */
+    public static List<Row> rows(int n, long seed) {
+        Random rnd = new Random(seed);
+        String[] subjects = new String[SUBJECTS];
+        double[] weight = new double[SUBJECTS];
+        double total = 0;
+        for (int i = 0; i < SUBJECTS; i++) {
+            subjects[i] = subjectCode(i);
+            weight[i] = 1.0 / (i + 1); // Zipf-like: CPSC, MATH, ... dominate
+            total += weight[i];
+        }
+        String[] buildings = new String[BUILDINGS];
+        for (int i = 0; i < BUILDINGS; i++) buildings[i] = subjectCode(SUBJECTS + i);
+
+        List<Row> out = new ArrayList<>(n);
+        long id = 1;
+        while (out.size() < n) {
+            String subject = subjects[pick(rnd, weight, total)];
+            String course = String.valueOf(100 + rnd.nextInt(5) * 100 + rnd.nextInt(100));
+            LocalDate day = FIRST_DAY.plusDays(rnd.nextInt(EXAM_DAYS));
+            LocalTime slot = SLOTS[rnd.nextInt(SLOTS.length)];
+            OffsetDateTime start = ZonedDateTime.of(day, slot, VANCOUVER).toOffsetDateTime();
+            int duration = DURATIONS[rnd.nextInt(DURATIONS.length)];
+            int sections = 1 + (rnd.nextInt(10) == 0 ? rnd.nextInt(12) : rnd.nextInt(3));
+            for (int s = 0; s < sections && out.size() < n; s++) {
+                out.add(new Row(id++, "V", subject, course, String.format("%03d", 101 + s), start, duration,
+                        buildings[rnd.nextInt(BUILDINGS)], String.valueOf(100 + rnd.nextInt(400))));
+            }
+        }
+        out.sort(Comparator.comparing((Row r) -> r.start().toInstant()).thenComparingLong(Row::id));
+        return out;
+    }
+
+    /** Exam schedule page in the markup the live importer parses. */
+    public static String html(List<Row> rows) {
+        StringBuilder sb = new StringBuilder(256 + rows.size() * 220);
+        sb.append("<!doctype html><html><body><table><thead><tr>")
+                .append("<th>Course</th><th>Section</th><th>Exam Date</th><th>Time</th>")
+                .append("<th>Building</th><th>Room</th><th>Duration</th></tr></thead><tbody>\n");
+        for (Row r : rows) {
+            ZonedDateTime local = r.start().atZoneSameInstant(VANCOUVER);
+            sb.append("<tr><td>").append(r.subject()).append(' ').append(r.course())
+                    .append("</td><td>").append(r.section())
+                    .append("</td><td>").append(HTML_DATE.format(local))
+                    .append("</td><td>").append(HTML_TIME.format(local))
+                    .append("</td><td>").append(r.building())
+                    .append("</td><td>").append(r.room())
+                    .append("</td><td>").append(r.durationMin())
+                    .append("</td></tr>\n");
+        }
+        return sb.append("</tbody></table></body></html>\n").toString();
+    }
+
+    /** CSV in the upload format: subject,course,section,date,time,duration,building,room. */
+    public static String csv(List<Row> rows) {
+        StringBuilder sb = new StringBuilder(64 + rows.size() * 60);
+        sb.append("subject,course,section,date,time,duration,building,room\n");
+        for (Row r : rows) {
+            ZonedDateTime local = r.start().atZoneSameInstant(VANCOUVER);
+            int h = r.durationMin() / 60, m = r.durationMin() % 60;
+            sb.append(r.subject()).append(',').append(r.course()).append(',').append(r.section()).append(',')
+                    .append(local.toLocalDate()).append(',').append(local.toLocalTime()).append(',')
+                    .append(m == 0 ? String.valueOf(r.durationMin()) : h + "h" + m).append(',')
+                    .append(r.building()).append(',').append(r.room()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    public static List<Exam> exams(List<Row> rows) {
+        List<Exam> out = new ArrayList<>(rows.size());
+        for (Row r : rows) {
+            Exam e = new Exam();
+            e.setCampus(r.campus());
+            e.setSubject(r.subject());
+            e.setCourse(r.course());
+            e.setSection(r.section());
+            e.setStartTime(r.start());
+            e.setDurationMin(r.durationMin());
+            e.setBuilding(r.building());
+            e.setRoom(r.room());
+            out.add(e);
+        }
+        return out;
+    }
+
+    public static ExamSnapshot snapshot(List<Row> rows) {
+        ExamSnapshot.Builder b = new ExamSnapshot.Builder(1);
+        OffsetDateTime updated = OffsetDateTime.parse("2025-11-01T00:00:00Z");
+        for (Row r : rows) {
+            b.add(r.id(), 0, updated, r.campus(), r.subject(), r.course(), r.section(),
+                    r.start(), r.durationMin(), r.building(), r.room());
+        }
+        return b.build();
+    }
+
+    /** The i-th most common subject; index 0 is "CPSC" so benchmarks can name a large subject. */
+    public static String subjectCode(int i) {
+        if (i == 0) return "CPSC";
+        if (i == 1) return "MATH";
+        StringBuilder sb = new StringBuilder(4);
+        int v = i;
+        for (int k = 0; k < 4; k++) {
+            sb.append((char) ('A' + v % 26));
+            v /= 26;
+        }
+        return sb.toString();
+    }
+
+    private static int pick(Random rnd, double[] weight, double total) {
+        double x = rnd.nextDouble() * total;
+        for (int i = 0; i < weight.length; i++) {
+            x -= weight[i];
+            if (x <= 0) return i;
+        }
+        return weight.length - 1;
+    }
+}
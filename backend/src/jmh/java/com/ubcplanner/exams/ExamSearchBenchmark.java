@@ -0,0 +1,77 @@
+package com.ubcplanner.exams;
+
+import com.ubcplanner.bench.SyntheticSchedule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The queries behind /api/exams/search and /api/exams/search/after, answered from an
+ * {@link ExamSnapshot} as the controller does. No database is involved on this path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExamSearchBenchmark {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20, Sort.by("startTime"));
+    private static final Pageable DEEP_PAGE = PageRequest.of(50, 20, Sort.by("startTime"));
+    private static final Pageable BY_ROOM = PageRequest.of(0, 20, Sort.by("room"));
+
+    @Param({ "3500", "50000" })
+    int rows;
+
+    ExamSnapshot snapshot;
+    long dayFrom, dayTo;
+    long[] middle;
+
+    @Setup
+    public void setUp() {
+        snapshot = SyntheticSchedule.snapshot(SyntheticSchedule.rows(rows, 42));
+        dayFrom = snapshot.startEpochSec(snapshot.size() / 2);
+        dayTo = dayFrom + 24 * 3600;
+        int mid = snapshot.size() / 2;
+        middle = new long[] { snapshot.startEpochSec(mid), snapshot.id(mid) };
+    }
+
+    @Benchmark
+    public Object campusFirstPage() {
+        return snapshot.search("V", null, null, null, FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Object campusDeepPage() {
+        return snapshot.search("V", null, null, null, DEEP_PAGE);
+    }
+
+    @Benchmark
+    public Object subjectFirstPage() {
+        return snapshot.search("V", "CPSC", null, null, FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Object courseFirstPage() {
+        return snapshot.search("V", "MATH", "100", null, FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Object campusSortedByRoom() {
+        return snapshot.search("V", null, null, null, BY_ROOM);
+    }
+
+    @Benchmark
+    public Object dayWindow() {
+        return snapshot.search("V", null, null, null, dayFrom, dayTo, FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Object keysetFromMiddle() {
+        return snapshot.searchAfter("V", null, null, null, middle, false, 20);
+    }
+}
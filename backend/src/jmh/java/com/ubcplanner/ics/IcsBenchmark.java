@@ -0,0 +1,36 @@
+package com.ubcplanner.ics;
+
+import com.ubcplanner.bench.SyntheticSchedule;
+import com.ubcplanner.exams.Exam;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** One calendar of {@code exams} events through {@link IcsService#generate}. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IcsBenchmark {
+
+    @Param({ "10", "1000", "100000" })
+    int exams;
+
+    IcsService ics;
+    List<Exam> list;
+
+    @Setup
+    public void setUp() {
+        ics = new IcsService(new SimpleMeterRegistry());
+        list = SyntheticSchedule.exams(SyntheticSchedule.rows(exams, 42));
+    }
+
+    @Benchmark
+    public byte[] generate() {
+        return ics.generate(list);
+    }
+}
@@ -0,0 +1,57 @@
+package com.ubcplanner.importer;
+
+import com.ubcplanner.bench.SyntheticSchedule;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory half of a CSV import: tokenizing, validating and encoding rows for COPY. The
+ * database merge is not included. {@code stageRows} is reported per file; divide by {@code rows}
+ * for per-row cost.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvImportBenchmark {
+
+    @Param({ "3500", "100000" })
+    int rows;
+
+    String csv;
+
+    @Setup
+    public void setUp() {
+        csv = SyntheticSchedule.csv(SyntheticSchedule.rows(rows, 42));
+    }
+
+    @Benchmark
+    public int stageRows() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(csv));
+        reader.next(); // header
+        StringBuilder chunk = new StringBuilder(csv.length() * 2);
+        List<String> fields;
+        while ((fields = reader.next()) != null) {
+            ExamCsvImportService.appendCopyRow(chunk, reader.recordLine(), "V", fields);
+        }
+        return chunk.length();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Integer parseDurationMinutes() {
+        return ExamCsvImportService.parseDuration("150");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Integer parseDurationHours() {
+        return ExamCsvImportService.parseDuration("2h30");
+    }
+}
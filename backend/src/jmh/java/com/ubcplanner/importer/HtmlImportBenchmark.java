@@ -0,0 +1,49 @@
+package com.ubcplanner.importer;
+
+import com.ubcplanner.bench.SyntheticSchedule;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.StringReader;
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+/** Parsing a schedule page: the whole streaming row parser, and its date/time step alone. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HtmlImportBenchmark {
+
+    @Param({ "100", "3500" })
+    int rows;
+
+    String page;
+
+    @Setup
+    public void setUp() {
+        page = SyntheticSchedule.html(SyntheticSchedule.rows(rows, 42));
+    }
+
+    @Benchmark
+    public int parseRows(Blackhole bh) {
+        int[] count = new int[1];
+        try (StreamParser streamer = new StreamParser(Parser.htmlParser()).parse(new StringReader(page), "")) {
+            ExamHtmlParser.streamRows(streamer, null, null, null, p -> {
+                bh.consume(p);
+                count[0]++;
+            });
+        }
+        return count[0];
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public OffsetDateTime parseDateTimeVancouver() {
+        return ExamHtmlParser.parseDateTimeVancouver("Dec 15, 2025", "3:30 PM", null);
+    }
+}
@@ -1,8 +1,15 @@
 package com.ubcplanner.catalog;
 
-import com.ubcplanner.exams.ExamRepository;
+import com.ubcplanner.common.ETags;
+import com.ubcplanner.exams.ExamReadModel;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -10,25 +17,63 @@ import java.util.List;
 @CrossOrigin
 public class CatalogController {
 
-  private final ExamRepository repo;
+  private static final int MAX_SUGGESTIONS = 50;
 
-  public CatalogController(ExamRepository repo) {
-    this.repo = repo;
+  private final ExamReadModel readModel;
+  private final CatalogTree tree;
+  private final CourseTypeahead typeahead;
+
+  public CatalogController(ExamReadModel readModel, CatalogTree tree, CourseTypeahead typeahead) {
+    this.readModel = readModel;
+    this.tree = tree;
+    this.typeahead = typeahead;
+  }
+
+  /**
+   * GET /api/catalog/tree?campus=V -> whole subject/course/section hierarchy in one response.
+   * Plain requests revalidate with the ETag (cheap 304s). Requests that pin {@code v} to the
+   * current version may be cached for a year, since that URL will never describe other data.
+   * Every endpoint here describes one term, {@code term} or else the current one.
+   */
+  @GetMapping("/tree")
+  public ResponseEntity<byte[]> tree(
+      @RequestParam(defaultValue = "V") String campus,
+      @RequestParam(required = false) String v,
+      @RequestParam(required = false) String term,
+      @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch
+  ) {
+    CatalogTree.Encoded encoded = tree.encoded(readModel.snapshot(term), campus);
+    CacheControl cache = encoded.version().equals(v)
+        ? CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable()
+        : CacheControl.noCache().cachePublic();
+
+    if (ETags.matches(ifNoneMatch, encoded.etag())) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(encoded.etag()).cacheControl(cache).build();
+    }
+    return ResponseEntity.ok()
+        .eTag(encoded.etag())
+        .cacheControl(cache)
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(encoded.json());
   }
 
   // GET /api/catalog/subjects?campus=V
   @GetMapping("/subjects")
-  public List<String> subjects(@RequestParam(defaultValue = "V") String campus) {
-    return repo.distinctSubjects(campus);
+  public List<String> subjects(
+      @RequestParam(defaultValue = "V") String campus,
+      @RequestParam(required = false) String term
+  ) {
+    return tree.subjects(readModel.snapshot(term), campus);
   }
 
   // GET /api/catalog/courses?subject=CPSC&campus=V
   @GetMapping("/courses")
   public List<String> courses(
       @RequestParam String subject,
-      @RequestParam(defaultValue = "V") String campus
+      @RequestParam(defaultValue = "V") String campus,
+      @RequestParam(required = false) String term
   ) {
-    return repo.distinctCourses(campus, subject);
+    return tree.courses(readModel.snapshot(term), campus, subject);
   }
 
   // GET /api/catalog/sections?subject=CPSC&course=221&campus=V
@@ -36,8 +81,23 @@ public class CatalogController {
   public List<String> sections(
       @RequestParam String subject,
       @RequestParam String course,
-      @RequestParam(defaultValue = "V") String campus
+      @RequestParam(defaultValue = "V") String campus,
+      @RequestParam(required = false) String term
+  ) {
+    return tree.sections(readModel.snapshot(term), campus, subject, course);
+  }
+
+  // GET /api/catalog/suggest?q=cpsc%202&campus=V&limit=10
+  @GetMapping("/suggest")
+  public List<CourseTypeahead.Suggestion> suggest(
+      @RequestParam String q,
+      @RequestParam(defaultValue = "V") String campus,
+      @RequestParam(defaultValue = "10") int limit,
+      @RequestParam(required = false) String term
   ) {
-    return repo.distinctSections(campus, subject, course);
+    if (limit < 1 || limit > MAX_SUGGESTIONS) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_SUGGESTIONS);
+    }
+    return typeahead.suggest(readModel.snapshot(term), campus, q, limit);
   }
 }
@@ -0,0 +1,101 @@
+package com.ubcplanner.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ubcplanner.common.ETags;
+import com.ubcplanner.exams.ExamKeys;
+import com.ubcplanner.exams.ExamSnapshot;
+import com.ubcplanner.exams.ExamSnapshotRebuiltEvent;
+import com.ubcplanner.exams.ExamView;
+import com.ubcplanner.exams.SnapshotDerived;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Subject -> course -> section hierarchy per campus and term, precomputed from each exam snapshot.
+ *
+ * The JSON body is encoded once per rebuild; {@code version} is a hash of the hierarchy, so it
+ * only changes when the catalog does (not on every import) and survives restarts.
+ */
+@Component
+public class CatalogTree {
+
+  /** {@code subjects} maps subject -> course -> sorted sections. */
+  public record Tree(String campus, String version, Map<String, Map<String, List<String>>> subjects) {}
+
+  public record Encoded(String version, String etag, byte[] json) {}
+
+  private record CampusTree(Tree tree, Encoded encoded) {}
+
+  private final ObjectMapper mapper;
+  private final SnapshotDerived<Map<String, CampusTree>> trees = new SnapshotDerived<>(this::build);
+
+  public CatalogTree(ObjectMapper mapper) {
+    this.mapper = mapper;
+  }
+
+  @EventListener
+  public void onSnapshotRebuilt(ExamSnapshotRebuiltEvent event) {
+    trees.rebuilt(event);
+  }
+
+  public Encoded encoded(ExamSnapshot snapshot, String campus) {
+    return campusTree(snapshot, campus).encoded();
+  }
+
+  public List<String> subjects(ExamSnapshot snapshot, String campus) {
+    return List.copyOf(campusTree(snapshot, campus).tree().subjects().keySet());
+  }
+
+  public List<String> courses(ExamSnapshot snapshot, String campus, String subject) {
+    Map<String, List<String>> courses = campusTree(snapshot, campus).tree().subjects().get(ExamKeys.key(subject));
+    return (courses == null) ? List.of() : List.copyOf(courses.keySet());
+  }
+
+  public List<String> sections(ExamSnapshot snapshot, String campus, String subject, String course) {
+    Map<String, List<String>> courses = campusTree(snapshot, campus).tree().subjects().get(ExamKeys.key(subject));
+    List<String> sections = (courses == null) ? null : courses.get(ExamKeys.key(course));
+    return (sections == null) ? List.of() : sections;
+  }
+
+  private CampusTree campusTree(ExamSnapshot snapshot, String campus) {
+    String key = ExamKeys.campus(campus);
+    CampusTree tree = trees.get(snapshot).get(key);
+    return (tree != null) ? tree : encode(key, new TreeMap<>());
+  }
+
+  private Map<String, CampusTree> build(ExamSnapshot snapshot) {
+    Map<String, TreeMap<String, TreeMap<String, TreeSet<String>>>> byCampus = new HashMap<>();
+    for (int r = 0; r < snapshot.size(); r++) {
+      ExamView e = snapshot.view(r);
+      byCampus.computeIfAbsent(e.campus(), k -> new TreeMap<>())
+          .computeIfAbsent(e.subject(), k -> new TreeMap<>())
+          .computeIfAbsent(e.course(), k -> new TreeSet<>())
+          .add(e.section());
+    }
+
+    Map<String, CampusTree> out = new HashMap<>();
+    byCampus.forEach((campus, subjects) -> {
+      Map<String, Map<String, List<String>>> frozen = new LinkedHashMap<>();
+      subjects.forEach((subject, courses) -> {
+        Map<String, List<String>> c = new LinkedHashMap<>();
+        courses.forEach((course, sections) -> c.put(course, List.copyOf(sections)));
+        frozen.put(subject, Collections.unmodifiableMap(c));
+      });
+      out.put(campus, encode(campus, Collections.unmodifiableMap(frozen)));
+    });
+    return Map.copyOf(out);
+  }
+
+  private CampusTree encode(String campus, Map<String, Map<String, List<String>>> subjects) {
+    try {
+      String version = ETags.hash(mapper.writeValueAsBytes(subjects));
+      Tree tree = new Tree(campus, version, subjects);
+      return new CampusTree(tree, new Encoded(version, "\"" + version + "\"", mapper.writeValueAsBytes(tree)));
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Could not encode catalog tree for campus " + campus, e);
+    }
+  }
+}
@@ -0,0 +1,192 @@
+package com.ubcplanner.catalog;
+
+import com.ubcplanner.exams.ExamKeys;
+import com.ubcplanner.exams.ExamSnapshot;
+import com.ubcplanner.exams.ExamSnapshotRebuiltEvent;
+import com.ubcplanner.exams.ExamView;
+import com.ubcplanner.exams.SnapshotDerived;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Free-text completion for subjects, courses and sections, served from memory.
+ *
+ * Every subject, course and section is stored under a normalized key (upper case, letters and
+ * digits only): "CPSC", "CPSC221", "CPSC221101". A second index is keyed by course number
+ * ("221", "221101") for queries that start with a digit. Search keys can repeat (CPSC 221 101 and
+ * CPSC 2211 01 are both "CPSC221101"); entries themselves are told apart by kind and separated
+ * parts. Keys live in sorted arrays, so the matches for a prefix are one contiguous range found
+ * with two binary searches. There is one index per term, rebuilt from each new exam snapshot, and
+ * requests never reach the database.
+ */
+@Component
+public class CourseTypeahead {
+
+  public enum Kind { SUBJECT, COURSE, SECTION }
+
+  public record Suggestion(Kind kind, String label, String subject, String course, String section, int exams) {}
+
+  private record Built(Map<String, PrefixIndex> byName, Map<String, PrefixIndex> byNumber) {}
+
+  private final SnapshotDerived<Built> built = new SnapshotDerived<>(CourseTypeahead::build);
+
+  @EventListener
+  public void onSnapshotRebuilt(ExamSnapshotRebuiltEvent event) {
+    built.rebuilt(event);
+  }
+
+  /**
+   * Best completions for {@code query} among the exams of {@code snapshot} on one campus: exact
+   * matches, then subjects, courses, sections.
+   */
+  public List<Suggestion> suggest(ExamSnapshot snapshot, String campus, String query, int limit) {
+    String q = normalize(query);
+    if (q.isEmpty() || limit < 1) return List.of();
+
+    Built b = built.get(snapshot);
+    Map<String, PrefixIndex> indexes = Character.isDigit(q.charAt(0)) ? b.byNumber() : b.byName();
+    PrefixIndex index = indexes.get(ExamKeys.campus(campus));
+    return (index == null) ? List.of() : index.lookup(q, limit);
+  }
+
+  static String normalize(String s) {
+    if (s == null) return "";
+    StringBuilder out = new StringBuilder(s.length());
+    for (int i = 0; i < s.length(); i++) {
+      char ch = Character.toUpperCase(s.charAt(i));
+      if ((ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9')) out.append(ch);
+    }
+    return out.toString();
+  }
+
+  // Mutable counter used while scanning the snapshot.
+  private static final class Tally {
+    final Kind kind;
+    final String subject, course, section;
+    final String key;
+    int exams;
+
+    Tally(Kind kind, String subject, String course, String section) {
+      this.kind = kind;
+      this.subject = subject;
+      this.course = course;
+      this.section = section;
+      this.key = normalize(subject) + normalize(course) + normalize(section);
+    }
+
+    Suggestion toSuggestion() {
+      String label = switch (kind) {
+        case SUBJECT -> subject;
+        case COURSE -> subject + " " + course;
+        case SECTION -> subject + " " + course + " " + section;
+      };
+      return new Suggestion(kind, label, subject, course, section, exams);
+    }
+  }
+
+  private static Built build(ExamSnapshot snapshot) {
+    // campus -> "subject|course|section" (shorter for subjects and courses) -> tally
+    Map<String, Map<String, Tally>> tallies = new HashMap<>();
+    for (int r = 0; r < snapshot.size(); r++) {
+      ExamView e = snapshot.view(r);
+      Map<String, Tally> m = tallies.computeIfAbsent(e.campus(), k -> new HashMap<>());
+      String s = ExamKeys.key(e.subject());
+      String c = s + '|' + ExamKeys.key(e.course());
+      String sec = c + '|' + ExamKeys.key(e.section());
+      m.computeIfAbsent(s, k -> new Tally(Kind.SUBJECT, e.subject(), null, null)).exams++;
+      m.computeIfAbsent(c, k -> new Tally(Kind.COURSE, e.subject(), e.course(), null)).exams++;
+      m.computeIfAbsent(sec, k -> new Tally(Kind.SECTION, e.subject(), e.course(), e.section())).exams++;
+    }
+
+    Map<String, PrefixIndex> byName = new HashMap<>();
+    Map<String, PrefixIndex> byNumber = new HashMap<>();
+    tallies.forEach((campus, entries) -> {
+      List<String> keys = new ArrayList<>(entries.size());
+      List<Suggestion> values = new ArrayList<>(entries.size());
+      List<String> numberKeys = new ArrayList<>();
+      List<Suggestion> numberValues = new ArrayList<>();
+      entries.forEach((id, t) -> {
+        Suggestion sug = t.toSuggestion();
+        keys.add(t.key);
+        values.add(sug);
+        if (t.kind != Kind.SUBJECT) {
+          numberKeys.add(normalize(t.course) + normalize(t.section));
+          numberValues.add(sug);
+        }
+      });
+      byName.put(campus, new PrefixIndex(keys, values));
+      byNumber.put(campus, new PrefixIndex(numberKeys, numberValues));
+    });
+    return new Built(Map.copyOf(byName), Map.copyOf(byNumber));
+  }
+
+  /**
+   * Keys in sorted order with their suggestions. {@code rank} is a query-independent order
+   * (kind, then most exams, then label); lookups only add "is this an exact match".
+   */
+  static final class PrefixIndex {
+    private final String[] keys;
+    private final Suggestion[] values;
+    private final int[] rank;
+
+    PrefixIndex(List<String> keyList, List<Suggestion> valueList) {
+      int n = keyList.size();
+      Integer[] byKey = new Integer[n];
+      for (int i = 0; i < n; i++) byKey[i] = i;
+      Arrays.sort(byKey, Comparator.comparing(keyList::get));
+
+      this.keys = new String[n];
+      this.values = new Suggestion[n];
+      for (int i = 0; i < n; i++) {
+        keys[i] = keyList.get(byKey[i]);
+        values[i] = valueList.get(byKey[i]);
+      }
+
+      Integer[] byRank = new Integer[n];
+      for (int i = 0; i < n; i++) byRank[i] = i;
+      Arrays.sort(byRank, Comparator.<Integer, Kind>comparing(i -> values[i].kind())
+          .thenComparing(i -> -values[i].exams())
+          .thenComparing(i -> values[i].label()));
+      this.rank = new int[n];
+      for (int i = 0; i < n; i++) rank[byRank[i]] = i;
+    }
+
+    List<Suggestion> lookup(String prefix, int limit) {
+      int lo = lowerBound(prefix);
+      int hi = lowerBound(prefix + Character.MAX_VALUE);
+      if (lo >= hi) return List.of();
+
+      // keep the best `limit` positions by score; limit is small, so insertion is cheapest
+      int[] top = new int[Math.min(limit, hi - lo)];
+      long[] score = new long[top.length];
+      int n = 0;
+      for (int i = lo; i < hi; i++) {
+        long s = (keys[i].length() == prefix.length() ? 0 : keys.length) + (long) rank[i];
+        if (n == top.length && s >= score[n - 1]) continue;
+        int j = (n == top.length) ? n - 1 : n++;
+        while (j > 0 && score[j - 1] > s) {
+          top[j] = top[j - 1];
+          score[j] = score[j - 1];
+          j--;
+        }
+        top[j] = i;
+        score[j] = s;
+      }
+
+      List<Suggestion> out = new ArrayList<>(n);
+      for (int k = 0; k < n; k++) out.add(values[top[k]]);
+      return out;
+    }
+
+    private int lowerBound(String key) {
+      int lo = 0, hi = keys.length;
+      while (lo < hi) {
+        int mid = (lo + hi) >>> 1;
+        if (keys[mid].compareTo(key) < 0) lo = mid + 1; else hi = mid;
+      }
+      return lo;
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package com.ubcplanner.common;
+
+import com.ubcplanner.exams.ExamKeys;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds a {@code campus} tag to {@code http.server.requests}, so search, meta and ICS latency can be
+ * split by campus. Requests without a campus parameter are tagged "none". Campus codes are single
+ * letters; anything else is tagged "other" so a bad parameter cannot create new series.
+ */
+@Component
+public class CampusRequestTags extends DefaultServerRequestObservationConvention {
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context).and("campus", campus(context.getCarrier().getParameter("campus")));
+    }
+
+    private static String campus(String param) {
+        if (param == null) return "none";
+        String c = ExamKeys.campus(param);
+        return (c.length() == 1 && c.charAt(0) >= 'A' && c.charAt(0) <= 'Z') ? c : "other";
+    }
+}
@@ -0,0 +1,30 @@
+package com.ubcplanner.common;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/** Helpers for strong ETags on responses served from memory. */
+public final class ETags {
+
+    private ETags() {}
+
+    /** True if an If-None-Match header value lists {@code etag} (or is "*"). */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String c = candidate.trim();
+            if (c.equals("*") || c.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    /** First 16 bytes of SHA-256 over {@code bytes}, hex encoded and unquoted. */
+    public static String hash(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.ubcplanner.common;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.io.IOException;
+
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    // Request values rejected below the controllers, such as a malformed term code. Answered like
+    // a ResponseStatusException, through the error page.
+    @ExceptionHandler(IllegalArgumentException.class)
+    public void badRequest(IllegalArgumentException ex, HttpServletResponse response) throws IOException {
+        response.sendError(HttpStatus.BAD_REQUEST.value(), ex.getMessage());
+    }
+}
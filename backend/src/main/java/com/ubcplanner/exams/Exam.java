@@ -10,6 +10,9 @@ public class Exam {
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
 
+  @Column(nullable = false, length = 6)
+  private String term;   // session code, e.g. 2025W1; the partition key (see ExamTerms)
+
   @Column(nullable = false, length = 1)
   private String campus; // "V" = Vancouver, "O" = Okanagan (we use "V")
 
@@ -29,6 +32,9 @@ public class Exam {
   // getters & setters
   public Long getId() { return id; }
 
+  public String getTerm() { return term; }
+  public void setTerm(String term) { this.term = term; }
+
   public String getCampus() { return campus; }
   public void setCampus(String campus) { this.campus = campus; }
 
@@ -0,0 +1,98 @@
+package com.ubcplanner.exams;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/exams/calendar")
+@CrossOrigin
+public class ExamCalendarController {
+
+    private static final long MAX_DAYS = 62;
+
+    private final ExamReadModel readModel;
+    private final ExamCalendarIndex calendar;
+
+    public ExamCalendarController(ExamReadModel readModel, ExamCalendarIndex calendar) {
+        this.readModel = readModel;
+        this.calendar = calendar;
+    }
+
+    // GET /api/exams/calendar/days?campus=V&from=2025-12-08&to=2025-12-20&term=2025W1
+    @GetMapping("/days")
+    public List<ExamCalendarIndex.DayDensity> days(@RequestParam(defaultValue = "V") String campus,
+                                                   @RequestParam String from,
+                                                   @RequestParam String to,
+                                                   @RequestParam(required = false) String term) {
+        LocalDate f = date(from, "from"), t = date(to, "to");
+        requireRange(f, t);
+        return calendar.days(readModel.snapshot(term), campus, f, t);
+    }
+
+    /**
+     * Free time between exams: GET /api/exams/calendar/free?from=2025-12-15&to=2025-12-19&ids=1,2,3
+     * or with subject/course/section instead of ids. Days run from {@code dayStart} to {@code dayEnd}.
+     * Exams are looked up in {@code term}, the current one by default.
+     */
+    @GetMapping("/free")
+    public List<ExamCalendarIndex.FreeWindow> free(@RequestParam(defaultValue = "V") String campus,
+                                                   @RequestParam(required = false) List<Long> ids,
+                                                   @RequestParam(required = false) String subject,
+                                                   @RequestParam(required = false) String course,
+                                                   @RequestParam(required = false) String section,
+                                                   @RequestParam String from,
+                                                   @RequestParam String to,
+                                                   @RequestParam(defaultValue = "08:00") String dayStart,
+                                                   @RequestParam(defaultValue = "22:00") String dayEnd,
+                                                   @RequestParam(defaultValue = "60") int minMinutes,
+                                                   @RequestParam(required = false) String term) {
+        LocalDate f = date(from, "from"), t = date(to, "to");
+        requireRange(f, t);
+        LocalTime start = time(dayStart, "dayStart"), end = time(dayEnd, "dayEnd");
+        if (!end.isAfter(start)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'dayEnd' must be after 'dayStart'");
+        }
+
+        ExamSnapshot snapshot = readModel.snapshot(term);
+        int[] rows;
+        if (ids != null && !ids.isEmpty()) {
+            rows = snapshot.rowsForIds(ids);
+        } else {
+            // exams that started the evening before can still run into the first morning
+            long fromSec = f.minusDays(1).atStartOfDay(ExamTimes.VANCOUVER).toEpochSecond();
+            long toSec = t.plusDays(1).atStartOfDay(ExamTimes.VANCOUVER).toEpochSecond();
+            rows = snapshot.rows(ExamKeys.campus(campus), subject, course, section, fromSec, toSec);
+        }
+        return calendar.free(snapshot, rows, f, t, start, end, Math.max(minMinutes, ExamCalendarIndex.SLOT_MINUTES));
+    }
+
+    private static void requireRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "'to' must be on or after 'from' and at most " + MAX_DAYS + " days later");
+        }
+    }
+
+    private static LocalDate date(String value, String name) {
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid '" + name + "': expected yyyy-MM-dd");
+        }
+    }
+
+    private static LocalTime time(String value, String name) {
+        try {
+            return LocalTime.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid '" + name + "': expected HH:mm");
+        }
+    }
+}
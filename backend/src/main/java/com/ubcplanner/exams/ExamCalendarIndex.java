@@ -0,0 +1,156 @@
+package com.ubcplanner.exams;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.*;
+import java.util.*;
+
+/**
+ * Exams bucketed by Vancouver calendar day and 30-minute slot, per campus.
+ *
+ * A campus posting list is already in start order, so each day is a contiguous run of it and the
+ * whole index is built in one pass: per day, the number of exams and per-slot counts of exams
+ * starting and running. Day lookups are a binary search over the campus's days. Built per term,
+ * and rebuilt from every new snapshot.
+ */
+@Component
+public class ExamCalendarIndex {
+
+    public static final int SLOT_MINUTES = 30;
+    private static final int SLOT_SEC = SLOT_MINUTES * 60;
+
+    /** Per-slot counts for one day; slot 0 starts at local midnight (DST days have 46 or 50 slots). */
+    public record DayDensity(LocalDate date, int exams, int peakRunning, int[] startsPerSlot, int[] runningPerSlot) {}
+
+    public record FreeWindow(OffsetDateTime start, OffsetDateTime end, long minutes) {}
+
+    private record CampusDays(long[] epochDay, int[] exams, int[][] starts, int[][] running) {}
+
+    private record Built(Map<String, CampusDays> byCampus) {}
+
+    private final SnapshotDerived<Built> built = new SnapshotDerived<>(ExamCalendarIndex::build);
+
+    @EventListener
+    public void onSnapshotRebuilt(ExamSnapshotRebuiltEvent event) {
+        built.rebuilt(event);
+    }
+
+    /** Days of {@code snapshot} with at least one exam in [from, to] (inclusive), in date order. */
+    public List<DayDensity> days(ExamSnapshot snapshot, String campus, LocalDate from, LocalDate to) {
+        CampusDays d = built.get(snapshot).byCampus().get(ExamKeys.campus(campus));
+        if (d == null) return List.of();
+
+        int i = lowerBound(d.epochDay(), from.toEpochDay());
+        List<DayDensity> out = new ArrayList<>();
+        for (; i < d.epochDay().length && d.epochDay()[i] <= to.toEpochDay(); i++) {
+            int[] running = d.running()[i];
+            int peak = 0;
+            for (int v : running) peak = Math.max(peak, v);
+            out.add(new DayDensity(LocalDate.ofEpochDay(d.epochDay()[i]), d.exams()[i], peak,
+                    d.starts()[i].clone(), running.clone()));
+        }
+        return out;
+    }
+
+    /**
+     * Free stretches of at least {@code minMinutes} between {@code dayStart} and {@code dayEnd} on each
+     * day in [from, to], given the exams in {@code rows}. Times are slot-aligned: a slot is busy if
+     * any of the exams overlaps it.
+     */
+    public List<FreeWindow> free(ExamSnapshot snapshot, int[] rows, LocalDate from, LocalDate to,
+                                 LocalTime dayStart, LocalTime dayEnd, int minMinutes) {
+        // day -> busy slot bitmap
+        Map<Long, BitSet> busy = new HashMap<>();
+        for (int r : rows) {
+            long start = snapshot.startEpochSec(r);
+            long end = start + snapshot.durationMin(r) * 60L;
+            LocalDate day = LocalDate.ofInstant(Instant.ofEpochSecond(start), ExamTimes.VANCOUVER);
+            // exams running past midnight also block the start of the next day
+            for (; ; day = day.plusDays(1)) {
+                long dayStartSec = day.atStartOfDay(ExamTimes.VANCOUVER).toEpochSecond();
+                if (dayStartSec >= end) break;
+                int first = (int) Math.max(0, (start - dayStartSec) / SLOT_SEC);
+                int last = (int) ceilSlots(end - dayStartSec); // exclusive
+                busy.computeIfAbsent(day.toEpochDay(), k -> new BitSet()).set(first, last);
+            }
+        }
+
+        List<FreeWindow> out = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            long dayStartSec = day.atStartOfDay(ExamTimes.VANCOUVER).toEpochSecond();
+            int firstSlot = (int) ((day.atTime(dayStart).atZone(ExamTimes.VANCOUVER).toEpochSecond() - dayStartSec) / SLOT_SEC);
+            int endSlot = (int) ((day.atTime(dayEnd).atZone(ExamTimes.VANCOUVER).toEpochSecond() - dayStartSec) / SLOT_SEC);
+            BitSet b = busy.getOrDefault(day.toEpochDay(), new BitSet());
+
+            int s = b.nextClearBit(firstSlot);
+            while (s < endSlot) {
+                int e = Math.min(b.nextSetBit(s) < 0 ? endSlot : b.nextSetBit(s), endSlot);
+                long minutes = (long) (e - s) * SLOT_MINUTES;
+                if (minutes >= minMinutes) {
+                    out.add(new FreeWindow(slotTime(dayStartSec, s), slotTime(dayStartSec, e), minutes));
+                }
+                s = b.nextClearBit(e);
+            }
+        }
+        return out;
+    }
+
+    private static Built build(ExamSnapshot snapshot) {
+        Map<String, CampusDays> byCampus = new HashMap<>();
+        for (String campus : snapshot.campuses()) {
+            int[] rows = snapshot.rows(campus, null, null, null);
+            List<Long> days = new ArrayList<>();
+            List<Integer> exams = new ArrayList<>();
+            List<int[]> starts = new ArrayList<>(), running = new ArrayList<>();
+
+            long dayStartSec = 0, nextDayStartSec = Long.MIN_VALUE;
+            for (int r : rows) {
+                long start = snapshot.startEpochSec(r);
+                if (start >= nextDayStartSec) {
+                    // rows are in start order, so a new day only ever opens here
+                    LocalDate day = LocalDate.ofInstant(Instant.ofEpochSecond(start), ExamTimes.VANCOUVER);
+                    dayStartSec = day.atStartOfDay(ExamTimes.VANCOUVER).toEpochSecond();
+                    nextDayStartSec = day.plusDays(1).atStartOfDay(ExamTimes.VANCOUVER).toEpochSecond();
+                    int slots = (int) ((nextDayStartSec - dayStartSec) / SLOT_SEC);
+                    days.add(day.toEpochDay());
+                    exams.add(0);
+                    starts.add(new int[slots]);
+                    running.add(new int[slots]);
+                }
+                int d = days.size() - 1;
+                int[] run = running.get(d);
+                int first = (int) ((start - dayStartSec) / SLOT_SEC);
+                int last = (int) Math.min(run.length,
+                        ceilSlots(start + snapshot.durationMin(r) * 60L - dayStartSec));
+                exams.set(d, exams.get(d) + 1);
+                starts.get(d)[first]++;
+                for (int s = first; s < last; s++) run[s]++;
+            }
+
+            byCampus.put(campus, new CampusDays(
+                    days.stream().mapToLong(Long::longValue).toArray(),
+                    exams.stream().mapToInt(Integer::intValue).toArray(),
+                    starts.toArray(new int[0][]),
+                    running.toArray(new int[0][])));
+        }
+        return new Built(Map.copyOf(byCampus));
+    }
+
+    private static long ceilSlots(long seconds) {
+        return Math.floorDiv(seconds + SLOT_SEC - 1, SLOT_SEC);
+    }
+
+    private static OffsetDateTime slotTime(long dayStartSec, int slot) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(dayStartSec + (long) slot * SLOT_SEC), ExamTimes.VANCOUVER);
+    }
+
+    private static int lowerBound(long[] a, long key) {
+        int lo = 0, hi = a.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < key) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+}
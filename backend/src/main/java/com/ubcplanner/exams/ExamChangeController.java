@@ -0,0 +1,33 @@
+package com.ubcplanner.exams;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/exams")
+@CrossOrigin
+public class ExamChangeController {
+
+    private static final int MAX_LIMIT = 5000;
+
+    private final ExamChangeFeed feed;
+
+    public ExamChangeController(ExamChangeFeed feed) {
+        this.feed = feed;
+    }
+
+    // GET /api/exams/changes?since=1234&limit=1000&term=2025W1 -> deltas after version 1234, oldest first
+    @GetMapping("/changes")
+    public ExamChangeFeed.ChangeFeed changes(@RequestParam(defaultValue = "0") long since,
+                                             @RequestParam(defaultValue = "1000") int limit,
+                                             @RequestParam(required = false) String term) {
+        if (since < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "since must be >= 0");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
+        return feed.since(term, since, limit);
+    }
+}
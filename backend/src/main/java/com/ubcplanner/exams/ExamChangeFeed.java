@@ -0,0 +1,109 @@
+package com.ubcplanner.exams;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Reads the exam change log (V5__exam_change_log.sql) and keeps it bounded.
+ *
+ * Clients remember {@code latest} and ask for everything after it. A client whose position has
+ * been pruned, or that is more than {@code ubc.changes.maxBehind} entries behind, gets
+ * {@code resync=true} instead. It should note {@code latest}, reload the full data, then
+ * continue from that position. Re-applying a change it already has is harmless.
+ */
+@Service
+public class ExamChangeFeed {
+
+    private static final String BOUNDS = """
+            select coalesce(min(seq), 0) as first, coalesce(max(seq), 0) as last
+            from exam_change
+            """;
+
+    private static final String AFTER = """
+            select seq, op, exam_id, campus, subject, course, section,
+                   start_time, duration_min, building, room
+            from exam_change
+            where term = ? and seq > ?
+            order by seq
+            limit ?
+            """;
+
+    // The newest entry is always kept so `latest` never goes backwards.
+    private static final String PRUNE = """
+            delete from exam_change
+            where changed_at < now() - make_interval(days => ?)
+              and seq < (select max(seq) from exam_change)
+            """;
+
+    /** One delta; {@code exam} is the row after the change and is omitted for deletes. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Change(long v, String op, long id, ExamView exam) {}
+
+    public record ChangeFeed(String term, long since, long latest, boolean resync, boolean hasMore,
+                             List<Change> changes) {}
+
+    private final JdbcTemplate jdbc;
+    private final ExamTermService terms;
+
+    @Value("${ubc.changes.maxBehind:10000}")
+    private long maxBehind;
+
+    @Value("${ubc.changes.retainDays:30}")
+    private int retainDays;
+
+    public ExamChangeFeed(JdbcTemplate jdbc, ExamTermService terms) {
+        this.jdbc = jdbc;
+        this.terms = terms;
+    }
+
+    /**
+     * Changes to {@code term} (null or blank: the current term); changes to other terms are
+     * skipped. Positions are shared by all terms, so {@code latest} may move without any change.
+     */
+    public ChangeFeed since(String term, long since, int limit) {
+        String t = ExamTerms.key(term);
+        String served = (t != null) ? t : terms.current();
+        long[] bounds = jdbc.queryForObject(BOUNDS, (rs, i) -> new long[] { rs.getLong("first"), rs.getLong("last") });
+        long first = bounds[0], latest = bounds[1];
+
+        if (since == latest) {
+            return new ChangeFeed(served, since, latest, false, false, List.of());
+        }
+        boolean pruned = first > 0 && since < first - 1;
+        if (since > latest || pruned || latest - since > maxBehind) {
+            return new ChangeFeed(served, since, latest, true, false, List.of());
+        }
+
+        List<Change> changes = jdbc.query(AFTER, (rs, i) -> {
+            long id = rs.getLong("exam_id");
+            String op = rs.getString("op");
+            ExamView exam = "D".equals(op) ? null : new ExamView(
+                    id,
+                    served,
+                    rs.getString("campus"),
+                    rs.getString("subject"),
+                    rs.getString("course"),
+                    rs.getString("section"),
+                    rs.getObject("start_time", OffsetDateTime.class),
+                    rs.getObject("duration_min", Integer.class),
+                    rs.getString("building"),
+                    rs.getString("room"));
+            return new Change(rs.getLong("seq"), op, id, exam);
+        }, served, since, limit + 1);
+
+        boolean hasMore = changes.size() > limit;
+        if (hasMore) changes = changes.subList(0, limit);
+        return new ChangeFeed(served, since, latest, false, hasMore, changes);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExamsChanged(ExamsChangedEvent event) {
+        jdbc.update(PRUNE, retainDays);
+    }
+}
@@ -1,6 +1,7 @@
 package com.ubcplanner.exams;
 
 import jakarta.validation.Valid;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.OffsetDateTime;
@@ -12,55 +13,54 @@ import java.util.List;
 public class ExamController {
 
     private final ExamRepository repo;
+    private final ExamReadModel readModel;
+    private final ExamTermService terms;
+    private final ApplicationEventPublisher events;
 
-    public ExamController(ExamRepository repo) {
+    public ExamController(ExamRepository repo, ExamReadModel readModel, ExamTermService terms,
+                          ApplicationEventPublisher events) {
         this.repo = repo;
+        this.readModel = readModel;
+        this.terms = terms;
+        this.events = events;
     }
 
-    // GET /api/exams?campus=V&subject=CPSC&course=221
-    // campus defaults to "V" (Vancouver)
+    // GET /api/exams?campus=V&subject=CPSC&course=221&term=2025W1
+    // campus defaults to "V" (Vancouver), term to the current one; served from that term's in-memory snapshot
     @GetMapping
-    public List<Exam> list(
+    public List<ExamView> list(
             @RequestParam(defaultValue = "V") String campus,
             @RequestParam(required = false) String subject,
-            @RequestParam(required = false) String course) {
+            @RequestParam(required = false) String course,
+            @RequestParam(required = false) String term) {
 
-        String c = normalizeCampus(campus);
-
-        if (subject != null && course != null) {
-            return repo.findByCampusIgnoreCaseAndSubjectIgnoreCaseAndCourseIgnoreCaseOrderByStartTimeAsc(
-                    c, subject, course);
-        } else if (subject != null) {
-            return repo.findByCampusIgnoreCaseAndSubjectIgnoreCaseOrderByStartTimeAsc(c, subject);
-        }
-        return repo.findByCampusIgnoreCaseOrderByStartTimeAsc(c);
+        return readModel.snapshot(term).list(ExamKeys.campus(campus), subject, course);
     }
 
     // POST /api/exams
     @PostMapping
     public Exam create(@Valid @RequestBody ExamRequest req) {
         Exam e = new Exam();
-        e.setCampus(normalizeCampus(req.campus())); // defaults to "V" if null/blank
-        e.setSubject(req.subject());
-        e.setCourse(req.course());
-        e.setSection(req.section());
-        e.setStartTime(OffsetDateTime.parse(req.startTime())); // must be ISO-8601
+        OffsetDateTime start = OffsetDateTime.parse(req.startTime()); // must be ISO-8601
+        String term = ExamTerms.key(req.term());
+        e.setTerm(term != null ? term : ExamTerms.of(start));
+        e.setCampus(ExamKeys.campus(req.campus())); // defaults to "V" if null/blank
+        e.setSubject(ExamKeys.key(req.subject()));
+        e.setCourse(ExamKeys.key(req.course()));
+        e.setSection(ExamKeys.key(req.section()));
+        e.setStartTime(start);
         e.setDurationMin(req.durationMin());
         e.setBuilding(req.building());
         e.setRoom(req.room());
-        return repo.save(e);
+        terms.ensurePartition(e.getTerm());
+        Exam saved = repo.save(e);
+        events.publishEvent(new ExamsChangedEvent("api"));
+        return saved;
     }
 
     @DeleteMapping("/{id}")
     public void delete(@PathVariable Long id) {
         repo.deleteById(id);
-    }
-
-    private String normalizeCampus(String campus) {
-        if (campus == null || campus.isBlank()) return "V"; // default Vancouver
-        String c = campus.trim();
-        if (c.equalsIgnoreCase("Vancouver") || c.equalsIgnoreCase("V")) return "V";
-        // Allow others to pass through unchanged (e.g., "O" if you ever add Okanagan)
-        return c;
+        events.publishEvent(new ExamsChangedEvent("api"));
     }
 }
@@ -0,0 +1,9 @@
+package com.ubcplanner.exams;
+
+import java.util.List;
+
+/**
+ * One page of a keyset (cursor) search. {@code next} is an opaque token for the following page,
+ * null on the last page; {@code totalElements} is only present when the caller asked for a count.
+ */
+public record ExamCursorPage(List<ExamView> content, String next, Integer totalElements) {}
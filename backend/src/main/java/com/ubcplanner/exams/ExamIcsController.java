@@ -1,13 +1,17 @@
 package com.ubcplanner.exams;
 
+import com.ubcplanner.common.ETags;
+import com.ubcplanner.ics.IcsFragmentCache;
 import com.ubcplanner.ics.IcsService;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -16,12 +20,14 @@ import java.util.stream.Collectors;
 @CrossOrigin // dev convenience
 public class ExamIcsController {
 
-    private final ExamRepository repo;
+    private final ExamReadModel readModel;
     private final IcsService icsService;
+    private final IcsFragmentCache fragments;
 
-    public ExamIcsController(ExamRepository repo, IcsService icsService) {
-        this.repo = repo;
+    public ExamIcsController(ExamReadModel readModel, IcsService icsService, IcsFragmentCache fragments) {
+        this.readModel = readModel;
         this.icsService = icsService;
+        this.fragments = fragments;
     }
 
     /**
@@ -30,17 +36,25 @@ public class ExamIcsController {
      * Two modes:
      *  1) By IDs:    GET /api/exams/ics?ids=1,2,3
      *  2) By filter: GET /api/exams/ics?campus=V&subject=CPSC&course=221&section=101&filename=cpsc221.ics
+     *
+     * Both look in one term, {@code term} or else the current one; ids of exams in other terms are skipped.
+     *
+     * The body is a concatenation of cached VEVENT fragments. Responses carry a strong ETag over
+     * the exam ids and row versions, so polling calendar apps get a 304 until something changes.
      */
     @GetMapping(value = "/ics", produces = "text/calendar")
-    public ResponseEntity<byte[]> downloadIcs(
+    public ResponseEntity<StreamingResponseBody> downloadIcs(
             @RequestParam(required = false) String ids,
             @RequestParam(defaultValue = "V") String campus,
             @RequestParam(required = false) String subject,
             @RequestParam(required = false) String course,
             @RequestParam(required = false) String section,
-            @RequestParam(defaultValue = "exams.ics") String filename
+            @RequestParam(defaultValue = "exams.ics") String filename,
+            @RequestParam(required = false) String term,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
-        final List<Exam> exams;
+        ExamSnapshot snapshot = readModel.snapshot(term);
+        final int[] rows;
 
         // Mode 1: explicit IDs
         if (StringUtils.hasText(ids)) {
@@ -49,39 +63,29 @@ public class ExamIcsController {
                     .filter(s -> !s.isEmpty())
                     .map(Long::valueOf)
                     .collect(Collectors.toList());
-
-            exams = repo.findAllById(idList).stream()
-                    .sorted(Comparator.comparing(Exam::getStartTime,
-                            Comparator.nullsLast(Comparator.naturalOrder())))
-                    .toList();
+            rows = snapshot.rowsForIds(idList);
 
         // Mode 2: filter by campus / subject / course / section
         } else {
-            if (StringUtils.hasText(section)) {
-                exams = repo.findByCampusIgnoreCaseAndSubjectIgnoreCaseAndCourseIgnoreCaseOrderByStartTimeAsc(campus, subject, course)
-                        .stream()
-                        .filter(e -> e.getSection() != null && e.getSection().equalsIgnoreCase(section))
-                        .toList();
-            } else if (StringUtils.hasText(course)) {
-                exams = repo.findByCampusIgnoreCaseAndSubjectIgnoreCaseAndCourseIgnoreCaseOrderByStartTimeAsc(campus, subject, course);
-            } else if (StringUtils.hasText(subject)) {
-                exams = repo.findByCampusIgnoreCaseAndSubjectIgnoreCaseOrderByStartTimeAsc(campus, subject);
-            } else {
-                exams = repo.findByCampusIgnoreCaseOrderByStartTimeAsc(campus);
-            }
+            rows = snapshot.rows(ExamKeys.campus(campus), subject, course, section);
         }
 
-        // Build payload
-        byte[] payload;
-        if (exams.isEmpty()) {
-            payload = ("BEGIN:VCALENDAR\r\n" +
-                       "PRODID:-//UBC-Exam-Scheduler//EN\r\n" +
-                       "VERSION:2.0\r\n" +
-                       "END:VCALENDAR\r\n").getBytes(StandardCharsets.UTF_8);
-        } else {
-            payload = icsService.generate(exams);
+        String etag = IcsFragmentCache.etag(snapshot, rows);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
         }
 
+        StreamingResponseBody body = out -> {
+            try (IcsService.IcsWriter writer = icsService.open(out)) {
+                for (int r : rows) {
+                    writer.fragment(fragments.fragment(snapshot, r));
+                }
+            }
+        };
+
         // Sanitize filename and ensure .ics extension
         String safeFilename = filename.replaceAll("[\\r\\n\"]", "").trim();
         if (!safeFilename.toLowerCase(Locale.ROOT).endsWith(".ics")) {
@@ -90,7 +94,9 @@ public class ExamIcsController {
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + safeFilename + "\"")
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
                 .contentType(MediaType.parseMediaType("text/calendar"))
-                .body(payload);
+                .body(body);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,26 @@
+package com.ubcplanner.exams;
+
+import java.util.Locale;
+
+/**
+ * Canonical form of exam key columns. Campus, subject, course and section are stored
+ * trimmed and upper-cased (see V2__canonical_exam_keys.sql), so every writer normalizes
+ * through here and every finder can use plain equality.
+ */
+public final class ExamKeys {
+
+    private ExamKeys() {}
+
+    /** "Vancouver" / "v" / blank -> "V"; anything else is upper-cased (e.g. "O" for Okanagan). */
+    public static String campus(String campus) {
+        if (campus == null || campus.isBlank()) return "V"; // default Vancouver
+        String c = campus.trim();
+        if (c.equalsIgnoreCase("Vancouver") || c.equalsIgnoreCase("V")) return "V";
+        return c.toUpperCase(Locale.ROOT);
+    }
+
+    /** Trimmed, upper-cased subject / course / section; null stays null. */
+    public static String key(String value) {
+        return (value == null) ? null : value.trim().toUpperCase(Locale.ROOT);
+    }
+}
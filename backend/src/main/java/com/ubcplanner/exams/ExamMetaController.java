@@ -1,5 +1,6 @@
 package com.ubcplanner.exams;
 
+import com.ubcplanner.catalog.CatalogTree;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
@@ -8,27 +9,33 @@ import java.util.List;
 @CrossOrigin
 public class ExamMetaController {
 
-    private final ExamRepository repo;
+    // Answered from the in-memory catalog tree; same values as GET /api/catalog/tree.
+    private final ExamReadModel readModel;
+    private final CatalogTree tree;
 
-    public ExamMetaController(ExamRepository repo) {
-        this.repo = repo;
+    public ExamMetaController(ExamReadModel readModel, CatalogTree tree) {
+        this.readModel = readModel;
+        this.tree = tree;
     }
 
     @GetMapping("/subjects")
-    public List<String> subjects(@RequestParam(defaultValue = "V") String campus) {
-        return repo.findDistinctSubjects(campus);
+    public List<String> subjects(@RequestParam(defaultValue = "V") String campus,
+                                 @RequestParam(required = false) String term) {
+        return tree.subjects(readModel.snapshot(term), campus);
     }
 
     @GetMapping("/courses")
     public List<String> courses(@RequestParam String subject,
-                                @RequestParam(defaultValue = "V") String campus) {
-        return repo.findDistinctCourses(campus, subject);
+                                @RequestParam(defaultValue = "V") String campus,
+                                @RequestParam(required = false) String term) {
+        return tree.courses(readModel.snapshot(term), campus, subject);
     }
 
     @GetMapping("/sections")
     public List<String> sections(@RequestParam String subject,
                                  @RequestParam String course,
-                                 @RequestParam(defaultValue = "V") String campus) {
-        return repo.findDistinctSections(campus, subject, course);
+                                 @RequestParam(defaultValue = "V") String campus,
+                                 @RequestParam(required = false) String term) {
+        return tree.sections(readModel.snapshot(term), campus, subject, course);
     }
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+package com.ubcplanner.exams;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.OffsetDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds an {@link ExamSnapshot} per term and swaps in a fresh one after every committed write.
+ * Readers never touch the database once a term's snapshot is built. Each snapshot holds one term,
+ * so its load reads a single partition however many past terms are kept.
+ *
+ * The current term is loaded at startup; any other term on its first request. At most
+ * {@code ubc.exams.maxTerms} terms are held, the current one always among them, and a write
+ * drops all but the current one, since it may have changed any term.
+ */
+@Component
+public class ExamReadModel {
+
+    private static final Logger log = LoggerFactory.getLogger(ExamReadModel.class);
+
+    private static final String CHANGE_SEQ = "select coalesce(max(seq), 0) from exam_change";
+
+    private final JdbcTemplate jdbc;
+    private final ExamRowStream rows;
+    private final ExamTermService terms;
+    private final ApplicationEventPublisher events;
+    private final Timer rebuildTime;
+
+    private final Map<String, ExamSnapshot> byTerm = new ConcurrentHashMap<>();
+    private final Set<String> loadOrder = new LinkedHashSet<>(); // guarded by this
+    private long nextVersion = 1;
+
+    @Value("${ubc.exams.maxTerms:4}")
+    private int maxTerms;
+
+    public ExamReadModel(JdbcTemplate jdbc, ExamRowStream rows, ExamTermService terms,
+                         ApplicationEventPublisher events, MeterRegistry registry) {
+        this.jdbc = jdbc;
+        this.rows = rows;
+        this.terms = terms;
+        this.events = events;
+        this.rebuildTime = Timer.builder("exam.snapshot.rebuild")
+                .description("Loading every exam row of a term into a new snapshot")
+                .register(registry);
+        Gauge.builder("exam.snapshot.rows", this, m -> m.byTerm.values().stream().mapToInt(ExamSnapshot::size).sum())
+                .description("Rows in the snapshots held, over all terms")
+                .register(registry);
+    }
+
+    /** Snapshot of the current term; see {@link #snapshot(String)}. */
+    public ExamSnapshot snapshot() {
+        return snapshot(null);
+    }
+
+    /**
+     * Snapshot of {@code term}, a session code such as 2025W1; null or blank is the current term.
+     * Built on first use, which also covers the current term before startup warm-up has run or
+     * after the calendar has moved on to another term.
+     */
+    public ExamSnapshot snapshot(String term) {
+        String t = ExamTerms.key(term);
+        if (t == null) t = terms.current();
+        ExamSnapshot s = byTerm.get(t);
+        return (s != null) ? s : load(t);
+    }
+
+    private synchronized ExamSnapshot load(String term) {
+        ExamSnapshot s = byTerm.get(term);
+        return (s != null) ? s : rebuild(term);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExamsChanged(ExamsChangedEvent event) {
+        rebuild();
+    }
+
+    /** Rebuilds the current term's snapshot and drops the others; they load again on their next use. */
+    public synchronized ExamSnapshot rebuild() {
+        String current = terms.current();
+        byTerm.keySet().removeIf(t -> !t.equals(current));
+        loadOrder.retainAll(byTerm.keySet());
+        return rebuild(current);
+    }
+
+    private synchronized ExamSnapshot rebuild(String term) {
+        long started = System.nanoTime();
+        // read before the rows, so the snapshot holds at least every change up to this position
+        Long changeSeq = jdbc.queryForObject(CHANGE_SEQ, Long.class);
+        ExamSnapshot.Builder builder = new ExamSnapshot.Builder(nextVersion++).term(term).changeSeq(changeSeq);
+        rows.termVersioned(term, rs -> {
+            builder.add(
+                    rs.getLong("id"),
+                    rs.getLong("version"),
+                    rs.getObject("updated_at", OffsetDateTime.class),
+                    rs.getString("campus"),
+                    rs.getString("subject"),
+                    rs.getString("course"),
+                    rs.getString("section"),
+                    rs.getObject("start_time", OffsetDateTime.class),
+                    rs.getInt("duration_min"),
+                    rs.getString("building"),
+                    rs.getString("room"));
+        });
+        ExamSnapshot s = builder.build();
+        String current = terms.current();
+        byTerm.put(term, s);
+        loadOrder.remove(term);
+        loadOrder.add(term);
+        // the least recently loaded other terms go first
+        Iterator<String> oldest = loadOrder.iterator();
+        while (byTerm.size() > Math.max(maxTerms, 1) && oldest.hasNext()) {
+            String t = oldest.next();
+            if (t.equals(current) || t.equals(term)) continue;
+            oldest.remove();
+            byTerm.remove(t);
+        }
+        long elapsed = System.nanoTime() - started;
+        rebuildTime.record(elapsed, TimeUnit.NANOSECONDS);
+        events.publishEvent(new ExamSnapshotRebuiltEvent(s, term.equals(current), Set.copyOf(byTerm.keySet())));
+        log.info("Exam snapshot v{} built for {}: {} rows in {} ms", s.version(), term, s.size(), elapsed / 1_000_000);
+        return s;
+    }
+}
@@ -10,64 +10,83 @@ import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * All key columns are stored in canonical form ({@link ExamKeys}), so finders use plain equality
+ * and are backed by the indexes in V2__canonical_exam_keys.sql.
+ * Callers pass canonical values.
+ *
+ * Every finder takes the term first. {@code exam} is partitioned by term (V7), so the planner
+ * prunes to one partition and older sessions add no cost. Callers normally pass
+ * {@link ExamTermService#current()}.
+ *
+ * Read finders return {@link ExamView} records: Hibernate selects the columns straight into the
+ * record constructor, so no entity is instantiated, snapshotted or tracked in the persistence
+ * context. Only the upsert lookup returns a managed {@link Exam}.
+ */
 public interface ExamRepository extends JpaRepository<Exam, Long> {
 
     // ---------- List filters (legacy list endpoints) ----------
-    List<Exam> findByCampusIgnoreCaseOrderByStartTimeAsc(String campus);
-    List<Exam> findByCampusIgnoreCaseAndSubjectIgnoreCaseOrderByStartTimeAsc(String campus, String subject);
-    List<Exam> findByCampusIgnoreCaseAndSubjectIgnoreCaseAndCourseIgnoreCaseOrderByStartTimeAsc(
-            String campus, String subject, String course);
+    List<ExamView> findByTermAndCampusOrderByStartTimeAsc(String term, String campus);
+    List<ExamView> findByTermAndCampusAndSubjectOrderByStartTimeAsc(String term, String campus, String subject);
+    List<ExamView> findByTermAndCampusAndSubjectAndCourseOrderByStartTimeAsc(
+            String term, String campus, String subject, String course);
 
     // ---------- Upsert lookup (includes campus) ----------
-    Optional<Exam> findByCampusAndSubjectIgnoreCaseAndCourseIgnoreCaseAndSectionIgnoreCaseAndStartTime(
-            String campus, String subject, String course, String section, OffsetDateTime startTime
+    Optional<Exam> findByTermAndCampusAndSubjectAndCourseAndSectionAndStartTime(
+            String term, String campus, String subject, String course, String section, OffsetDateTime startTime
     );
 
     // ---------- Catalog lookups for dropdowns (meta endpoints) ----------
     @Query("""
-           select distinct upper(e.subject)
+           select distinct e.subject
            from Exam e
-           where lower(e.campus) = lower(:campus)
-           order by upper(e.subject)
+           where e.term = :term
+             and e.campus = :campus
+           order by e.subject
            """)
-    List<String> findDistinctSubjects(@Param("campus") String campus);
+    List<String> findDistinctSubjects(@Param("term") String term,
+                                      @Param("campus") String campus);
 
     @Query("""
            select distinct e.course
            from Exam e
-           where lower(e.campus) = lower(:campus)
-             and lower(e.subject) = lower(:subject)
+           where e.term = :term
+             and e.campus = :campus
+             and e.subject = :subject
            order by e.course
            """)
-    List<String> findDistinctCourses(@Param("campus") String campus,
+    List<String> findDistinctCourses(@Param("term") String term,
+                                     @Param("campus") String campus,
                                      @Param("subject") String subject);
 
     @Query("""
            select distinct e.section
            from Exam e
-           where lower(e.campus) = lower(:campus)
-             and lower(e.subject) = lower(:subject)
-             and lower(e.course)  = lower(:course)
+           where e.term = :term
+             and e.campus = :campus
+             and e.subject = :subject
+             and e.course  = :course
            order by e.section
            """)
-    List<String> findDistinctSections(@Param("campus") String campus,
+    List<String> findDistinctSections(@Param("term") String term,
+                                      @Param("campus") String campus,
                                       @Param("subject") String subject,
                                       @Param("course") String course);
 
     // ---------- Pageable finders for /api/exams/search ----------
-    Page<Exam> findByCampusIgnoreCase(String campus, Pageable pageable);
+    Page<ExamView> findByTermAndCampus(String term, String campus, Pageable pageable);
 
-    Page<Exam> findByCampusIgnoreCaseAndSubjectIgnoreCase(
-            String campus, String subject, Pageable pageable);
+    Page<ExamView> findByTermAndCampusAndSubject(
+            String term, String campus, String subject, Pageable pageable);
 
-    Page<Exam> findByCampusIgnoreCaseAndSubjectIgnoreCaseAndCourseIgnoreCase(
-            String campus, String subject, String course, Pageable pageable);
+    Page<ExamView> findByTermAndCampusAndSubjectAndCourse(
+            String term, String campus, String subject, String course, Pageable pageable);
 
-    Page<Exam> findByCampusIgnoreCaseAndSubjectIgnoreCaseAndCourseIgnoreCaseAndSectionIgnoreCase(
-            String campus, String subject, String course, String section, Pageable pageable);
+    Page<ExamView> findByTermAndCampusAndSubjectAndCourseAndSection(
+            String term, String campus, String subject, String course, String section, Pageable pageable);
 
     // ---------- Back-compat aliases (optional) ----------
-    @Deprecated default List<String> distinctSubjects(String campus) { return findDistinctSubjects(campus); }
-    @Deprecated default List<String> distinctCourses(String campus, String subject) { return findDistinctCourses(campus, subject); }
-    @Deprecated default List<String> distinctSections(String campus, String subject, String course) { return findDistinctSections(campus, subject, course); }
-}
\ No newline at end of file
+    @Deprecated default List<String> distinctSubjects(String term, String campus) { return findDistinctSubjects(term, campus); }
+    @Deprecated default List<String> distinctCourses(String term, String campus, String subject) { return findDistinctCourses(term, campus, subject); }
+    @Deprecated default List<String> distinctSections(String term, String campus, String subject, String course) { return findDistinctSections(term, campus, subject, course); }
+}
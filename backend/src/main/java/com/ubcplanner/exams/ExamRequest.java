@@ -6,6 +6,7 @@ import jakarta.validation.constraints.NotNull;
 /**
  * Request body for creating an Exam.
  * `campus` is optional; controller defaults to "V" (Vancouver) when absent/blank.
+ * `term` is optional; controller defaults to the session the start time falls in.
  */
 public record ExamRequest(
         @NotBlank String subject,
@@ -15,5 +16,6 @@ public record ExamRequest(
         @NotNull Integer durationMin,
         String building,
         String room,
-        String campus // optional; if null/blank -> "V"
+        String campus, // optional; if null/blank -> "V"
+        String term    // optional; e.g. 2025W1, if null/blank -> derived from startTime
 ) {}
\ No newline at end of file
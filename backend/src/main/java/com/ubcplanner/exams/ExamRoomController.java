@@ -0,0 +1,103 @@
+package com.ubcplanner.exams;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/exams/rooms")
+@CrossOrigin
+public class ExamRoomController {
+
+    private static final long MAX_DAYS = 62;
+    private static final int MAX_DOUBLE_BOOKINGS = 1000;
+
+    private final ExamReadModel readModel;
+    private final ExamRoomIndex rooms;
+
+    public ExamRoomController(ExamReadModel readModel, ExamRoomIndex rooms) {
+        this.readModel = readModel;
+        this.rooms = rooms;
+    }
+
+    // GET /api/exams/rooms/schedule?campus=V&building=HEBB&room=100&from=2025-12-15&to=2025-12-15
+    // exams in the room that overlap the days [from, to]
+    @GetMapping("/schedule")
+    public ExamRoomIndex.RoomSchedule schedule(@RequestParam(defaultValue = "V") String campus,
+                                               @RequestParam String building,
+                                               @RequestParam String room,
+                                               @RequestParam String from,
+                                               @RequestParam String to,
+                                               @RequestParam(required = false) String term) {
+        LocalDate f = date(from, "from"), t = date(to, "to");
+        requireRange(f, t);
+        if (building.isBlank() || room.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'building' and 'room' are required");
+        }
+        return rooms.schedule(readModel.snapshot(term), campus, building, room,
+                f.atStartOfDay(ExamTimes.VANCOUVER).toEpochSecond(),
+                t.plusDays(1).atStartOfDay(ExamTimes.VANCOUVER).toEpochSecond());
+    }
+
+    // GET /api/exams/rooms/utilization?campus=V&building=HEBB&from=2025-12-08&to=2025-12-20
+    // share of each day's [dayStart, dayEnd) every room is booked for
+    @GetMapping("/utilization")
+    public List<ExamRoomIndex.RoomUsage> utilization(@RequestParam(defaultValue = "V") String campus,
+                                                     @RequestParam(required = false) String building,
+                                                     @RequestParam String from,
+                                                     @RequestParam String to,
+                                                     @RequestParam(defaultValue = "08:00") String dayStart,
+                                                     @RequestParam(defaultValue = "22:00") String dayEnd,
+                                                     @RequestParam(required = false) String term) {
+        LocalDate f = date(from, "from"), t = date(to, "to");
+        requireRange(f, t);
+        LocalTime start = time(dayStart, "dayStart"), end = time(dayEnd, "dayEnd");
+        if (!end.isAfter(start)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'dayEnd' must be after 'dayStart'");
+        }
+        return rooms.utilization(readModel.snapshot(term), campus, building, f, t, start, end);
+    }
+
+    // GET /api/exams/rooms/double-bookings?campus=V&subject=CPSC&limit=100
+    @GetMapping("/double-bookings")
+    public List<ExamRoomIndex.DoubleBooking> doubleBookings(@RequestParam(defaultValue = "V") String campus,
+                                                            @RequestParam(required = false) String subject,
+                                                            @RequestParam(required = false) String course,
+                                                            @RequestParam(defaultValue = "100") int limit,
+                                                            @RequestParam(required = false) String term) {
+        if (limit < 1 || limit > MAX_DOUBLE_BOOKINGS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "'limit' must be between 1 and " + MAX_DOUBLE_BOOKINGS);
+        }
+        return rooms.doubleBookings(readModel.snapshot(term), campus, subject, course, limit);
+    }
+
+    private static void requireRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "'to' must be on or after 'from' and at most " + MAX_DAYS + " days later");
+        }
+    }
+
+    private static LocalDate date(String value, String name) {
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid '" + name + "': expected yyyy-MM-dd");
+        }
+    }
+
+    private static LocalTime time(String value, String name) {
+        try {
+            return LocalTime.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid '" + name + "': expected HH:mm");
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.ubcplanner.exams;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.*;
+import java.util.*;
+
+/**
+ * Exams by room, as interval trees, per campus.
+ *
+ * A room's bookings are kept in start order with an implicit balanced tree over them: the node for
+ * [lo, hi) is the middle booking, and {@code maxEnd} holds the latest end in its subtree. A window
+ * query skips every subtree that ends before the window, so it costs O(log n + k) for n bookings
+ * in the room and k matches. Rooms are keyed case-insensitively by campus, building and room;
+ * rows without a building or room, or with a placeholder room (TBA), are not indexed.
+ *
+ * Double-bookings are found once per build with a sweep over each room. Sections of the same
+ * course starting together in one room are a combined sitting, not a double-booking. Built per
+ * term from that term's snapshot, and rebuilt from every new one.
+ */
+@Component
+public class ExamRoomIndex {
+
+    private static final Set<String> PLACEHOLDER_ROOMS = Set.of("TBA", "TBD");
+
+    public record RoomSchedule(String campus, String building, String room, List<ExamView> exams) {}
+
+    /** Booked time is the union of exams in the room, clipped to each day's [dayStart, dayEnd). */
+    public record RoomUsage(String building, String room, int exams, long bookedMinutes,
+                            long availableMinutes, double utilization) {}
+
+    public record DoubleBooking(String building, String room, OffsetDateTime overlapStart,
+                                OffsetDateTime overlapEnd, ExamView first, ExamView second) {}
+
+    private record Room(String building, String room, int[] rows, long[] start, long[] end, long[] maxEnd) {}
+
+    private record Built(ExamSnapshot snapshot, Map<String, Room> byKey, Map<String, List<Room>> byCampus,
+                         Map<String, List<int[]>> doubleBookings) {}
+
+    private final SnapshotDerived<Built> built = new SnapshotDerived<>(ExamRoomIndex::build);
+
+    @EventListener
+    public void onSnapshotRebuilt(ExamSnapshotRebuiltEvent event) {
+        built.rebuilt(event);
+    }
+
+    /** Exams of {@code snapshot} in one room that overlap [fromEpochSec, toEpochSec), in start order. */
+    public RoomSchedule schedule(ExamSnapshot snapshot, String campus, String building, String room,
+                                 long fromEpochSec, long toEpochSec) {
+        Built b = built.get(snapshot);
+        String c = ExamKeys.campus(campus);
+        Room r = b.byKey().get(roomKey(c, key(building), key(room)));
+        if (r == null) return new RoomSchedule(c, key(building), key(room), List.of());
+
+        List<ExamView> exams = new ArrayList<>();
+        for (int i : overlapping(r, fromEpochSec, toEpochSec)) exams.add(b.snapshot().view(r.rows()[i]));
+        return new RoomSchedule(c, r.building(), r.room(), exams);
+    }
+
+    /**
+     * Usage of every room with at least one exam on the days [from, to], optionally limited to one
+     * building, ordered by building and room.
+     */
+    public List<RoomUsage> utilization(ExamSnapshot snapshot, String campus, String building, LocalDate from,
+                                       LocalDate to, LocalTime dayStart, LocalTime dayEnd) {
+        List<Room> rooms = built.get(snapshot).byCampus().getOrDefault(ExamKeys.campus(campus), List.of());
+        String b = key(building);
+
+        int days = (int) (to.toEpochDay() - from.toEpochDay() + 1);
+        long[] windowStart = new long[days], windowEnd = new long[days];
+        long available = 0;
+        for (int d = 0; d < days; d++) {
+            LocalDate day = from.plusDays(d);
+            windowStart[d] = day.atTime(dayStart).atZone(ExamTimes.VANCOUVER).toEpochSecond();
+            windowEnd[d] = day.atTime(dayEnd).atZone(ExamTimes.VANCOUVER).toEpochSecond();
+            available += windowEnd[d] - windowStart[d];
+        }
+
+        List<RoomUsage> out = new ArrayList<>();
+        for (Room r : rooms) {
+            if (b != null && !b.equals(r.building())) continue;
+            int[] hits = overlapping(r, windowStart[0], windowEnd[days - 1]);
+            if (hits.length == 0) continue;
+
+            long booked = 0;
+            // hits are in start order, so overlapping exams merge into one busy stretch as we go
+            long busyStart = r.start()[hits[0]], busyEnd = r.end()[hits[0]];
+            for (int k = 1; k <= hits.length; k++) {
+                if (k < hits.length && r.start()[hits[k]] < busyEnd) {
+                    busyEnd = Math.max(busyEnd, r.end()[hits[k]]);
+                    continue;
+                }
+                for (int d = 0; d < days; d++) {
+                    booked += Math.max(0, Math.min(busyEnd, windowEnd[d]) - Math.max(busyStart, windowStart[d]));
+                }
+                if (k < hits.length) {
+                    busyStart = r.start()[hits[k]];
+                    busyEnd = r.end()[hits[k]];
+                }
+            }
+            out.add(new RoomUsage(r.building(), r.room(), hits.length, booked / 60, available / 60,
+                    available > 0 ? (double) booked / available : 0d));
+        }
+        return out;
+    }
+
+    /**
+     * Pairs of exams booked into the same room at overlapping times, ordered by room and then
+     * time. With a subject (and course), only pairs involving that subject (course) are returned.
+     */
+    public List<DoubleBooking> doubleBookings(ExamSnapshot snapshot, String campus, String subject, String course,
+                                              int limit) {
+        Built b = built.get(snapshot);
+        ExamSnapshot s = b.snapshot();
+        String sk = key(subject), ck = key(course);
+
+        List<DoubleBooking> out = new ArrayList<>();
+        for (int[] pair : b.doubleBookings().getOrDefault(ExamKeys.campus(campus), List.of())) {
+            if (out.size() >= limit) break;
+            if (sk != null && !(involves(s, pair[0], sk, ck) || involves(s, pair[1], sk, ck))) continue;
+            int x = pair[0], y = pair[1];
+            long overlapStart = Math.max(s.startEpochSec(x), s.startEpochSec(y));
+            long overlapEnd = Math.min(end(s, x), end(s, y));
+            out.add(new DoubleBooking(key(s.building(x)), key(s.room(x)), time(overlapStart), time(overlapEnd),
+                    s.view(x), s.view(y)));
+        }
+        return out;
+    }
+
+    private static Built build(ExamSnapshot snapshot) {
+        Map<String, Room> byKey = new HashMap<>();
+        Map<String, List<Room>> byCampus = new HashMap<>();
+        Map<String, List<int[]>> doubleBookings = new HashMap<>();
+
+        for (String campus : snapshot.campuses()) {
+            // campus rows are in start order, so each room's list is too
+            Map<String, ExamSnapshot.IntList> rowsByRoom = new TreeMap<>();
+            for (int r : snapshot.rows(campus, null, null, null)) {
+                String building = key(snapshot.building(r)), room = key(snapshot.room(r));
+                if (building == null || room == null || PLACEHOLDER_ROOMS.contains(room)) continue;
+                rowsByRoom.computeIfAbsent(building + '|' + room, k -> new ExamSnapshot.IntList()).add(r);
+            }
+
+            List<Room> rooms = new ArrayList<>(rowsByRoom.size());
+            List<int[]> pairs = new ArrayList<>();
+            rowsByRoom.forEach((k, list) -> {
+                Room room = room(snapshot, list.toArray());
+                rooms.add(room);
+                byKey.put(roomKey(campus, room.building(), room.room()), room);
+                sweep(snapshot, room, pairs);
+            });
+            byCampus.put(campus, List.copyOf(rooms));
+            doubleBookings.put(campus, List.copyOf(pairs));
+        }
+        return new Built(snapshot, Map.copyOf(byKey), Map.copyOf(byCampus), Map.copyOf(doubleBookings));
+    }
+
+    private static Room room(ExamSnapshot snapshot, int[] rows) {
+        int n = rows.length;
+        long[] start = new long[n], end = new long[n];
+        for (int i = 0; i < n; i++) {
+            start[i] = snapshot.startEpochSec(rows[i]);
+            end[i] = end(snapshot, rows[i]);
+        }
+        long[] maxEnd = new long[n];
+        fillMaxEnd(end, maxEnd, 0, n);
+        int first = rows[0];
+        return new Room(key(snapshot.building(first)), key(snapshot.room(first)), rows, start, end, maxEnd);
+    }
+
+    private static long fillMaxEnd(long[] end, long[] maxEnd, int lo, int hi) {
+        if (lo >= hi) return Long.MIN_VALUE;
+        int mid = (lo + hi) >>> 1;
+        long m = Math.max(end[mid], Math.max(fillMaxEnd(end, maxEnd, lo, mid), fillMaxEnd(end, maxEnd, mid + 1, hi)));
+        maxEnd[mid] = m;
+        return m;
+    }
+
+    /** Positions (into the room's arrays) of bookings overlapping [from, to), in start order. */
+    private static int[] overlapping(Room r, long from, long to) {
+        ExamSnapshot.IntList out = new ExamSnapshot.IntList();
+        collect(r, 0, r.start().length, from, to, out);
+        return out.toArray();
+    }
+
+    private static void collect(Room r, int lo, int hi, long from, long to, ExamSnapshot.IntList out) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        if (r.maxEnd()[mid] <= from) return; // everything below ends before the window
+        collect(r, lo, mid, from, to, out);
+        if (r.start()[mid] >= to) return;    // this and everything after starts after it
+        if (r.end()[mid] > from) out.add(mid);
+        collect(r, mid + 1, hi, from, to, out);
+    }
+
+    /** Every overlapping pair in one room, by keeping the bookings still running at each start. */
+    private static void sweep(ExamSnapshot snapshot, Room r, List<int[]> pairs) {
+        List<Integer> running = new ArrayList<>();
+        for (int i = 0; i < r.rows().length; i++) {
+            long start = r.start()[i];
+            running.removeIf(j -> r.end()[j] <= start);
+            for (int j : running) {
+                if (!sharedSitting(snapshot, r.rows()[j], r.rows()[i])) pairs.add(new int[] { r.rows()[j], r.rows()[i] });
+            }
+            running.add(i);
+        }
+    }
+
+    private static boolean sharedSitting(ExamSnapshot s, int a, int b) {
+        return s.startEpochSec(a) == s.startEpochSec(b)
+                && Objects.equals(key(s.subject(a)), key(s.subject(b)))
+                && Objects.equals(key(s.course(a)), key(s.course(b)));
+    }
+
+    private static boolean involves(ExamSnapshot s, int row, String subject, String course) {
+        return subject.equals(key(s.subject(row))) && (course == null || course.equals(key(s.course(row))));
+    }
+
+    private static long end(ExamSnapshot s, int row) {
+        return s.startEpochSec(row) + s.durationMin(row) * 60L;
+    }
+
+    private static String roomKey(String campus, String building, String room) {
+        return campus + '|' + building + '|' + room;
+    }
+
+    private static String key(String s) {
+        return (s == null || s.isBlank()) ? null : s.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static OffsetDateTime time(long epochSec) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSec), ExamTimes.VANCOUVER);
+    }
+}
@@ -0,0 +1,61 @@
+package com.ubcplanner.exams;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Forward-only JDBC cursor over exam rows. Rows are handed to the handler one at a time with a fixed
+ * fetch size, so memory stays at one fetch batch no matter how many rows match. Runs in its own
+ * read-only transaction, which the PostgreSQL driver requires for cursor-based fetching.
+ */
+@Component
+public class ExamRowStream {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String SELECT_TERM_VERSIONED = """
+            select id, version, updated_at, campus, subject, course, section,
+                   start_time, duration_min, building, room
+            from exam
+            where term = ?
+            order by start_time, id
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate readOnlyTx;
+
+    public ExamRowStream(JdbcTemplate jdbc, PlatformTransactionManager txManager) {
+        this.jdbc = jdbc;
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    /**
+     * Every row of one term including {@code version} and {@code updated_at}, in (start_time, id)
+     * order. Used to build the {@link ExamSnapshot}; without a cursor the driver would buffer the
+     * whole partition before the first row is mapped.
+     */
+    public void termVersioned(String term, RowCallbackHandler handler) {
+        stream(SELECT_TERM_VERSIONED, ps -> ps.setString(1, term), handler);
+    }
+
+    private interface Binder {
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    private void stream(String sql, Binder binder, RowCallbackHandler handler) {
+        readOnlyTx.executeWithoutResult(status -> jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            binder.bind(ps);
+            return ps;
+        }, handler));
+    }
+}
@@ -1,52 +1,126 @@
 package com.ubcplanner.exams;
 
 import org.springframework.data.domain.*;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/exams")
 @CrossOrigin
 public class ExamSearchController {
 
-    private final ExamRepository repo;
+    // Sort keys follow the (campus, subject, course, section, start_time) index order.
+    private static final Set<String> SORT_KEYS = Set.of("startTime", "subject", "course", "section");
+
+    private final ExamReadModel readModel;
 
-    public ExamSearchController(ExamRepository repo) {
-        this.repo = repo;
+    public ExamSearchController(ExamReadModel readModel) {
+        this.readModel = readModel;
     }
 
+    /**
+     * Offset paging. With {@code count=false} the total is skipped and a {@link Slice} is returned.
+     * {@code from}/{@code to} limit results to exams starting in that window (see {@link ExamTimes}).
+     * {@code term} selects the session searched; the current one by default.
+     */
     @GetMapping("/search")
-    public Page<Exam> search(
+    public Slice<ExamView> search(
             @RequestParam(defaultValue = "V") String campus,
             @RequestParam(required = false) String subject,
             @RequestParam(required = false) String course,
             @RequestParam(required = false) String section,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
-            @RequestParam(defaultValue = "startTime,asc") String sort
+            @RequestParam(defaultValue = "startTime,asc") String sort,
+            @RequestParam(defaultValue = "true") boolean count,
+            @RequestParam(required = false) String term
     ) {
         Sort sortObj = parseSort(sort);
-        Pageable pageable = PageRequest.of(page, Math.min(Math.max(size, 1), 200), sortObj);
+        Pageable pageable = PageRequest.of(Math.max(page, 0), clampSize(size), sortObj);
+        long fromSec = ExamTimes.from(from);
+        long toSec = ExamTimes.to(to);
+        ExamTimes.requireOrdered(fromSec, toSec);
 
-        if (section != null && !section.isBlank()) {
-            return repo.findByCampusIgnoreCaseAndSubjectIgnoreCaseAndCourseIgnoreCaseAndSectionIgnoreCase(
-                    campus, subject, course, section, pageable);
-        }
-        if (course != null && !course.isBlank()) {
-            return repo.findByCampusIgnoreCaseAndSubjectIgnoreCaseAndCourseIgnoreCase(
-                    campus, subject, course, pageable);
+        Page<ExamView> result = readModel.snapshot(term).search(
+                ExamKeys.campus(campus), subject, course, section, fromSec, toSec, pageable);
+        return count ? result : new SliceImpl<>(result.getContent(), pageable, result.hasNext());
+    }
+
+    /**
+     * Keyset paging on (startTime, id): GET /api/exams/search?cursor=&size=50, then pass back {@code next}.
+     * Page 500 costs the same as page 1. Only startTime sorting is supported in this mode.
+     */
+    @GetMapping(value = "/search", params = "cursor")
+    public ExamCursorPage searchByCursor(
+            @RequestParam(defaultValue = "V") String campus,
+            @RequestParam(required = false) String subject,
+            @RequestParam(required = false) String course,
+            @RequestParam(required = false) String section,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "startTime,asc") String sort,
+            @RequestParam(defaultValue = "false") boolean count,
+            @RequestParam(required = false) String term
+    ) {
+        Sort.Order order = parseSort(sort).iterator().next();
+        if (!"startTime".equals(order.getProperty())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor paging only supports sort=startTime");
         }
-        if (subject != null && !subject.isBlank()) {
-            return repo.findByCampusIgnoreCaseAndSubjectIgnoreCase(campus, subject, pageable);
+
+        long fromSec = ExamTimes.from(from);
+        long toSec = ExamTimes.to(to);
+        ExamTimes.requireOrdered(fromSec, toSec);
+
+        long[] after = cursor.isBlank() ? null : decodeCursor(cursor);
+        ExamSnapshot.KeysetPage result = readModel.snapshot(term).searchAfter(ExamKeys.campus(campus),
+                subject, course, section, fromSec, toSec, after, order.isDescending(), clampSize(size));
+
+        String next = null;
+        if (result.hasMore() && !result.content().isEmpty()) {
+            ExamView last = result.content().get(result.content().size() - 1);
+            next = encodeCursor(last.startTime().toEpochSecond(), last.id());
         }
-        return repo.findByCampusIgnoreCase(campus, pageable);
+        return new ExamCursorPage(result.content(), next, count ? result.total() : null);
+    }
+
+    private static int clampSize(int size) {
+        return Math.min(Math.max(size, 1), 200);
     }
 
     private Sort parseSort(String sort) {
         // e.g. "startTime,asc" or "startTime,desc"
         String[] parts = sort.split(",", 2);
         String prop = (parts.length > 0 && !parts[0].isBlank()) ? parts[0].trim() : "startTime";
+        if (!SORT_KEYS.contains(prop)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Unsupported sort '" + prop + "'; expected one of " + SORT_KEYS);
+        }
         Sort.Direction dir = (parts.length > 1 && "desc".equalsIgnoreCase(parts[1].trim()))
                 ? Sort.Direction.DESC : Sort.Direction.ASC;
         return Sort.by(dir, prop);
     }
-}
\ No newline at end of file
+
+    private static String encodeCursor(long startEpochSec, long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((startEpochSec + ":" + id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static long[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            int colon = raw.indexOf(':');
+            return new long[] { Long.parseLong(raw.substring(0, colon)), Long.parseLong(raw.substring(colon + 1)) };
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
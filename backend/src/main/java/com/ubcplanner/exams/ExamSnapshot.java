@@ -0,0 +1,460 @@
+package com.ubcplanner.exams;
+
+import org.springframework.data.domain.*;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Immutable, column-oriented copy of the exam table.
+ *
+ * Rows are ordered by (startTime, id). String columns are dictionary-encoded into one shared
+ * dictionary; {@code -1} encodes null. Posting lists per campus, subject and course hold row
+ * numbers in ascending order, so every list is already in start-time order.
+ */
+public final class ExamSnapshot {
+
+    private static final int NULL = -1;
+
+    /** Open bounds for the time-window overloads. */
+    public static final long OPEN_FROM = Long.MIN_VALUE;
+    public static final long OPEN_TO = Long.MAX_VALUE;
+
+    private final long version;
+    private final String term;
+    private final long changeSeq;
+    private final int size;
+
+    private final long[] id;
+    private final long[] rowVersion;
+    private final long[] updatedEpochSec;
+    private final long[] startEpochSec;
+    private final int[] durationMin;
+    private final int[] campus, subject, course, section, building, room;
+
+    private final String[] dict;
+    private final String[] dictKey; // upper-cased dictionary, for case-insensitive matching
+
+    private final Map<String, int[]> byCampus;
+    private final Map<String, int[]> bySubject;
+    private final Map<String, int[]> byCourse;
+
+    // ids in ascending order, with the row each one lives in
+    private final long[] sortedIds;
+    private final int[] rowOfSortedId;
+
+    private ExamSnapshot(long version, String term, long changeSeq, int size, long[] id, long[] rowVersion, long[] updatedEpochSec,
+                         long[] startEpochSec, int[] durationMin,
+                         int[] campus, int[] subject, int[] course, int[] section, int[] building, int[] room,
+                         String[] dict) {
+        this.version = version;
+        this.term = term;
+        this.changeSeq = changeSeq;
+        this.size = size;
+        this.id = id;
+        this.rowVersion = rowVersion;
+        this.updatedEpochSec = updatedEpochSec;
+        this.startEpochSec = startEpochSec;
+        this.durationMin = durationMin;
+        this.campus = campus;
+        this.subject = subject;
+        this.course = course;
+        this.section = section;
+        this.building = building;
+        this.room = room;
+        this.dict = dict;
+
+        this.dictKey = new String[dict.length];
+        for (int i = 0; i < dict.length; i++) dictKey[i] = key(dict[i]);
+
+        Map<String, IntList> c = new HashMap<>(), s = new HashMap<>(), co = new HashMap<>();
+        for (int r = 0; r < size; r++) {
+            String ck = dictKey(campus[r]);
+            String sk = ck + '|' + dictKey(subject[r]);
+            String cok = sk + '|' + dictKey(course[r]);
+            c.computeIfAbsent(ck, k -> new IntList()).add(r);
+            s.computeIfAbsent(sk, k -> new IntList()).add(r);
+            co.computeIfAbsent(cok, k -> new IntList()).add(r);
+        }
+        this.byCampus = freeze(c);
+        this.bySubject = freeze(s);
+        this.byCourse = freeze(co);
+
+        Integer[] order = new Integer[size];
+        for (int r = 0; r < size; r++) order[r] = r;
+        Arrays.sort(order, Comparator.comparingLong(r -> id[r]));
+        this.sortedIds = new long[size];
+        this.rowOfSortedId = new int[size];
+        for (int i = 0; i < size; i++) {
+            sortedIds[i] = id[order[i]];
+            rowOfSortedId[i] = order[i];
+        }
+    }
+
+    public long version() { return version; }
+
+    /** The one term (session code) this snapshot holds; see {@link ExamTermService#current()}. */
+    public String term() { return term; }
+
+    /**
+     * Change-log position ({@code exam_change.seq}) read before the rows were loaded. Every change
+     * up to it is included; later ones may be too, and replaying them is harmless.
+     */
+    public long changeSeq() { return changeSeq; }
+    public int size()     { return size; }
+
+    // ---------- Row access ----------
+
+    public long id(int row)              { return id[row]; }
+    public long rowVersion(int row)      { return rowVersion[row]; }
+    public long updatedEpochSec(int row) { return updatedEpochSec[row]; }
+    public long startEpochSec(int row)   { return startEpochSec[row]; }
+    public int durationMin(int row)      { return durationMin[row]; }
+    public String campus(int row)        { return dict(campus[row]); }
+    public String subject(int row)       { return dict(subject[row]); }
+    public String course(int row)        { return dict(course[row]); }
+    public String building(int row)      { return dict(building[row]); }
+    public String room(int row)          { return dict(room[row]); }
+
+    /** Row holding the given exam id, or -1. */
+    public int rowOf(long examId) {
+        int i = Arrays.binarySearch(sortedIds, examId);
+        return (i >= 0) ? rowOfSortedId[i] : -1;
+    }
+
+    /** Rows for the given ids in (startTime, id) order; unknown ids are dropped. */
+    public int[] rowsForIds(Collection<Long> ids) {
+        int[] rows = ids.stream().mapToInt(this::rowOf).filter(r -> r >= 0).distinct().toArray();
+        Arrays.sort(rows);
+        return rows;
+    }
+
+    /** Rows matching the filter in (startTime, id) order, same semantics as the search finders. */
+    public int[] rows(String campus, String subject, String course, String section) {
+        return select(campus, subject, course, section, OPEN_FROM, OPEN_TO);
+    }
+
+    /** As {@link #rows(String, String, String, String)}, limited to starts in [fromEpochSec, toEpochSec). */
+    public int[] rows(String campus, String subject, String course, String section,
+                      long fromEpochSec, long toEpochSec) {
+        return select(campus, subject, course, section, fromEpochSec, toEpochSec);
+    }
+
+    /** Canonical campus codes present in the snapshot. */
+    public Set<String> campuses() {
+        return byCampus.keySet();
+    }
+
+    /** "CAMPUS|SUBJECT|COURSE" key of every course in the snapshot. */
+    public Set<String> courseKeys() {
+        return byCourse.keySet();
+    }
+
+    /** Rows of one key from {@link #courseKeys()} in (startTime, id) order. */
+    public int[] courseRows(String courseKey) {
+        int[] rows = byCourse.get(courseKey);
+        return (rows != null) ? rows.clone() : new int[0];
+    }
+
+    // ---------- Queries ----------
+
+    /** Same semantics as the campus / subject / course list finders. */
+    public List<ExamView> list(String campus, String subject, String course) {
+        int[] rows;
+        if (subject != null && course != null) {
+            rows = byCourse.get(key(campus) + '|' + key(subject) + '|' + key(course));
+        } else if (subject != null) {
+            rows = bySubject.get(key(campus) + '|' + key(subject));
+        } else {
+            rows = byCampus.get(key(campus));
+        }
+        if (rows == null) return List.of();
+        List<ExamView> out = new ArrayList<>(rows.length);
+        for (int r : rows) out.add(view(r));
+        return out;
+    }
+
+    /** Same semantics as the pageable finders behind /api/exams/search. */
+    public Page<ExamView> search(String campus, String subject, String course, String section, Pageable pageable) {
+        return search(campus, subject, course, section, OPEN_FROM, OPEN_TO, pageable);
+    }
+
+    /** Search limited to exams starting in [fromEpochSec, toEpochSec). */
+    public Page<ExamView> search(String campus, String subject, String course, String section,
+                                 long fromEpochSec, long toEpochSec, Pageable pageable) {
+        int[] rows = select(campus, subject, course, section, fromEpochSec, toEpochSec);
+        rows = sort(rows, pageable.getSort());
+
+        int from = (int) Math.min(pageable.getOffset(), rows.length);
+        int to = Math.min(from + pageable.getPageSize(), rows.length);
+        List<ExamView> content = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) content.add(view(rows[i]));
+        return new PageImpl<>(content, pageable, rows.length);
+    }
+
+    /**
+     * Keyset page in (startTime, id) order, starting strictly after {@code after} = {epochSecond, id}
+     * (null starts at the beginning). Positioning is a binary search, so every page costs the same.
+     */
+    public KeysetPage searchAfter(String campus, String subject, String course, String section,
+                                  long[] after, boolean descending, int limit) {
+        return searchAfter(campus, subject, course, section, OPEN_FROM, OPEN_TO, after, descending, limit);
+    }
+
+    /** Keyset page limited to exams starting in [fromEpochSec, toEpochSec). */
+    public KeysetPage searchAfter(String campus, String subject, String course, String section,
+                                  long fromEpochSec, long toEpochSec,
+                                  long[] after, boolean descending, int limit) {
+        int[] rows = select(campus, subject, course, section, fromEpochSec, toEpochSec);
+        int n = rows.length;
+        List<ExamView> content = new ArrayList<>(Math.min(limit, n));
+
+        if (!descending) {
+            int i = (after == null) ? 0 : upperBound(rows, after[0], after[1]);
+            for (; i < n && content.size() < limit; i++) content.add(view(rows[i]));
+            return new KeysetPage(content, i < n, n);
+        }
+        int i = (after == null) ? n - 1 : lowerBound(rows, after[0], after[1]) - 1;
+        for (; i >= 0 && content.size() < limit; i--) content.add(view(rows[i]));
+        return new KeysetPage(content, i >= 0, n);
+    }
+
+    public record KeysetPage(List<ExamView> content, boolean hasMore, int total) {}
+
+    // first position whose key is > (start, examId)
+    private int upperBound(int[] rows, long start, long examId) {
+        int lo = 0, hi = rows.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareKey(rows[mid], start, examId) <= 0) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    // first position whose key is >= (start, examId)
+    private int lowerBound(int[] rows, long start, long examId) {
+        int lo = 0, hi = rows.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareKey(rows[mid], start, examId) < 0) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private int compareKey(int r, long start, long examId) {
+        int c = Long.compare(startEpochSec[r], start);
+        return (c != 0) ? c : Long.compare(id[r], examId);
+    }
+
+    // Postings are in start order, so a time window is one binary-searched range of them and
+    // costs O(log n + matches) regardless of campus size.
+    private int[] select(String campus, String subject, String course, String section,
+                         long fromEpochSec, long toEpochSec) {
+        int[] rows;
+        if (hasText(section) || hasText(course)) {
+            rows = byCourse.get(key(campus) + '|' + key(subject) + '|' + key(course));
+        } else if (hasText(subject)) {
+            rows = bySubject.get(key(campus) + '|' + key(subject));
+        } else {
+            rows = byCampus.get(key(campus));
+        }
+        if (rows == null) return new int[0];
+
+        int lo = (fromEpochSec == OPEN_FROM) ? 0 : firstStartAtOrAfter(rows, fromEpochSec);
+        int hi = (toEpochSec == OPEN_TO) ? rows.length : firstStartAtOrAfter(rows, toEpochSec);
+        if (lo >= hi) return new int[0];
+        if (!hasText(section)) {
+            return (lo == 0 && hi == rows.length) ? rows : Arrays.copyOfRange(rows, lo, hi);
+        }
+
+        String sectionKey = key(section);
+        IntList out = new IntList();
+        for (int i = lo; i < hi; i++) {
+            int r = rows[i];
+            if (sectionKey.equals(dictKey(this.section[r]))) out.add(r);
+        }
+        return out.toArray();
+    }
+
+    private int firstStartAtOrAfter(int[] rows, long epochSec) {
+        int lo = 0, hi = rows.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (startEpochSec[rows[mid]] < epochSec) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private int[] sort(int[] rows, Sort sort) {
+        if (sort.isUnsorted() || rows.length < 2) return rows;
+
+        Sort.Order byStart = sort.getOrderFor("startTime");
+        if (byStart != null && sort.stream().count() == 1) {
+            if (byStart.isAscending()) return rows;
+            int[] reversed = new int[rows.length];
+            for (int i = 0; i < rows.length; i++) reversed[i] = rows[rows.length - 1 - i];
+            return reversed;
+        }
+
+        Comparator<Integer> cmp = null;
+        for (Sort.Order o : sort) {
+            Comparator<Integer> c = comparator(o.getProperty());
+            if (o.isDescending()) c = c.reversed();
+            cmp = (cmp == null) ? c : cmp.thenComparing(c);
+        }
+        // ties keep (startTime, id) order
+        cmp = cmp.thenComparingInt(r -> r);
+
+        Integer[] boxed = new Integer[rows.length];
+        for (int i = 0; i < rows.length; i++) boxed[i] = rows[i];
+        Arrays.sort(boxed, cmp);
+        int[] out = new int[rows.length];
+        for (int i = 0; i < out.length; i++) out[i] = boxed[i];
+        return out;
+    }
+
+    private Comparator<Integer> comparator(String property) {
+        Comparator<String> strings = Comparator.nullsLast(Comparator.naturalOrder());
+        return switch (property) {
+            case "startTime", "start_time" -> Comparator.comparingInt(r -> r); // row order is start order
+            case "id"          -> Comparator.comparingLong(r -> id[r]);
+            case "durationMin" -> Comparator.comparingInt(r -> durationMin[r]);
+            case "campus"      -> Comparator.comparing(r -> dict(campus[r]), strings);
+            case "subject"     -> Comparator.comparing(r -> dict(subject[r]), strings);
+            case "course"      -> Comparator.comparing(r -> dict(course[r]), strings);
+            case "section"     -> Comparator.comparing(r -> dict(section[r]), strings);
+            case "building"    -> Comparator.comparing(r -> dict(building[r]), strings);
+            case "room"        -> Comparator.comparing(r -> dict(room[r]), strings);
+            default -> throw new IllegalArgumentException("Unknown sort property: " + property);
+        };
+    }
+
+    public ExamView view(int r) {
+        return new ExamView(
+                id[r],
+                term,
+                dict(campus[r]),
+                dict(subject[r]),
+                dict(course[r]),
+                dict(section[r]),
+                OffsetDateTime.ofInstant(Instant.ofEpochSecond(startEpochSec[r]), ZoneOffset.UTC),
+                durationMin[r],
+                dict(building[r]),
+                dict(room[r]));
+    }
+
+    // ---------- Helpers ----------
+
+    private String dict(int code)    { return code == NULL ? null : dict[code]; }
+    private String dictKey(int code) { return code == NULL ? null : dictKey[code]; }
+
+    private static String key(String s) {
+        return s == null ? null : s.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static boolean hasText(String s) {
+        return s != null && !s.isBlank();
+    }
+
+    private static Map<String, int[]> freeze(Map<String, IntList> lists) {
+        Map<String, int[]> out = new HashMap<>(lists.size() * 2);
+        lists.forEach((k, v) -> out.put(k, v.toArray()));
+        return Map.copyOf(out);
+    }
+
+    /** Minimal growable int array. */
+    static final class IntList {
+        private int[] a = new int[8];
+        private int n;
+
+        void add(int v) {
+            if (n == a.length) a = Arrays.copyOf(a, n * 2);
+            a[n++] = v;
+        }
+
+        int size() { return n; }
+
+        int[] toArray() { return Arrays.copyOf(a, n); }
+    }
+
+    // ---------- Building ----------
+
+    /** Accumulates rows, which must arrive ordered by (startTime, id). */
+    public static final class Builder {
+        private final long version;
+        private String term;
+        private long changeSeq;
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> dict = new ArrayList<>();
+
+        private long[] id = new long[1024];
+        private long[] rowVersion = new long[1024];
+        private long[] updated = new long[1024];
+        private long[] start = new long[1024];
+        private int[] duration = new int[1024];
+        private int[][] strings = new int[6][1024];
+        private int n;
+
+        public Builder(long version) {
+            this.version = version;
+        }
+
+        public Builder term(String term) {
+            this.term = term;
+            return this;
+        }
+
+        public Builder changeSeq(long changeSeq) {
+            this.changeSeq = changeSeq;
+            return this;
+        }
+
+        public Builder add(long examId, long version, OffsetDateTime updatedAt,
+                           String campus, String subject, String course, String section,
+                           OffsetDateTime startTime, int durationMin, String building, String room) {
+            if (n == id.length) grow();
+            id[n] = examId;
+            rowVersion[n] = version;
+            updated[n] = updatedAt.toEpochSecond();
+            start[n] = startTime.toEpochSecond();
+            duration[n] = durationMin;
+            strings[0][n] = code(campus);
+            strings[1][n] = code(subject);
+            strings[2][n] = code(course);
+            strings[3][n] = code(section);
+            strings[4][n] = code(building);
+            strings[5][n] = code(room);
+            n++;
+            return this;
+        }
+
+        public ExamSnapshot build() {
+            return new ExamSnapshot(version, term, changeSeq, n,
+                    Arrays.copyOf(id, n), Arrays.copyOf(rowVersion, n), Arrays.copyOf(updated, n),
+                    Arrays.copyOf(start, n), Arrays.copyOf(duration, n),
+                    Arrays.copyOf(strings[0], n), Arrays.copyOf(strings[1], n), Arrays.copyOf(strings[2], n),
+                    Arrays.copyOf(strings[3], n), Arrays.copyOf(strings[4], n), Arrays.copyOf(strings[5], n),
+                    dict.toArray(new String[0]));
+        }
+
+        private int code(String s) {
+            if (s == null) return NULL;
+            return codes.computeIfAbsent(s, k -> {
+                dict.add(k);
+                return dict.size() - 1;
+            });
+        }
+
+        private void grow() {
+            int cap = id.length * 2;
+            id = Arrays.copyOf(id, cap);
+            rowVersion = Arrays.copyOf(rowVersion, cap);
+            updated = Arrays.copyOf(updated, cap);
+            start = Arrays.copyOf(start, cap);
+            duration = Arrays.copyOf(duration, cap);
+            for (int i = 0; i < strings.length; i++) strings[i] = Arrays.copyOf(strings[i], cap);
+        }
+    }
+}
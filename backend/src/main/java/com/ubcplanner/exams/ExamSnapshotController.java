@@ -0,0 +1,54 @@
+package com.ubcplanner.exams;
+
+import com.ubcplanner.common.ETags;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/exams")
+@CrossOrigin
+public class ExamSnapshotController {
+
+    private final ExamReadModel readModel;
+    private final ExamSnapshotDownload download;
+
+    public ExamSnapshotController(ExamReadModel readModel, ExamSnapshotDownload download) {
+        this.readModel = readModel;
+        this.download = download;
+    }
+
+    // GET /api/exams/snapshot?campus=V&term=2025W1 -> every exam on the campus, columnar, gzip when accepted
+    @GetMapping("/snapshot")
+    public ResponseEntity<byte[]> snapshot(
+            @RequestParam(defaultValue = "V") String campus,
+            @RequestParam(required = false) String term,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        ExamSnapshotDownload.Encoded encoded = download.encoded(readModel.snapshot(term), campus);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        String etag = gzip ? encoded.gzipEtag() : encoded.etag();
+
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return ok.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(encoded.gzip());
+        }
+        return ok.body(encoded.json());
+    }
+}
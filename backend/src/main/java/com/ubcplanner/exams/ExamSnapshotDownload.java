@@ -0,0 +1,129 @@
+package com.ubcplanner.exams;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ubcplanner.common.ETags;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Every exam of a campus in one term as one columnar document, for clients that work offline.
+ *
+ * Rows are in start order. String columns are codes into a per-column dictionary (-1 for null)
+ * and start times are deltas from the previous row, which keeps the JSON small and compresses
+ * well. Both the plain and the gzip body are encoded once per snapshot of a term and served from
+ * memory. {@code changeSeq} is the change-log position the snapshot covers, so a client can stay
+ * current with {@code /api/exams/changes?since=changeSeq}.
+ */
+@Component
+public class ExamSnapshotDownload {
+
+    public record Columns(String campus, String term, long changeSeq, int count,
+                          long[] id,
+                          List<String> subjects, int[] subject,
+                          List<String> courses, int[] course,
+                          List<String> sections, int[] section,
+                          List<String> buildings, int[] building,
+                          List<String> rooms, int[] room,
+                          long[] startDelta, int[] durationMin) {}
+
+    /** ETags differ per encoding, as the bodies do. */
+    public record Encoded(String etag, byte[] json, String gzipEtag, byte[] gzip) {}
+
+    private final ObjectMapper mapper;
+    private final SnapshotDerived<Map<String, Encoded>> built = new SnapshotDerived<>(this::build);
+
+    public ExamSnapshotDownload(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    @EventListener
+    public void onSnapshotRebuilt(ExamSnapshotRebuiltEvent event) {
+        built.rebuilt(event);
+    }
+
+    public Encoded encoded(ExamSnapshot snapshot, String campus) {
+        String key = ExamKeys.campus(campus);
+        Encoded e = built.get(snapshot).get(key);
+        return (e != null) ? e : encode(snapshot, key, new int[0]);
+    }
+
+    private Map<String, Encoded> build(ExamSnapshot snapshot) {
+        Map<String, Encoded> byCampus = new HashMap<>();
+        for (String campus : snapshot.campuses()) {
+            byCampus.put(campus, encode(snapshot, campus, snapshot.rows(campus, null, null, null)));
+        }
+        return Map.copyOf(byCampus);
+    }
+
+    private Encoded encode(ExamSnapshot snapshot, String campus, int[] rows) {
+        int n = rows.length;
+        long[] id = new long[n];
+        long[] startDelta = new long[n];
+        int[] duration = new int[n];
+        Dictionary subjects = new Dictionary(n), courses = new Dictionary(n), sections = new Dictionary(n),
+                buildings = new Dictionary(n), rooms = new Dictionary(n);
+
+        long prev = 0;
+        for (int i = 0; i < n; i++) {
+            int r = rows[i];
+            ExamView e = snapshot.view(r);
+            id[i] = e.id();
+            long start = snapshot.startEpochSec(r);
+            startDelta[i] = start - prev;
+            prev = start;
+            duration[i] = snapshot.durationMin(r);
+            subjects.add(i, e.subject());
+            courses.add(i, e.course());
+            sections.add(i, e.section());
+            buildings.add(i, e.building());
+            rooms.add(i, e.room());
+        }
+
+        Columns columns = new Columns(campus, snapshot.term(), snapshot.changeSeq(), n, id,
+                subjects.values, subjects.codes, courses.values, courses.codes, sections.values, sections.codes,
+                buildings.values, buildings.codes, rooms.values, rooms.codes, startDelta, duration);
+        try {
+            byte[] json = mapper.writeValueAsBytes(columns);
+            byte[] gzip = gzip(json);
+            String hash = ETags.hash(json);
+            return new Encoded("\"" + hash + "\"", json, "\"" + hash + "-gz\"", gzip);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not encode exam snapshot for campus " + campus, ex);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // One dictionary-encoded string column.
+    private static final class Dictionary {
+        final Map<String, Integer> index = new HashMap<>();
+        final List<String> values = new ArrayList<>();
+        final int[] codes;
+
+        Dictionary(int rows) {
+            this.codes = new int[rows];
+        }
+
+        void add(int row, String value) {
+            codes[row] = (value == null) ? -1 : index.computeIfAbsent(value, k -> {
+                values.add(k);
+                return values.size() - 1;
+            });
+        }
+    }
+}
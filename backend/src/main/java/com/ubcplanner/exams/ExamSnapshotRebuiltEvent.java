@@ -0,0 +1,17 @@
+package com.ubcplanner.exams;
+
+import java.util.Set;
+
+/**
+ * Published by {@link ExamReadModel} right after a new snapshot is swapped in.
+ * Derived in-memory indexes rebuild from it instead of querying the database again.
+ * {@code current} is whether the snapshot holds the current term; {@code terms} lists every term
+ * the read model still holds, so indexes kept per term can drop the others.
+ */
+public record ExamSnapshotRebuiltEvent(ExamSnapshot snapshot, boolean current, Set<String> terms) {
+
+    /** A rebuild of the current term, with no other term loaded. */
+    public ExamSnapshotRebuiltEvent(ExamSnapshot snapshot) {
+        this(snapshot, true, Set.of(snapshot.term()));
+    }
+}
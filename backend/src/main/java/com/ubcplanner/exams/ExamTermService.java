@@ -0,0 +1,56 @@
+package com.ubcplanner.exams;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Which term the API serves, and the per-term partitions of {@code exam}.
+ *
+ * The current term is {@code ubc.exams.currentTerm} when set, otherwise the session running today
+ * by the Vancouver calendar. It never depends on the data: importing or posting exams for a future
+ * term does not move the API over to that term.
+ */
+@Service
+public class ExamTermService {
+
+    private static final String ENSURE_PARTITION = "select exam_ensure_term_partition(?)";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate ownTx;
+    private final Set<String> partitioned = ConcurrentHashMap.newKeySet();
+
+    @Value("${ubc.exams.currentTerm:}")
+    private String configured;
+
+    public ExamTermService(JdbcTemplate jdbc, PlatformTransactionManager txManager) {
+        this.jdbc = jdbc;
+        this.ownTx = new TransactionTemplate(txManager);
+        this.ownTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public String current() {
+        String t = ExamTerms.key(configured);
+        return (t != null) ? t : ExamTerms.of(OffsetDateTime.now(ZoneOffset.UTC));
+    }
+
+    /**
+     * Creates the partition for {@code term} if it does not exist yet. Call before writing rows of
+     * a term; without it they land in {@code exam_default}. Creating a partition takes an exclusive
+     * lock on {@code exam}, so call it outside any transaction that writes to {@code exam}: the DDL
+     * runs on its own connection and would wait on the caller's locks.
+     */
+    public void ensurePartition(String term) {
+        if (partitioned.contains(term)) return;
+        ownTx.executeWithoutResult(status -> jdbc.query(ENSURE_PARTITION, rs -> {}, term));
+        partitioned.add(term);
+    }
+}
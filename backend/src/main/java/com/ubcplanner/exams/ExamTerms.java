@@ -0,0 +1,42 @@
+package com.ubcplanner.exams;
+
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * UBC session codes, the partition key of {@code exam} (V7__exam_partition_by_term.sql).
+ *
+ * 2025W1 is September to December 2025 (December finals), 2025W2 January to April 2026, 2026S1
+ * May and June 2026, 2026S2 July and August 2026. Codes sort chronologically as plain strings.
+ */
+public final class ExamTerms {
+
+    private static final Pattern CODE = Pattern.compile("[0-9]{4}[WS][12]");
+
+    private ExamTerms() {}
+
+    /** Session an exam starting at {@code startTime} belongs to. Same rule as SQL exam_term_of. */
+    public static String of(OffsetDateTime startTime) {
+        ZonedDateTime local = startTime.atZoneSameInstant(ExamTimes.VANCOUVER);
+        int y = local.getYear(), m = local.getMonthValue();
+        if (m >= 9) return y + "W1";
+        if (m <= 4) return (y - 1) + "W2";
+        if (m <= 6) return y + "S1";
+        return y + "S2";
+    }
+
+    /**
+     * Trimmed, upper-cased term code; null or blank stays null. Anything else throws
+     * {@link IllegalArgumentException}, which requests answer with a 400.
+     */
+    public static String key(String term) {
+        if (term == null || term.isBlank()) return null;
+        String t = term.trim().toUpperCase(Locale.ROOT);
+        if (!CODE.matcher(t).matches()) {
+            throw new IllegalArgumentException("Invalid term '" + term + "'; expected a session code such as 2025W1");
+        }
+        return t;
+    }
+}
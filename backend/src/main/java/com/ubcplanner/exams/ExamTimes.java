@@ -0,0 +1,54 @@
+package com.ubcplanner.exams;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.*;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parses the {@code from}/{@code to} request parameters of the time-window endpoints.
+ *
+ * Accepts an ISO instant with offset ("2025-12-15T08:00:00-08:00"), a local date-time
+ * ("2025-12-15T08:00") or a date ("2025-12-15"); local values are Vancouver time. Windows are
+ * half-open: {@code from} is inclusive, {@code to} exclusive, except that a bare date for
+ * {@code to} includes that whole day.
+ */
+final class ExamTimes {
+
+    static final ZoneId VANCOUVER = ZoneId.of("America/Vancouver");
+
+    private ExamTimes() {}
+
+    static long from(String value) {
+        return (value == null || value.isBlank()) ? ExamSnapshot.OPEN_FROM : parse(value.trim(), "from", false);
+    }
+
+    static long to(String value) {
+        return (value == null || value.isBlank()) ? ExamSnapshot.OPEN_TO : parse(value.trim(), "to", true);
+    }
+
+    /** Rejects windows that end before they start. */
+    static void requireOrdered(long from, long to) {
+        if (from != ExamSnapshot.OPEN_FROM && to != ExamSnapshot.OPEN_TO && to <= from) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'to' must be after 'from'");
+        }
+    }
+
+    private static long parse(String value, String name, boolean upper) {
+        try {
+            if (value.length() == 10) {
+                LocalDate day = LocalDate.parse(value);
+                return (upper ? day.plusDays(1) : day).atStartOfDay(VANCOUVER).toEpochSecond();
+            }
+            try {
+                return OffsetDateTime.parse(value).toEpochSecond();
+            } catch (DateTimeParseException noOffset) {
+                return LocalDateTime.parse(value).atZone(VANCOUVER).toEpochSecond();
+            }
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Invalid '" + name + "': expected a date, local date-time or ISO timestamp");
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.ubcplanner.exams;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Read-only view of an exam row. Serializes to the same JSON shape as {@link Exam}.
+ */
+public record ExamView(
+        Long id,
+        String term,
+        String campus,
+        String subject,
+        String course,
+        String section,
+        OffsetDateTime startTime,
+        Integer durationMin,
+        String building,
+        String room
+) {}
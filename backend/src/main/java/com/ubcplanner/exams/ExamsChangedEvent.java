@@ -0,0 +1,7 @@
+package com.ubcplanner.exams;
+
+/**
+ * Published after exams are written (imports, POST/DELETE on /api/exams).
+ * Listeners that cache exam data rebuild once the surrounding transaction commits.
+ */
+public record ExamsChangedEvent(String source) {}
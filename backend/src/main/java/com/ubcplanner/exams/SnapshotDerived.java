@@ -0,0 +1,37 @@
+package com.ubcplanner.exams;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Something built from an exam snapshot (an index, an encoded body), kept for each term the
+ * {@link ExamReadModel} holds. The value for a snapshot is built on first use and reused until
+ * its term's snapshot is replaced; values for terms the read model has dropped are dropped too.
+ */
+public final class SnapshotDerived<T> {
+
+    private record Entry<T>(ExamSnapshot snapshot, T value) {}
+
+    private final Function<ExamSnapshot, T> build;
+    private final Map<String, Entry<T>> byTerm = new ConcurrentHashMap<>();
+
+    public SnapshotDerived(Function<ExamSnapshot, T> build) {
+        this.build = build;
+    }
+
+    public T get(ExamSnapshot snapshot) {
+        Entry<T> e = byTerm.get(snapshot.term());
+        if (e == null || e.snapshot() != snapshot) {
+            e = new Entry<>(snapshot, build.apply(snapshot));
+            byTerm.put(snapshot.term(), e);
+        }
+        return e.value();
+    }
+
+    /** Builds for the new snapshot up front; call from the owner's {@link ExamSnapshotRebuiltEvent} listener. */
+    public void rebuilt(ExamSnapshotRebuiltEvent event) {
+        byTerm.keySet().retainAll(event.terms());
+        get(event.snapshot());
+    }
+}
@@ -0,0 +1,82 @@
+package com.ubcplanner.ics;
+
+import com.ubcplanner.exams.ExamSnapshot;
+import com.ubcplanner.exams.ExamSnapshotRebuiltEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pre-encoded VEVENT blocks keyed by exam id and row version. DTSTAMP comes from the row's
+ * updated_at, so a fragment's bytes only change when the row does and calendar responses
+ * can be assembled by concatenation. Exam ids are unique across terms, so one cache serves all.
+ */
+@Component
+public class IcsFragmentCache {
+
+    private record Fragment(String term, long version, byte[] bytes) {}
+
+    private final IcsService ics;
+    private final ConcurrentHashMap<Long, Fragment> fragments = new ConcurrentHashMap<>();
+
+    public IcsFragmentCache(IcsService ics) {
+        this.ics = ics;
+    }
+
+    /** VEVENT bytes for one snapshot row, rendered on first use and reused until the row version changes. */
+    public byte[] fragment(ExamSnapshot snapshot, int row) {
+        long id = snapshot.id(row);
+        long version = snapshot.rowVersion(row);
+        Fragment f = fragments.get(id);
+        if (f == null || f.version() != version) {
+            f = new Fragment(snapshot.term(), version, ics.event(snapshot.view(row), snapshot.updatedEpochSec(row)));
+            fragments.put(id, f);
+        }
+        return f.bytes();
+    }
+
+    /** Strong ETag over the (id, version) pairs a calendar is built from, in output order. */
+    public static String etag(ExamSnapshot snapshot, int[] rows) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update("ics-v1".getBytes(StandardCharsets.US_ASCII));
+            byte[] buf = new byte[16];
+            for (int r : rows) {
+                putLong(buf, 0, snapshot.id(r));
+                putLong(buf, 8, snapshot.rowVersion(r));
+                md.update(buf);
+            }
+            return "\"" + HexFormat.of().formatHex(md.digest(), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Drops fragments for deleted rows and rows whose version moved on in the rebuilt term, and
+     * those of terms no longer held.
+     */
+    @EventListener
+    public void onSnapshotRebuilt(ExamSnapshotRebuiltEvent event) {
+        ExamSnapshot s = event.snapshot();
+        fragments.entrySet().removeIf(e -> {
+            Fragment f = e.getValue();
+            if (!event.terms().contains(f.term())) return true;
+            if (!f.term().equals(s.term())) return false;
+            int row = s.rowOf(e.getKey());
+            return row < 0 || s.rowVersion(row) != f.version();
+        });
+    }
+
+    private static void putLong(byte[] buf, int off, long v) {
+        for (int i = 7; i >= 0; i--) {
+            buf[off + i] = (byte) v;
+            v >>>= 8;
+        }
+    }
+}
@@ -1,13 +1,24 @@
 package com.ubcplanner.ics;
 
 import com.ubcplanner.exams.Exam;
+import com.ubcplanner.exams.ExamView;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class IcsService {
@@ -15,46 +26,174 @@ public class IcsService {
     private static final DateTimeFormatter ICS_TS =
             DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
 
+    // RFC 5545 3.1: lines longer than 75 octets are folded with CRLF + one space
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final byte[] CRLF = { '\r', '\n' };
+    private static final byte[] FOLD = { '\r', '\n', ' ' };
+
+    private final Timer calendarTime;
+    private final DistributionSummary calendarEvents;
+    private final DistributionSummary calendarBytes;
+
+    public IcsService(MeterRegistry registry) {
+        this.calendarTime = Timer.builder("ics.calendar")
+                .description("Time from opening a calendar to writing its last line, including client writes")
+                .register(registry);
+        this.calendarEvents = DistributionSummary.builder("ics.calendar.events")
+                .description("VEVENTs per calendar")
+                .register(registry);
+        this.calendarBytes = DistributionSummary.builder("ics.calendar.bytes")
+                .description("Size of a calendar")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
     public byte[] generate(List<Exam> exams) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("BEGIN:VCALENDAR\r\n");
-        sb.append("VERSION:2.0\r\n");
-        sb.append("PRODID:-//UBC Planner//Exams//EN\r\n");
-        sb.append("CALSCALE:GREGORIAN\r\n");
-        sb.append("METHOD:PUBLISH\r\n");
-
-        OffsetDateTime nowUtc = OffsetDateTime.now(ZoneOffset.UTC);
-        for (Exam e : exams) {
-            // Fallbacks
-            int durationMin = (e.getDurationMin() != null) ? e.getDurationMin() : 120;
-
-            OffsetDateTime startUtc = e.getStartTime().withOffsetSameInstant(ZoneOffset.UTC);
-            OffsetDateTime endUtc   = startUtc.plusMinutes(durationMin);
-
-            String summary = (e.getSubject() + " " + e.getCourse() + " " + e.getSection() + " Final Exam").trim();
-            String location = buildLocation(e.getBuilding(), e.getRoom());
-            String uid = "exam-" + e.getId() + "-" + startUtc.toEpochSecond() + "@ubcplanner";
-
-            sb.append("BEGIN:VEVENT\r\n");
-            sb.append("UID:").append(escape(uid)).append("\r\n");
-            sb.append("DTSTAMP:").append(ICS_TS.format(nowUtc)).append("\r\n");
-            sb.append("DTSTART:").append(ICS_TS.format(startUtc)).append("\r\n");
-            sb.append("DTEND:").append(ICS_TS.format(endUtc)).append("\r\n");
-            sb.append("SUMMARY:").append(escape(summary)).append("\r\n");
-            if (!location.isBlank()) {
-                sb.append("LOCATION:").append(escape(location)).append("\r\n");
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256 + exams.size() * 320);
+        try (IcsWriter w = open(out)) {
+            for (Exam e : exams) {
+                w.event(new ExamView(e.getId(), e.getTerm(), e.getCampus(), e.getSubject(), e.getCourse(),
+                        e.getSection(), e.getStartTime(), e.getDurationMin(), e.getBuilding(), e.getRoom()));
             }
-            // Nice to have a description with campus
-            sb.append("DESCRIPTION:")
-              .append(escape("Campus: " + nullSafe(e.getCampus()) +
-                              "\\nCourse: " + e.getSubject() + " " + e.getCourse() +
-                              "\\nSection: " + e.getSection()))
-              .append("\r\n");
-            sb.append("END:VEVENT\r\n");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex); // cannot happen for an in-memory stream
+        }
+        return out.toByteArray();
+    }
+
+    /** Starts a calendar on {@code out}; events are written as they are passed in. */
+    public IcsWriter open(OutputStream out) throws IOException {
+        return new IcsWriter(new CountingOutputStream(out), this);
+    }
+
+    /**
+     * Pre-encoded VEVENT block for one exam. The output only depends on the row and
+     * {@code dtstampEpochSec}, so it can be cached and concatenated into any calendar.
+     */
+    public byte[] event(ExamView e, long dtstampEpochSec) {
+        String dtstamp = ICS_TS.format(OffsetDateTime.ofInstant(Instant.ofEpochSecond(dtstampEpochSec), ZoneOffset.UTC));
+        ByteArrayOutputStream out = new ByteArrayOutputStream(320);
+        try {
+            writeEvent(out, e, dtstamp);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex); // cannot happen for an in-memory stream
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes one VCALENDAR straight to a stream, one VEVENT at a time. Closing the writer
+     * ends the calendar but leaves the underlying stream open.
+     */
+    public static final class IcsWriter implements AutoCloseable {
+        private final CountingOutputStream out;
+        private final IcsService meters;
+        private final long started = System.nanoTime();
+        private final String dtstamp = ICS_TS.format(OffsetDateTime.now(ZoneOffset.UTC));
+        private int events;
+
+        private IcsWriter(CountingOutputStream out, IcsService meters) throws IOException {
+            this.out = out;
+            this.meters = meters;
+            line(out, "BEGIN:VCALENDAR");
+            line(out, "VERSION:2.0");
+            line(out, "PRODID:-//UBC Planner//Exams//EN");
+            line(out, "CALSCALE:GREGORIAN");
+            line(out, "METHOD:PUBLISH");
+            out.flush();
+        }
+
+        public void event(ExamView e) throws IOException {
+            writeEvent(out, e, dtstamp);
+            events++;
         }
 
-        sb.append("END:VCALENDAR\r\n");
-        return sb.toString().getBytes(StandardCharsets.UTF_8);
+        /** Appends a VEVENT block produced by {@link IcsService#event(ExamView, long)}. */
+        public void fragment(byte[] vevent) throws IOException {
+            out.write(vevent);
+            events++;
+        }
+
+        @Override
+        public void close() throws IOException {
+            line(out, "END:VCALENDAR");
+            out.flush();
+            meters.calendarTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            meters.calendarEvents.record(events);
+            meters.calendarBytes.record(out.count);
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() {
+            // the caller owns the underlying stream
+        }
+    }
+
+    private static void writeEvent(OutputStream out, ExamView e, String dtstamp) throws IOException {
+        // Fallbacks
+        int durationMin = (e.durationMin() != null) ? e.durationMin() : 120;
+
+        OffsetDateTime startUtc = e.startTime().withOffsetSameInstant(ZoneOffset.UTC);
+        OffsetDateTime endUtc   = startUtc.plusMinutes(durationMin);
+
+        String summary = (e.subject() + " " + e.course() + " " + e.section() + " Final Exam").trim();
+        String location = buildLocation(e.building(), e.room());
+        String uid = "exam-" + e.id() + "-" + startUtc.toEpochSecond() + "@ubcplanner";
+
+        line(out, "BEGIN:VEVENT");
+        line(out, "UID:" + escape(uid));
+        line(out, "DTSTAMP:" + dtstamp);
+        line(out, "DTSTART:" + ICS_TS.format(startUtc));
+        line(out, "DTEND:" + ICS_TS.format(endUtc));
+        line(out, "SUMMARY:" + escape(summary));
+        if (!location.isBlank()) {
+            line(out, "LOCATION:" + escape(location));
+        }
+        // Nice to have a description with campus
+        line(out, "DESCRIPTION:" + escape("Campus: " + nullSafe(e.campus()) +
+                                          "\\nCourse: " + e.subject() + " " + e.course() +
+                                          "\\nSection: " + e.section()));
+        line(out, "END:VEVENT");
+    }
+
+    private static void line(OutputStream out, String content) throws IOException {
+        writeFolded(out, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Writes one content line, folding at 75 octets without splitting a UTF-8 sequence. */
+    static void writeFolded(OutputStream out, byte[] line) throws IOException {
+        int start = 0;
+        int limit = MAX_LINE_OCTETS;
+        while (line.length - start > limit) {
+            int end = start + limit;
+            while (end > start && (line[end] & 0xC0) == 0x80) end--; // back off continuation bytes
+            out.write(line, start, end - start);
+            out.write(FOLD);
+            start = end;
+            limit = MAX_LINE_OCTETS - 1; // the leading space counts toward the next line
+        }
+        out.write(line, start, line.length - start);
+        out.write(CRLF);
     }
 
     private static String buildLocation(String building, String room) {
@@ -0,0 +1,102 @@
+package com.ubcplanner.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 tokenizer.
+ *
+ * Handles quoted fields, doubled quotes ({@code ""}), separators and line breaks inside quotes,
+ * and CRLF / LF / CR record endings. Only the current record is held in memory.
+ */
+public class CsvReader {
+
+    private static final int EOF = -1;
+
+    private final Reader in;
+    private final char[] buf = new char[8192];
+    private int pos, len;
+    private long line = 1;
+    private long recordLine;
+    private boolean started;
+
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /** Line number (1-based) on which the record last returned by {@link #next()} started. */
+    public long recordLine() {
+        return recordLine;
+    }
+
+    /** Returns the next record, or null at end of input. */
+    public List<String> next() throws IOException {
+        int c = read();
+        if (!started) {
+            started = true;
+            if (c == '\uFEFF') c = read(); // UTF-8 BOM
+        }
+        if (c == EOF) return null;
+
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            if (quoted) {
+                if (c == EOF) {
+                    throw new IOException("Unterminated quoted field starting on line " + recordLine);
+                }
+                if (c == '"') {
+                    int n = read();
+                    if (n == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = n;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') line++;
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == EOF) {
+                if (c == '\r') {
+                    int n = read();
+                    if (n != '\n') unread();
+                }
+                if (c != EOF) line++;
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (pos == len) {
+            len = in.read(buf, 0, buf.length);
+            pos = 0;
+            if (len <= 0) {
+                len = 0;
+                return EOF;
+            }
+        }
+        return buf[pos++];
+    }
+
+    // Only ever called directly after a successful read(), so the char is still in the buffer.
+    private void unread() {
+        if (pos > 0) pos--;
+    }
+}
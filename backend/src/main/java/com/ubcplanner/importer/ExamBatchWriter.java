@@ -0,0 +1,257 @@
+package com.ubcplanner.importer;
+
+import com.ubcplanner.exams.ExamTermService;
+import com.ubcplanner.exams.ExamTerms;
+import com.ubcplanner.importer.ExamImportService.ParsedExam;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.*;
+
+/**
+ * Bulk write path for parsed exam rows.
+ *
+ * A {@link Session} loads every existing key for the campus in one query, classifies incoming rows
+ * into insert / update / unchanged in memory, and writes them with JDBC batches. Inserts go through
+ * {@code INSERT ... ON CONFLICT} on {@code uk_exam_unique} so a concurrent writer cannot make the batch fail.
+ * Existing rows are held as their key and {@code row_hash}, and a parsed row only becomes a write
+ * when its own hash differs.
+ * A dry run classifies rows the same way without writing, so a key repeated within one document
+ * counts as inserted once, exactly as in a real run.
+ *
+ * Every row belongs to a term (the partition key of {@code exam}): the session's term when it was
+ * opened with one, otherwise the one the row's start time falls in. A session opened with a term
+ * only loads that term's partition.
+ *
+ * Creating a partition locks all of {@code exam}, so it must never happen inside a transaction that
+ * has already written to it: the DDL would wait on that transaction forever. Partitions are
+ * created when the session opens (for its term) and before each flush starts its transaction (for
+ * derived terms). Callers that flush inside their own transaction call
+ * {@link Session#preparePartitions} first.
+ */
+@Component
+public class ExamBatchWriter {
+
+    private static final String SELECT_EXISTING = """
+            select id, term, subject, course, section, start_time, row_hash
+            from exam
+            where campus = ?
+            """;
+
+    private static final String SELECT_EXISTING_TERM = SELECT_EXISTING + "  and term = ?\n";
+
+    private static final String UPSERT = """
+            insert into exam (term, campus, subject, course, section, start_time, duration_min, building, room)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            on conflict on constraint uk_exam_unique do update
+               set duration_min = excluded.duration_min,
+                   building     = excluded.building,
+                   room         = excluded.room
+            """;
+
+    private static final String UPDATE = """
+            update exam
+               set duration_min = ?, building = ?, room = ?
+             where term = ? and id = ?
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ExamTermService terms;
+
+    @Value("${ubc.import.batchSize:500}")
+    private int batchSize;
+
+    public ExamBatchWriter(JdbcTemplate jdbc, TransactionTemplate tx, ExamTermService terms) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.terms = terms;
+    }
+
+    /**
+     * Starts a write session for one campus, and for one term unless {@code term} is null. Every
+     * flush (explicit, or automatic each {@code batchSize} rows) commits on its own unless the
+     * caller already has a transaction open.
+     */
+    public Session open(String term, String campus, boolean dryRun) {
+        long started = System.nanoTime();
+        Map<RowKey, Existing> existing = new HashMap<>();
+        RowCallbackHandler load = rs -> {
+            OffsetDateTime start = rs.getObject("start_time", OffsetDateTime.class);
+            RowKey key = RowKey.of(rs.getString("term"), rs.getString("subject"), rs.getString("course"),
+                    rs.getString("section"), start);
+            existing.put(key, new Existing(rs.getLong("id"), rs.getString("row_hash")));
+        };
+        if (term == null) {
+            jdbc.query(SELECT_EXISTING, load, campus);
+        } else {
+            jdbc.query(SELECT_EXISTING_TERM, load, campus, term);
+        }
+        Session session = new Session(term, campus, dryRun, existing, System.nanoTime() - started);
+        if (term != null) session.ensurePartitions(Set.of(term));
+        return session;
+    }
+
+    record RowKey(String term, String subject, String course, String section, Instant start) {
+        static RowKey of(String term, String subject, String course, String section, OffsetDateTime start) {
+            return new RowKey(term, upper(subject), upper(course), upper(section), start.toInstant());
+        }
+
+        private static String upper(String s) {
+            return s == null ? null : s.toUpperCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Same value as the generated {@code exam.row_hash} column (V6): md5 over duration, building and
+     * room, nulls as empty strings.
+     */
+    static String rowHash(Integer durationMin, String building, String room) {
+        String s = (durationMin == null ? "" : durationMin.toString())
+                + '|' + (building == null ? "" : building)
+                + '|' + (room == null ? "" : room);
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(s.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Last known state of a row; {@code id} is null while the row is only queued for insert. */
+    private static final class Existing {
+        final Long id;
+        String rowHash;
+
+        Existing(Long id, String rowHash) {
+            this.id = id;
+            this.rowHash = rowHash;
+        }
+    }
+
+    public final class Session {
+        private final String term;
+        private final String campus;
+        private final boolean dryRun;
+        private final Map<RowKey, Existing> existing;
+        private final Set<String> partitioned = new HashSet<>();
+        private final Set<String> pendingTerms = new HashSet<>();
+
+        private final List<Object[]> upserts = new ArrayList<>();
+        private final List<Object[]> updates = new ArrayList<>();
+
+        private int inserted, updated, skipped;
+        private long diffNanos, writeNanos;
+
+        private Session(String term, String campus, boolean dryRun, Map<RowKey, Existing> existing,
+                        long loadNanos) {
+            this.term = term;
+            this.campus = campus;
+            this.dryRun = dryRun;
+            this.existing = existing;
+            this.diffNanos = loadNanos;
+        }
+
+        public void accept(ParsedExam p) {
+            accept(p, term);
+        }
+
+        /** As {@link #accept(ParsedExam)}, with the row's term given by the caller (null derives it). */
+        public void accept(ParsedExam p, String rowTerm) {
+            if (p.startTime() == null) { skipped++; return; }
+
+            long started = System.nanoTime();
+            String t = (rowTerm != null) ? rowTerm : ExamTerms.of(p.startTime());
+            RowKey key = RowKey.of(t, p.subject(), p.course(), p.section(), p.startTime());
+            Existing e = existing.get(key);
+            String hash = rowHash(p.durationMin(), p.building(), p.room());
+
+            if (e == null) {
+                inserted++;
+                existing.put(key, new Existing(null, hash));
+                queueUpsert(t, p);
+            } else if (!hash.equals(e.rowHash)) {
+                updated++;
+                e.rowHash = hash;
+                if (e.id == null) {
+                    // duplicate of a row queued earlier in this session; the upsert overwrites it
+                    queueUpsert(t, p);
+                } else if (!dryRun) {
+                    updates.add(new Object[] { p.durationMin(), p.building(), p.room(), t, e.id });
+                }
+            } else {
+                skipped++;
+            }
+            diffNanos += System.nanoTime() - started;
+
+            if (upserts.size() + updates.size() >= batchSize) flush();
+        }
+
+        private void queueUpsert(String t, ParsedExam p) {
+            if (dryRun) return;
+            if (!partitioned.contains(t)) pendingTerms.add(t);
+            upserts.add(new Object[] {
+                    t, campus, p.subject(), p.course(), p.section(), p.startTime(),
+                    p.durationMin(), p.building(), p.room()
+            });
+        }
+
+        /**
+         * Creates the partitions {@code rows} will be written to. Call outside any transaction,
+         * before accepting rows that are flushed inside one.
+         */
+        public void preparePartitions(List<ParsedExam> rows, String rowTerm) {
+            if (dryRun) return;
+            Set<String> needed = new HashSet<>();
+            for (ParsedExam p : rows) {
+                if (p.startTime() != null) needed.add((rowTerm != null) ? rowTerm : ExamTerms.of(p.startTime()));
+            }
+            ensurePartitions(needed);
+        }
+
+        private void ensurePartitions(Set<String> needed) {
+            if (dryRun) return;
+            for (String t : needed) {
+                if (partitioned.contains(t)) continue;
+                // a term's partition must exist before its first row; otherwise it lands in exam_default
+                if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                    throw new IllegalStateException("Partition for term " + t
+                            + " must be created before the write transaction; call preparePartitions first");
+                }
+                terms.ensurePartition(t);
+                partitioned.add(t);
+            }
+        }
+
+        public void flush() {
+            if (upserts.isEmpty() && updates.isEmpty()) return;
+            ensurePartitions(pendingTerms);
+            pendingTerms.clear();
+            long started = System.nanoTime();
+            tx.executeWithoutResult(status -> {
+                if (!upserts.isEmpty()) jdbc.batchUpdate(UPSERT, upserts);
+                if (!updates.isEmpty()) jdbc.batchUpdate(UPDATE, updates);
+            });
+            upserts.clear();
+            updates.clear();
+            writeNanos += System.nanoTime() - started;
+        }
+
+        public int inserted() { return inserted; }
+        public int updated()  { return updated; }
+        public int skipped()  { return skipped; }
+
+        /** Time spent loading existing keys and classifying rows. */
+        public long diffNanos()  { return diffNanos; }
+        /** Time spent in batch writes and their commits. */
+        public long writeNanos() { return writeNanos; }
+    }
+}
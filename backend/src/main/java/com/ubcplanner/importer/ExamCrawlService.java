@@ -0,0 +1,223 @@
+package com.ubcplanner.importer;
+
+import com.ubcplanner.catalog.CatalogTree;
+import com.ubcplanner.exams.ExamKeys;
+import com.ubcplanner.exams.ExamReadModel;
+import com.ubcplanner.exams.ExamTerms;
+import com.ubcplanner.exams.ExamsChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Imports the live exam schedule for many subjects and terms in one call.
+ *
+ * Pages are fetched by {@link ExamCrawler} and handed over a bounded queue to a single writer
+ * thread, which owns the {@link ExamBatchWriter.Session} and commits each page in its own
+ * transaction. Fetching never waits on the database and the database sees one writer; when the
+ * writer falls behind, the full queue holds the fetchers back. One crawl runs at a time.
+ */
+@Service
+public class ExamCrawlService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExamCrawlService.class);
+
+    private static final ExamCrawler.Page END = new ExamCrawler.Page(null, List.of(), false, null);
+
+    /** {@code unchanged}: pages fetched in full whose content hash matched the last import. */
+    public record CrawlSummary(int pages, int notModified, int unchanged, int failed, int retries,
+                               int inserted, int updated, int skipped,
+                               long elapsedMs, List<String> errors) {}
+
+    private final ExamBatchWriter writer;
+    private final ImportSourceHashes hashes;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher events;
+    private final ExamReadModel readModel;
+    private final CatalogTree catalog;
+    private final ImportMetrics metrics;
+    private final ExamCrawler crawler;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${ubc.exams.searchUrl:}")
+    private String searchUrl;
+
+    @Value("${ubc.crawler.queueCapacity:64}")
+    private int queueCapacity;
+
+    public ExamCrawlService(ExamBatchWriter writer,
+                            ImportSourceHashes hashes,
+                            TransactionTemplate tx,
+                            ApplicationEventPublisher events,
+                            ExamReadModel readModel,
+                            CatalogTree catalog,
+                            ImportMetrics metrics,
+                            @Value("${ubc.crawler.concurrency:8}") int concurrency,
+                            @Value("${ubc.crawler.minIntervalMs:250}") long minIntervalMs,
+                            @Value("${ubc.crawler.maxAttempts:4}") int maxAttempts,
+                            @Value("${ubc.crawler.backoffMs:500}") long backoffMs,
+                            @Value("${ubc.crawler.timeoutMs:15000}") long timeoutMs) {
+        this.writer = writer;
+        this.hashes = hashes;
+        this.tx = tx;
+        this.events = events;
+        this.readModel = readModel;
+        this.catalog = catalog;
+        this.metrics = metrics;
+        this.crawler = new ExamCrawler(new ExamCrawler.Settings(concurrency, Duration.ofMillis(minIntervalMs),
+                maxAttempts, Duration.ofMillis(backoffMs), Duration.ofMillis(timeoutMs),
+                "UBC-Exam-Scheduler/1.0 (+https://github.com/manggo-cd/UBC-Exam-Scheduler)"));
+    }
+
+    /**
+     * Fetches one page per (subject, term) from {@code ubc.exams.searchUrl}. Without subjects, every
+     * subject the campus has in the current term is crawled. Pages whose content matches the last import
+     * are not written unless {@code force} is set.
+     */
+    public CrawlSummary crawl(String campus, List<String> subjects, List<String> terms, boolean dryRun,
+                              boolean force, ImportProgress progress) throws InterruptedException {
+        if (searchUrl == null || searchUrl.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ubc.exams.searchUrl is not configured");
+        }
+        String canonicalCampus = ExamKeys.campus(campus);
+        List<String> subjectList = (subjects == null || subjects.isEmpty())
+                ? catalog.subjects(readModel.snapshot(), canonicalCampus) : subjects;
+        if (subjectList.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No subjects to crawl; pass subjects=...");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A crawl is already running");
+        }
+        try {
+            return run(canonicalCampus, targets(subjectList, terms), dryRun, force, progress);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private List<ExamCrawler.Target> targets(List<String> subjects, List<String> terms) {
+        List<String> termList = (terms == null || terms.isEmpty()) ? Collections.singletonList(null) : terms;
+        List<ExamCrawler.Target> out = new ArrayList<>(subjects.size() * termList.size());
+        for (String raw : termList) {
+            String term = ExamTerms.key(raw); // 400 here rather than on the writer thread
+            for (String subject : subjects) {
+                String s = ExamKeys.key(subject);
+                UriComponentsBuilder uri = UriComponentsBuilder.fromHttpUrl(searchUrl).queryParam("subject", s);
+                if (term != null) uri.queryParam("term", term);
+                out.add(new ExamCrawler.Target(uri.encode().build().toUri(), s, term));
+            }
+        }
+        return out;
+    }
+
+    private CrawlSummary run(String campus, List<ExamCrawler.Target> targets, boolean dryRun, boolean force,
+                             ImportProgress progress) throws InterruptedException {
+        progress.phase("crawling");
+        long started = System.nanoTime();
+        Map<String, String> known = force ? Map.of() : hashes.all();
+        AtomicInteger unchanged = new AtomicInteger();
+        BlockingQueue<ExamCrawler.Page> queue = new ArrayBlockingQueue<>(queueCapacity);
+        // one session across terms; each page's rows go to its target term
+        ExamBatchWriter.Session session = writer.open(null, campus, dryRun);
+
+        // After a failed write the writer keeps draining, and once the crawl stops fetchers give up
+        // on a full queue, so no fetcher blocks on a queue nobody reads.
+        AtomicReference<RuntimeException> writeError = new AtomicReference<>();
+        AtomicBoolean stopped = new AtomicBoolean();
+        ExecutorService writerThread = Executors.newSingleThreadExecutor(r -> new Thread(r, "exam-crawl-writer"));
+        Future<?> written = writerThread.submit(() -> {
+            ExamCrawler.Page next;
+            while ((next = queue.take()) != END) {
+                if (writeError.get() != null) continue;
+                final ExamCrawler.Page page = next;
+                List<ExamImportService.ParsedExam> rows = page.rows();
+                String term = page.target().term();
+                try {
+                    session.preparePartitions(rows, term); // DDL, so before the page's transaction
+                    tx.executeWithoutResult(status -> {
+                        rows.forEach(row -> session.accept(row, term));
+                        session.flush();
+                        if (!dryRun && page.examTable()) {
+                            hashes.record(sourceKey(campus, page.target()), page.contentHash(), rows.size());
+                        }
+                    });
+                    progress.rows(rows.size());
+                } catch (RuntimeException ex) {
+                    writeError.set(ex);
+                }
+            }
+            return null;
+        });
+
+        ExamCrawler.Stats stats;
+        String outcome = "failed";
+        try {
+            stats = crawler.crawl(targets, page -> {
+                progress.checkCancelled();
+                if (page.contentHash().equals(known.get(sourceKey(campus, page.target())))) {
+                    unchanged.incrementAndGet();
+                } else if (writeError.get() == null) {
+                    offer(queue, page, stopped);
+                }
+            });
+            offer(queue, END, stopped);
+            written.get();
+            if (writeError.get() == null) outcome = "done";
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Crawl writer failed", e.getCause());
+        } finally {
+            stopped.set(true);
+            writerThread.shutdownNow();
+            metrics.session("crawl", campus, session);
+            metrics.finished("crawl", campus, outcome, started);
+            // pages are committed one by one, so whatever was written before a failure is live
+            if (!dryRun && session.inserted() + session.updated() > 0) {
+                events.publishEvent(new ExamsChangedEvent("crawl"));
+            }
+        }
+
+        if (writeError.get() != null) {
+            throw new IllegalStateException("Writing crawled exams failed", writeError.get());
+        }
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        log.info("Crawled {} pages for campus {} ({} not modified, {} unchanged, {} failed) in {} ms: {} inserted, {} updated",
+                stats.fetched(), campus, stats.notModified(), unchanged.get(), stats.failed(), elapsedMs,
+                session.inserted(), session.updated());
+        return new CrawlSummary(stats.fetched(), stats.notModified(), unchanged.get(), stats.failed(), stats.retries(),
+                session.inserted(), session.updated(), session.skipped(), elapsedMs, stats.errors());
+    }
+
+    private static String sourceKey(String campus, ExamCrawler.Target target) {
+        return ImportSourceHashes.key(campus, target.subject(), null, target.term());
+    }
+
+    private static void offer(BlockingQueue<ExamCrawler.Page> queue, ExamCrawler.Page page, AtomicBoolean stopped) {
+        try {
+            while (!stopped.get() && !queue.offer(page, 100, TimeUnit.MILLISECONDS)) {
+                // queue full: the writer is behind
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing a crawled page", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        crawler.close();
+    }
+}
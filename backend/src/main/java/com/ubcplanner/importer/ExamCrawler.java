@@ -0,0 +1,219 @@
+package com.ubcplanner.importer;
+
+import com.ubcplanner.importer.ExamImportService.ParsedExam;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Fetches and parses many exam schedule pages concurrently.
+ *
+ * Requests go out through the asynchronous {@link HttpClient} on a small fixed pool, so waiting on
+ * the network holds no thread; at most {@code concurrency} requests are in flight. Requests to the
+ * same host are spaced at least {@code minInterval} apart. Timeouts, 429 and 5xx responses are
+ * retried with exponential backoff (or the server's Retry-After). The ETag and Last-Modified of
+ * every page are remembered and sent back on the next crawl, and a 304 skips the page entirely.
+ *
+ * Parsed pages go to the caller's sink from pool threads, in completion order.
+ */
+public final class ExamCrawler implements AutoCloseable {
+
+    public record Settings(int concurrency, Duration minInterval, int maxAttempts, Duration backoff,
+                           Duration timeout, String userAgent) {}
+
+    /** One page to fetch; {@code subject} and {@code term} are passed to the parser as filters. */
+    public record Target(URI uri, String subject, String term) {}
+
+    /** {@code contentHash} is the SHA-256 of the page body, see {@link ImportSourceHashes}. */
+    public record Page(Target target, List<ParsedExam> rows, boolean examTable, String contentHash) {}
+
+    public record Stats(int fetched, int notModified, int failed, int retries, List<String> errors) {}
+
+    private record Validators(String etag, String lastModified) {}
+
+    private static final int MAX_ERRORS = 20;
+
+    private final Settings settings;
+    private final ExecutorService pool;
+    private final HttpClient http;
+    private final Map<URI, Validators> validators = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> nextSlot = new ConcurrentHashMap<>(); // host -> earliest next send (nanos)
+
+    public ExamCrawler(Settings settings) {
+        this.settings = settings;
+        AtomicInteger threads = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(Math.max(2, settings.concurrency()), r -> {
+            Thread t = new Thread(r, "exam-crawler-" + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.http = HttpClient.newBuilder()
+                .executor(pool)
+                .connectTimeout(settings.timeout())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    /** Fetches every target and blocks until all are done. The sink must be thread-safe. */
+    public Stats crawl(List<Target> targets, Consumer<Page> sink) throws InterruptedException {
+        Run run = new Run(sink);
+        Semaphore inFlight = new Semaphore(settings.concurrency());
+        List<CompletableFuture<Void>> all = new ArrayList<>(targets.size());
+        for (Target target : targets) {
+            inFlight.acquire();
+            all.add(fetch(run, target, 1).whenComplete((v, ex) -> inFlight.release()));
+        }
+        try {
+            CompletableFuture.allOf(all.toArray(new CompletableFuture<?>[0])).get();
+        } catch (ExecutionException e) {
+            // fetch() handles its own failures; anything here came from the sink
+            throw new IllegalStateException("Crawl failed", e.getCause());
+        }
+        return new Stats(run.fetched.get(), run.notModified.get(), run.failed.get(), run.retries.get(),
+                List.copyOf(run.errors));
+    }
+
+    private CompletableFuture<Void> fetch(Run run, Target target, int attempt) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(target.uri())
+                .timeout(settings.timeout())
+                .header("User-Agent", settings.userAgent())
+                .header("Accept", "text/html")
+                .GET();
+        Validators v = validators.get(target.uri());
+        if (v != null) {
+            if (v.etag() != null) request.header("If-None-Match", v.etag());
+            if (v.lastModified() != null) request.header("If-Modified-Since", v.lastModified());
+        }
+
+        Executor delayed = CompletableFuture.delayedExecutor(reserveSlot(target.uri()), TimeUnit.NANOSECONDS, pool);
+        return CompletableFuture.supplyAsync(() -> null, delayed)
+                .thenCompose(x -> http.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray()))
+                .handle((response, ex) -> {
+                    if (ex != null) {
+                        return retryOrFail(run, target, attempt, null, describe(ex));
+                    }
+                    int status = response.statusCode();
+                    if (status == 304) {
+                        run.notModified.incrementAndGet();
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+                    if (status == 429 || status >= 500) {
+                        return retryOrFail(run, target, attempt, response, "HTTP " + status);
+                    }
+                    if (status != 200) {
+                        run.fail(target, "HTTP " + status);
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+                    Page page;
+                    try {
+                        page = parse(target, response.body());
+                    } catch (RuntimeException parseError) {
+                        run.fail(target, "unparseable page: " + describe(parseError));
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+                    // validators only once the page made it through the parser
+                    remember(target.uri(), response);
+                    run.fetched.incrementAndGet();
+                    run.sink.accept(page);
+                    return CompletableFuture.<Void>completedFuture(null);
+                })
+                .thenCompose(f -> f);
+    }
+
+    private CompletableFuture<Void> retryOrFail(Run run, Target target, int attempt,
+                                                HttpResponse<?> response, String error) {
+        if (attempt >= settings.maxAttempts()) {
+            run.fail(target, error + " after " + attempt + " attempts");
+            return CompletableFuture.completedFuture(null);
+        }
+        run.retries.incrementAndGet();
+        long waitNanos = settings.backoff().toNanos() << (attempt - 1);
+        waitNanos += ThreadLocalRandom.current().nextLong(Math.max(1, waitNanos / 2)); // jitter
+        if (response != null) {
+            try {
+                OptionalLong retryAfter = response.headers().firstValueAsLong("Retry-After");
+                if (retryAfter.isPresent()) waitNanos = Math.max(waitNanos, TimeUnit.SECONDS.toNanos(retryAfter.getAsLong()));
+            } catch (NumberFormatException httpDate) {
+                // Retry-After given as a date; our own backoff will do
+            }
+        }
+        Executor later = CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS, pool);
+        return CompletableFuture.supplyAsync(() -> null, later).thenCompose(x -> fetch(run, target, attempt + 1));
+    }
+
+    // Claims the next send slot for the target's host and returns how long to wait for it.
+    private long reserveSlot(URI uri) {
+        long interval = settings.minInterval().toNanos();
+        if (interval <= 0) return 0;
+        AtomicLong next = nextSlot.computeIfAbsent(String.valueOf(uri.getHost()), h -> new AtomicLong(Long.MIN_VALUE));
+        long now = System.nanoTime();
+        while (true) {
+            long slot = next.get();
+            long start = (slot == Long.MIN_VALUE || slot - now < 0) ? now : slot;
+            if (next.compareAndSet(slot, start + interval)) return start - now;
+        }
+    }
+
+    private void remember(URI uri, HttpResponse<?> response) {
+        String etag = response.headers().firstValue("ETag").orElse(null);
+        String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+        if (etag != null || lastModified != null) {
+            validators.put(uri, new Validators(etag, lastModified));
+        } else {
+            validators.remove(uri);
+        }
+    }
+
+    private static Page parse(Target target, byte[] html) {
+        List<ParsedExam> rows = new ArrayList<>();
+        try (StreamParser streamer = new StreamParser(Parser.htmlParser()).parse(
+                // StreamParser needs a Reader that supports mark()
+                new BufferedReader(new InputStreamReader(new ByteArrayInputStream(html), StandardCharsets.UTF_8)),
+                target.uri().toString())) {
+            boolean found = ExamHtmlParser.streamRows(streamer, target.subject(), null, target.term(), rows::add);
+            return new Page(target, rows, found, ImportSourceHashes.hash(html));
+        }
+    }
+
+    private static String describe(Throwable ex) {
+        Throwable cause = (ex instanceof CompletionException && ex.getCause() != null) ? ex.getCause() : ex;
+        return cause.getClass().getSimpleName() + (cause.getMessage() != null ? ": " + cause.getMessage() : "");
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    // Counters for one crawl() call.
+    private static final class Run {
+        final Consumer<Page> sink;
+        final AtomicInteger fetched = new AtomicInteger();
+        final AtomicInteger notModified = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final AtomicInteger retries = new AtomicInteger();
+        final Queue<String> errors = new ConcurrentLinkedQueue<>();
+
+        Run(Consumer<Page> sink) {
+            this.sink = sink;
+        }
+
+        void fail(Target target, String error) {
+            if (failed.incrementAndGet() <= MAX_ERRORS) errors.add(target.uri() + ": " + error);
+        }
+    }
+}
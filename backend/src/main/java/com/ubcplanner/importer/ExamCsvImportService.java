@@ -1,90 +1,289 @@
 package com.ubcplanner.importer;
 
-import com.ubcplanner.exams.Exam;
-import com.ubcplanner.exams.ExamRepository;
+import com.ubcplanner.exams.ExamKeys;
+import com.ubcplanner.exams.ExamTermService;
+import com.ubcplanner.exams.ExamTerms;
+import com.ubcplanner.exams.ExamsChangedEvent;
+import org.postgresql.PGConnection;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.time.*;
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
+/**
+ * Streaming CSV importer.
+ *
+ * Rows are tokenized with {@link CsvReader}, pushed into a temporary staging table with
+ * PostgreSQL {@code COPY}, and merged into {@code exam} with one set-based statement per chunk.
+ * Each chunk commits on its own, so memory and transaction length stay bounded by the chunk size.
+ * That also means an import that fails or is cancelled part way keeps the chunks merged before it:
+ * it throws {@link PartialImportException} carrying the counts so far, with {@code error} set.
+ *
+ * An optional ninth column names the term; rows without one get the term their start time falls in.
+ */
 @Service
 public class ExamCsvImportService {
 
-    private final ExamRepository repo;
+    private static final int MAX_REPORTED_REJECTS = 100;
+
+    private static final String CREATE_STAGE = """
+            create temp table if not exists exam_stage (
+              line_no      bigint       not null,
+              term         varchar(6)   not null,
+              campus       varchar(1)   not null,
+              subject      varchar(32)  not null,
+              course       varchar(32)  not null,
+              section      varchar(32)  not null,
+              start_time   timestamptz  not null,
+              duration_min integer      not null,
+              building     varchar(128),
+              room         varchar(64)
+            ) on commit delete rows
+            """;
+
+    private static final String COPY_STAGE = """
+            copy exam_stage (line_no, term, campus, subject, course, section, start_time, duration_min, building, room)
+            from stdin with (format csv)
+            """;
+
+    // Later lines win when the same key appears twice in one chunk.
+    private static final String STAGED_ROWS = """
+            select distinct on (term, campus, subject, course, section, start_time) *
+            from exam_stage
+            order by term, campus, subject, course, section, start_time, line_no desc
+            """;
+
+    private static final String MERGE = """
+            with src as (%s),
+            merged as (
+              insert into exam (term, campus, subject, course, section, start_time, duration_min, building, room)
+              select term, campus, subject, course, section, start_time, duration_min, building, room from src
+              on conflict on constraint uk_exam_unique do update
+                 set duration_min = excluded.duration_min,
+                     building     = excluded.building,
+                     room         = excluded.room
+               where (exam.duration_min, exam.building, exam.room)
+                     is distinct from (excluded.duration_min, excluded.building, excluded.room)
+              returning (xmax = 0) as inserted
+            )
+            select count(*) filter (where inserted)     as inserted,
+                   count(*) filter (where not inserted) as updated
+            from merged
+            """.formatted(STAGED_ROWS);
+
+    private static final String DRY_RUN_DIFF = """
+            with src as (%s)
+            select count(*) filter (where e.id is null) as inserted,
+                   count(*) filter (where e.id is not null
+                                      and (e.duration_min, e.building, e.room)
+                                          is distinct from (s.duration_min, s.building, s.room)) as updated
+            from src s
+            left join exam e
+              on e.term = s.term and e.campus = s.campus and e.subject = s.subject and e.course = s.course
+             and e.section = s.section and e.start_time = s.start_time
+            """.formatted(STAGED_ROWS);
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher events;
+    private final ImportMetrics metrics;
+    private final ExamTermService terms;
+
+    @Value("${ubc.import.csv.chunkSize:5000}")
+    private int chunkSize;
 
     @Autowired
-    public ExamCsvImportService(ExamRepository repo) {
-        this.repo = repo;
+    public ExamCsvImportService(JdbcTemplate jdbc, TransactionTemplate tx, ApplicationEventPublisher events,
+                                ImportMetrics metrics, ExamTermService terms) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.events = events;
+        this.metrics = metrics;
+        this.terms = terms;
     }
 
-    public record CsvImportSummary(int inserted, int updated, int skipped) {}
+    public record RowReject(long line, String reason) {}
+
+    /** {@code error}: why the import stopped, or null once every row was processed. */
+    public record CsvImportSummary(int inserted, int updated, int skipped, int rejected,
+                                   long elapsedMs, double rowsPerSecond,
+                                   List<RowReject> rejects, String error) implements ImportCounts {}
 
-    @Transactional
     public CsvImportSummary importFromCsv(InputStream in,
                                           String campus,
-                                          boolean dryRun) throws Exception {
-        int inserted = 0, updated = 0, skipped = 0;
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in))) {
-            String line = reader.readLine(); // skip header
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length < 6) continue;
-                String subject  = parts[0].trim();
-                String course   = parts[1].trim();
-                String section  = parts[2].trim();
-                String dateStr  = parts[3].trim(); // e.g. 2025-04-23
-                String timeStr  = parts[4].trim(); // e.g. 15:30
-                String duration = parts[5].trim(); // e.g. 2h30 or 150
-                String building = parts.length > 6 ? parts[6].trim() : "";
-                String room     = parts.length > 7 ? parts[7].trim() : "";
-
-                OffsetDateTime startTime = parseDateTime(dateStr, timeStr);
-                Integer durationMin = parseDuration(duration);
-
-                var existing = repo.findByCampusAndSubjectIgnoreCaseAndCourseIgnoreCaseAndSectionIgnoreCaseAndStartTime(
-                        campus, subject, course, section, startTime);
-
-                if (existing.isPresent()) {
-                    Exam e = existing.get();
-                    boolean changed = false;
-                    if (!Objects.equals(e.getDurationMin(), durationMin)) { changed = true; }
-                    if (!Objects.equals(e.getBuilding(), building))       { changed = true; }
-                    if (!Objects.equals(e.getRoom(), room))               { changed = true; }
-
-                    if (changed && !dryRun) {
-                        e.setDurationMin(durationMin);
-                        e.setBuilding(building);
-                        e.setRoom(room);
-                        repo.save(e);
-                    }
-                    updated++;
-                } else {
-                    if (!dryRun) {
-                        Exam e = new Exam();
-                        e.setCampus(campus);
-                        e.setSubject(subject);
-                        e.setCourse(course);
-                        e.setSection(section);
-                        e.setStartTime(startTime);
-                        e.setDurationMin(durationMin);
-                        e.setBuilding(building);
-                        e.setRoom(room);
-                        repo.save(e);
+                                          boolean dryRun,
+                                          ImportProgress progress) throws Exception {
+        long started = System.nanoTime();
+        int inserted = 0, updated = 0, skipped = 0, rejected = 0;
+        long rows = 0;
+        List<RowReject> rejects = new ArrayList<>();
+
+        String canonicalCampus = ExamKeys.campus(campus);
+        CsvReader reader = new CsvReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        reader.next(); // skip header
+        progress.phase("importing");
+
+        StringBuilder chunk = new StringBuilder();
+        Set<String> chunkTerms = new HashSet<>();
+        int staged = 0;
+        long dbNanos = 0;
+        String outcome = "failed";
+        List<String> fields;
+        try {
+            while ((fields = reader.next()) != null) {
+                if (fields.size() == 1 && fields.get(0).isBlank()) continue; // blank line
+                progress.checkCancelled();
+                rows++;
+                progress.rows(1);
+                try {
+                    chunkTerms.add(appendCopyRow(chunk, reader.recordLine(), canonicalCampus, fields));
+                    staged++;
+                } catch (RuntimeException ex) {
+                    rejected++;
+                    if (rejects.size() < MAX_REPORTED_REJECTS) {
+                        rejects.add(new RowReject(reader.recordLine(), rejectReason(ex)));
                     }
-                    inserted++;
+                }
+
+                if (staged == chunkSize) {
+                    long chunkStarted = System.nanoTime();
+                    int[] counts = mergeChunk(chunk, chunkTerms, canonicalCampus, dryRun);
+                    dbNanos += System.nanoTime() - chunkStarted;
+                    inserted += counts[0];
+                    updated += counts[1];
+                    skipped += staged - counts[0] - counts[1];
+                    chunk.setLength(0);
+                    chunkTerms.clear();
+                    staged = 0;
                 }
             }
+            if (staged > 0) {
+                long chunkStarted = System.nanoTime();
+                int[] counts = mergeChunk(chunk, chunkTerms, canonicalCampus, dryRun);
+                dbNanos += System.nanoTime() - chunkStarted;
+                inserted += counts[0];
+                updated += counts[1];
+                skipped += staged - counts[0] - counts[1];
+            }
+            outcome = "done";
+        } catch (Exception ex) {
+            throw new PartialImportException(summary(inserted, updated, skipped, rejected, rows, started, rejects,
+                    ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName()), ex);
+        } finally {
+            metrics.phase("csv", canonicalCampus, "parse", Math.max(0, System.nanoTime() - started - dbNanos));
+            metrics.rows("csv", canonicalCampus, inserted, updated, skipped, rejected);
+            metrics.finished("csv", canonicalCampus, outcome, started);
+            // merged chunks are committed even if the import stops part way
+            if (!dryRun && inserted + updated > 0) {
+                events.publishEvent(new ExamsChangedEvent("csv"));
+            }
         }
-        return new CsvImportSummary(inserted, updated, skipped);
+
+        return summary(inserted, updated, skipped, rejected, rows, started, rejects, null);
+    }
+
+    private static CsvImportSummary summary(int inserted, int updated, int skipped, int rejected, long rows,
+                                            long started, List<RowReject> rejects, String error) {
+        long elapsedNanos = System.nanoTime() - started;
+        double rowsPerSecond = elapsedNanos > 0 ? rows * 1_000_000_000d / elapsedNanos : 0d;
+        return new CsvImportSummary(inserted, updated, skipped, rejected,
+                elapsedNanos / 1_000_000, rowsPerSecond, rejects, error);
+    }
+
+    /** Stages one chunk with COPY and merges it in its own transaction. Returns {inserted, updated}. */
+    private int[] mergeChunk(StringBuilder chunk, Set<String> chunkTerms, String campus, boolean dryRun) {
+        String payload = chunk.toString();
+        // before the merge's transaction; a term without a partition would land in exam_default
+        if (!dryRun) chunkTerms.forEach(terms::ensurePartition);
+        return tx.execute(status -> {
+            long copyStarted = System.nanoTime();
+            jdbc.execute(CREATE_STAGE);
+            jdbc.execute((ConnectionCallback<Long>) con -> {
+                try {
+                    return con.unwrap(PGConnection.class).getCopyAPI()
+                            .copyIn(COPY_STAGE, new StringReader(payload));
+                } catch (IOException e) {
+                    throw new SQLException("COPY into exam_stage failed", e);
+                }
+            });
+            long mergeStarted = System.nanoTime();
+            metrics.phase("csv", campus, "stage", mergeStarted - copyStarted);
+            int[] counts = jdbc.queryForObject(dryRun ? DRY_RUN_DIFF : MERGE,
+                    (rs, i) -> new int[] { rs.getInt("inserted"), rs.getInt("updated") });
+            metrics.phase("csv", campus, "merge", System.nanoTime() - mergeStarted);
+            return counts;
+        });
+    }
+
+    /** Appends one COPY line and returns the row's term. */
+    static String appendCopyRow(StringBuilder out, long line, String campus, List<String> f) {
+        if (f.size() < 6) {
+            throw new IllegalArgumentException("expected at least 6 columns, found " + f.size());
+        }
+        String subject  = ExamKeys.key(required(f.get(0), "subject", 32));
+        String course   = ExamKeys.key(required(f.get(1), "course", 32));
+        String section  = ExamKeys.key(required(f.get(2), "section", 32));
+        OffsetDateTime startTime = parseDateTime(f.get(3).trim(), f.get(4).trim()); // e.g. 2025-04-23, 15:30
+        Integer durationMin = parseDuration(f.get(5).trim());                       // e.g. 2h30 or 150
+        String building = optional(f.size() > 6 ? f.get(6) : null, "building", 128);
+        String room     = optional(f.size() > 7 ? f.get(7) : null, "room", 64);
+        String term     = ExamTerms.key(f.size() > 8 ? f.get(8) : null);           // e.g. 2025W1
+        if (term == null) term = ExamTerms.of(startTime);
+
+        out.append(line).append(',');
+        out.append(term).append(',');
+        copyField(out, campus).append(',');
+        copyField(out, subject).append(',');
+        copyField(out, course).append(',');
+        copyField(out, section).append(',');
+        out.append(startTime).append(',');
+        out.append(durationMin).append(',');
+        copyField(out, building).append(',');
+        copyField(out, room).append('\n');
+        return term;
+    }
+
+    // COPY csv: unquoted empty is NULL, everything else is quoted with doubled inner quotes.
+    private static StringBuilder copyField(StringBuilder out, String value) {
+        if (value == null) return out;
+        return out.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static String required(String value, String name, int maxLen) {
+        String v = value.trim();
+        if (v.isEmpty()) throw new IllegalArgumentException(name + " is blank");
+        if (v.length() > maxLen) throw new IllegalArgumentException(name + " longer than " + maxLen);
+        return v;
+    }
+
+    private static String optional(String value, String name, int maxLen) {
+        if (value == null || value.isBlank()) return null;
+        return required(value, name, maxLen);
+    }
+
+    private static String rejectReason(RuntimeException ex) {
+        if (ex instanceof DateTimeException) return "invalid date/time: " + ex.getMessage();
+        if (ex instanceof NumberFormatException) return "invalid duration: " + ex.getMessage();
+        return ex.getMessage();
     }
 
     // Convert "YYYY-MM-DD" + "HH:MM" into an OffsetDateTime in America/Vancouver
-    private OffsetDateTime parseDateTime(String date, String time) {
+    static OffsetDateTime parseDateTime(String date, String time) {
         LocalDate d = LocalDate.parse(date);
         LocalTime t = LocalTime.parse(time);
         ZonedDateTime zdt = ZonedDateTime.of(d, t, ZoneId.of("America/Vancouver"));
@@ -92,7 +291,7 @@ public class ExamCsvImportService {
     }
 
     // Convert strings like "2h30" or "150" into minutes
-    private Integer parseDuration(String duration) {
+    static Integer parseDuration(String duration) {
         String cleaned = duration.toLowerCase().replaceAll("\\s+", "");
         if (cleaned.contains("h")) {
             String[] parts = cleaned.split("h");
@@ -0,0 +1,200 @@
+package com.ubcplanner.importer;
+
+import com.ubcplanner.exams.ExamKeys;
+import com.ubcplanner.importer.ExamImportService.ParsedExam;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.StreamParser;
+import org.jsoup.select.Elements;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.*;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Turns a UBC exam schedule page into {@link ParsedExam} rows. Stateless; shared by the single-page
+ * importer and the crawler.
+ */
+final class ExamHtmlParser {
+
+  private static final Logger log = LoggerFactory.getLogger(ExamHtmlParser.class);
+
+  private ExamHtmlParser() {}
+
+  /**
+   * Emits parsed rows as their {@code <tr>} closes. The header map is bound once, from the first
+   * header row that looks like an exam table; rows of other tables are ignored. Every completed
+   * element outside a row is detached right away, so only the open path of the tree stays in memory.
+   *
+   * @return false if no exam table header was found
+   */
+  static boolean streamRows(StreamParser streamer, String subjectFilter, String courseFilter, String term,
+                            Consumer<ParsedExam> sink) {
+    Map<String, Integer> col = null;
+    Element examTable = null;
+
+    Iterator<Element> it = streamer.iterator();
+    while (it.hasNext()) {
+      Element el = it.next();
+      if (!"tr".equals(el.normalName())) {
+        if (el.closest("tr") == null) el.remove();
+        continue;
+      }
+
+      Element table = el.closest("table");
+      if (col == null) {
+        Elements ths = el.select("th");
+        if (!ths.isEmpty() && isExamHeader(ths.text())) {
+          col = mapHeaderIndexes(el.select("th,td"));
+          examTable = table;
+        }
+      } else if (table == examTable) {
+        Elements tds = el.select("td");
+        if (!tds.isEmpty()) {
+          ParsedExam p = parseRow(tds, col, subjectFilter, courseFilter, term);
+          if (p != null) sink.accept(p);
+        }
+      }
+      el.remove();
+    }
+    return col != null;
+  }
+
+  private static boolean isExamHeader(String headerText) {
+    String header = headerText.toLowerCase(Locale.ROOT);
+    return header.contains("course") && header.contains("section") &&
+        (header.contains("exam") || header.contains("date")) &&
+        (header.contains("time") || header.contains("start"));
+  }
+
+  private static ParsedExam parseRow(Elements tds, Map<String, Integer> col,
+                              String subjectFilter, String courseFilter, String term) {
+    String courseStr = textAt(tds, col, "course");
+    String section   = textAt(tds, col, "section");
+    String dateStr   = textAt(tds, col, "date");
+    String timeStr   = textAt(tds, col, "time");
+    String building  = textAt(tds, col, "building");
+    String room      = textAt(tds, col, "room");
+    String duration  = textAt(tds, col, "duration");
+
+    if (courseStr == null || section == null) return null;
+
+    String[] parts = courseStr.trim().split("\\s+");
+    String subject = ExamKeys.key(parts.length > 0 ? parts[0] : "");
+    String course  = ExamKeys.key(parts.length > 1 ? parts[1] : "");
+    section = ExamKeys.key(section);
+
+    if (subjectFilter != null && !subject.equalsIgnoreCase(subjectFilter)) return null;
+    if (courseFilter  != null && !course.equalsIgnoreCase(courseFilter))   return null;
+
+    log.debug("dateStr='{}' timeStr='{}'", dateStr, timeStr);
+    OffsetDateTime start = parseDateTimeVancouver(dateStr, timeStr, term);
+    log.debug("start='{}'", start);
+    Integer durMin = parseDuration(duration, timeStr);
+
+    return new ParsedExam(subject, course, section, start, durMin, emptyToNull(building), emptyToNull(room));
+  }
+
+  private static Map<String, Integer> mapHeaderIndexes(Elements headerCells) {
+    Map<String, Integer> map = new HashMap<>();
+    for (int i = 0; i < headerCells.size(); i++) {
+      String t = headerCells.get(i).text().toLowerCase(Locale.ROOT);
+      if (t.contains("course"))   map.put("course", i);
+      if (t.contains("section"))  map.put("section", i);
+      if (t.contains("date"))     map.put("date", i);
+      if (t.contains("exam"))     map.putIfAbsent("date", i);   // “Exam Date”
+      if (t.contains("time"))     map.put("time", i);
+      if (t.contains("building")) map.put("building", i);
+      if (t.contains("room"))     map.put("room", i);
+      if (t.contains("duration")) map.put("duration", i);
+    }
+    return map;
+  }
+
+  private static String textAt(Elements tds, Map<String,Integer> col, String key) {
+    Integer idx = col.get(key);
+    if (idx == null || idx >= tds.size()) return null;
+    String s = tds.get(idx).text();
+    return s != null ? s.trim() : null;
+  }
+
+  private static String emptyToNull(String s) {
+    return (s == null || s.isBlank()) ? null : s;
+  }
+
+  static OffsetDateTime parseDateTimeVancouver(String dateStr, String timeStr, String term) {
+    if (dateStr == null || timeStr == null) return null;
+  
+    String d = normalizeWs(dateStr);
+    String t = normalizeWs(timeStr);
+  
+    // If time is a range like "9:00 AM - 12:00 PM", take the start
+    int dash = t.indexOf('-');
+    if (dash > 0) t = t.substring(0, dash).trim();
+  
+    // Extract date like "Dec 15, 2025" or "December 15, 2025" (month name or abbr, day, year)
+    java.util.regex.Matcher dm = DATE_RE.matcher(d);
+    if (!dm.find()) {
+      log.warn("DATE PARSE FAIL: '{}'", d);
+      return null;
+    }
+    String monAbbr = dm.group(1);
+    int day  = Integer.parseInt(dm.group(2));
+    int year = Integer.parseInt(dm.group(3));
+    int month = monthFromAbbr(monAbbr);
+  
+    // Extract time like "9:00 AM" or "15:30"
+    java.util.regex.Matcher tm = TIME_RE.matcher(t);
+    if (!tm.find()) {
+      log.warn("TIME PARSE FAIL: '{}'", t);
+      return null;
+    }
+    int hour   = Integer.parseInt(tm.group(1));
+    int minute = Integer.parseInt(tm.group(2));
+    String ampm = tm.group(3); // may be null for 24h format
+  
+    if (ampm != null) {
+      if (ampm.equalsIgnoreCase("PM") && hour != 12) hour += 12;
+      if (ampm.equalsIgnoreCase("AM") && hour == 12) hour = 0;
+    }
+  
+    LocalDate date = LocalDate.of(year, month, day);
+    LocalTime time = LocalTime.of(hour, minute);
+    return ZonedDateTime.of(date, time, ZoneId.of("America/Vancouver")).toOffsetDateTime();
+  }
+  
+  // --- helpers and patterns ---
+  
+  private static final java.util.regex.Pattern DATE_RE =
+      java.util.regex.Pattern.compile("(?i)\\b(Jan(?:uary)?|Feb(?:ruary)?|Mar(?:ch)?|Apr(?:il)?|May|June?|July?"
+          + "|Aug(?:ust)?|Sep(?:t(?:ember)?)?|Oct(?:ober)?|Nov(?:ember)?|Dec(?:ember)?)\\b\\.?\\s+(\\d{1,2}),\\s*(\\d{4})");
+  
+  private static final java.util.regex.Pattern TIME_RE =
+      java.util.regex.Pattern.compile("(\\d{1,2}):(\\d{2})\\s*(AM|PM|am|pm)?");
+  
+  // Replace NBSPs and narrow NBSPs, then trim
+  private static String normalizeWs(String s) {
+    return s.replace('\u00A0', ' ')
+            .replace('\u202F', ' ')
+            .trim();
+  }
+  
+  private static int monthFromAbbr(String abbr) {
+    String m = abbr.substring(0, 3).toLowerCase(Locale.ROOT);
+    return switch (m) {
+      case "jan" -> 1; case "feb" -> 2; case "mar" -> 3; case "apr" -> 4;
+      case "may" -> 5; case "jun" -> 6; case "jul" -> 7; case "aug" -> 8;
+      case "sep" -> 9; case "oct" -> 10; case "nov" -> 11; case "dec" -> 12;
+      default -> throw new IllegalArgumentException("Unknown month: " + abbr);
+    };
+  }
+
+  private static Integer parseDuration(String durationCell, String timeCell) {
+    if (durationCell != null) {
+      String digits = durationCell.replaceAll("[^0-9]", "");
+      if (!digits.isEmpty()) return Integer.parseInt(digits);
+    }
+    return (timeCell != null) ? 120 : null;
+  }
+}
@@ -3,9 +3,12 @@ package com.ubcplanner.importer;
 import com.ubcplanner.importer.ExamCsvImportService;
 import com.ubcplanner.importer.ExamImportService;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/admin/import")
 @CrossOrigin
@@ -13,11 +16,14 @@ public class ExamImportController {
 
     private final ExamImportService service;
     private final ExamCsvImportService csvService;
+    private final ExamCrawlService crawlService;
 
     public ExamImportController(ExamImportService service,
-                                ExamCsvImportService csvService) {
+                                ExamCsvImportService csvService,
+                                ExamCrawlService crawlService) {
         this.service = service;
         this.csvService = csvService;
+        this.crawlService = crawlService;
     }
 
     @PostMapping(path = "/exams", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -27,9 +33,24 @@ public class ExamImportController {
             @RequestParam(required = false) String term,
             @RequestParam(defaultValue = "V") String campus,
             @RequestParam(defaultValue = "true") boolean dryRun,
+            @RequestParam(defaultValue = "false") boolean force, // re-import even if the page is unchanged
             @RequestParam(defaultValue = "static") String source // static | live
     ) throws Exception {
-        return service.importBySubjectCourseTerm(subject, course, term, campus, dryRun, source);
+        return service.importBySubjectCourseTerm(subject, course, term, campus, dryRun, force, source,
+                ImportProgress.NONE);
+    }
+
+    // POST /admin/import/exams/crawl?campus=V&subjects=CPSC,MATH&terms=2025W1,2025W2&dryRun=false
+    // Without subjects, every subject already known for the campus is refreshed.
+    @PostMapping(path = "/exams/crawl", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ExamCrawlService.CrawlSummary crawl(
+            @RequestParam(defaultValue = "V") String campus,
+            @RequestParam(required = false) List<String> subjects,
+            @RequestParam(required = false) List<String> terms,
+            @RequestParam(defaultValue = "true") boolean dryRun,
+            @RequestParam(defaultValue = "false") boolean force
+    ) throws Exception {
+        return crawlService.crawl(campus, subjects, terms, dryRun, force, ImportProgress.NONE);
     }
 
     @PostMapping(
@@ -43,10 +64,12 @@ public class ExamImportController {
             @RequestParam(required = false) String subject,
             @RequestParam(required = false) String course,
             @RequestParam(required = false) String term,
-            @RequestParam(defaultValue = "true") boolean dryRun
+            @RequestParam(defaultValue = "true") boolean dryRun,
+            @RequestParam(defaultValue = "false") boolean force
     ) throws Exception {
         try (var in = file.getInputStream()) {
-            return service.importFromUploadedHtml(in, campus, subject, course, term, dryRun);
+            return service.importFromUploadedHtml(in, campus, subject, course, term, dryRun, force,
+                    ImportProgress.NONE);
         }
     }
 
@@ -61,7 +84,13 @@ public class ExamImportController {
             @RequestParam(defaultValue = "true") boolean dryRun
     ) throws Exception {
         try (var in = file.getInputStream()) {
-            return csvService.importFromCsv(in, campus, dryRun);
+            return csvService.importFromCsv(in, campus, dryRun, ImportProgress.NONE);
         }
     }
+
+    // the batches written before the failure stay committed, so answer with how far the import got
+    @ExceptionHandler(PartialImportException.class)
+    public ResponseEntity<ImportCounts> partialImport(PartialImportException ex) {
+        return ResponseEntity.internalServerError().body(ex.partial());
+    }
 }
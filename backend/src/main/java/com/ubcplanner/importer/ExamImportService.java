@@ -3,20 +3,32 @@ package com.ubcplanner.importer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.ubcplanner.exams.Exam;
-import com.ubcplanner.exams.ExamRepository;
+import com.ubcplanner.exams.ExamKeys;
+import com.ubcplanner.exams.ExamReadModel;
+import com.ubcplanner.exams.ExamRoomIndex;
+import com.ubcplanner.exams.ExamTerms;
+import com.ubcplanner.exams.ExamsChangedEvent;
+
+import org.jsoup.Connection;
 import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
-import java.time.*;
-import java.time.format.DateTimeFormatter;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.time.OffsetDateTime;
 import java.util.*;
 
 @Service
@@ -24,13 +36,26 @@ public class ExamImportService {
 
   private static final Logger log = LoggerFactory.getLogger(ExamImportService.class);
 
+  private static final int MAX_REPORTED_DOUBLE_BOOKINGS = 100;
+
   @Value("${ubc.exams.searchUrl:}")
   private String searchUrl;
 
-  private final ExamRepository repo;
-
-  public ExamImportService(ExamRepository repo) {
-    this.repo = repo;
+  private final ExamBatchWriter writer;
+  private final ImportSourceHashes hashes;
+  private final ApplicationEventPublisher events;
+  private final ImportMetrics metrics;
+  private final ExamReadModel readModel;
+  private final ExamRoomIndex rooms;
+
+  public ExamImportService(ExamBatchWriter writer, ImportSourceHashes hashes, ApplicationEventPublisher events,
+                           ImportMetrics metrics, ExamReadModel readModel, ExamRoomIndex rooms) {
+    this.writer = writer;
+    this.hashes = hashes;
+    this.events = events;
+    this.metrics = metrics;
+    this.readModel = readModel;
+    this.rooms = rooms;
   }
 
   public record ParsedExam(
@@ -38,269 +63,181 @@ public class ExamImportService {
       OffsetDateTime startTime, Integer durationMin,
       String building, String room) {}
 
-  public record ImportSummary(int inserted, int updated, int skipped, List<ParsedExam> samples) {}
+  /**
+   * {@code unchanged}: the document matched the last one imported for the same source and was not parsed.
+   * {@code doubleBookings}: rooms booked twice at once in the imported term (the current one when
+   * none was given) after the import, limited to the imported subject and course when the import was filtered; empty for dry runs
+   * and imports that changed no rows.
+   * {@code error}: why the import stopped, set only on the counts a {@link PartialImportException} carries.
+   */
+  public record ImportSummary(int inserted, int updated, int skipped, List<ParsedExam> samples, boolean unchanged,
+                              List<ExamRoomIndex.DoubleBooking> doubleBookings, String error) implements ImportCounts {
+    ImportSummary(int inserted, int updated, int skipped, List<ParsedExam> samples) {
+      this(inserted, updated, skipped, samples, false, List.of(), null);
+    }
+
+    static ImportSummary unchangedSource() {
+      return new ImportSummary(0, 0, 0, List.of(), true, List.of(), null);
+    }
+  }
 
-  @Transactional
   public ImportSummary importBySubjectCourseTerm(
       String subject,
       String course,
       String term,
       String campus,
       boolean dryRun,
-      String source
+      boolean force,
+      String source,
+      ImportProgress progress
   ) throws Exception {
-    Document doc;
     if ("static".equalsIgnoreCase(source)) {
       ClassPathResource res = new ClassPathResource("sample/exams.html");
       if (!res.exists()) {
         return new ImportSummary(0, 0, 0, List.of());
       }
       try (InputStream in = res.getInputStream()) {
-        doc = Jsoup.parse(in, "UTF-8", "");
+        return importHtml(in, "static", campus, subject, course, term, dryRun, force, progress, System.nanoTime());
       }
-    } else {
-      doc = Jsoup.connect(searchUrl)
-          .userAgent("UBC-Exam-Scheduler/1.0 (+https://github.com/manggo-cd/UBC-Exam-Scheduler)")
-          .referrer("https://students.ubc.ca/")
-          .timeout(15_000)
-          .get();
     }
-    return importFromDocument(doc, normalizeCampus(campus), subject, course, term, dryRun);
+    progress.phase("fetching");
+    long fetchStarted = System.nanoTime();
+    Connection.Response res = Jsoup.connect(searchUrl)
+        .userAgent("UBC-Exam-Scheduler/1.0 (+https://github.com/manggo-cd/UBC-Exam-Scheduler)")
+        .referrer("https://students.ubc.ca/")
+        .timeout(15_000)
+        .maxBodySize(0) // streamed to disk, not buffered
+        .execute();
+    try (InputStream in = res.bodyStream()) {
+      return importHtml(in, "live", campus, subject, course, term, dryRun, force, progress, fetchStarted);
+    }
   }
 
-  @Transactional
   public ImportSummary importFromUploadedHtml(
       InputStream in,
       String campus,
       String subject,
       String course,
       String term,
-      boolean dryRun
+      boolean dryRun,
+      boolean force,
+      ImportProgress progress
   ) throws Exception {
-    Document doc = Jsoup.parse(in, "UTF-8", "");
-    return importFromDocument(doc, normalizeCampus(campus), subject, course, term, dryRun);
+    return importHtml(in, "upload", campus, subject, course, term, dryRun, force, progress, System.nanoTime());
   }
 
-  private ImportSummary importFromDocument(
-      Document doc,
+  /**
+   * Spools the document to a temp file, hashing it on the way, so it is never held in memory: if
+   * it matches the last document imported for the same campus and filters, nothing is parsed or
+   * queried. {@code force} re-imports regardless. Otherwise the file is parsed as a stream, rows
+   * are committed in batches as they are parsed, and the hash is only recorded once all are in.
+   */
+  private ImportSummary importHtml(
+      InputStream in,
+      String source,
       String campus,
       String subject,
       String course,
       String term,
-      boolean dryRun
-  ) {
-    Element table = findExamTable(doc);
-    if (table == null) {
-      return new ImportSummary(0, 0, 0, List.of());
-    }
-
-    List<ParsedExam> parsed = parseRows(table, subject, course, term);
-
-    int inserted = 0, updated = 0, skipped = 0;
-    for (ParsedExam p : parsed) {
-      if (p.startTime() == null) { skipped++; continue; }
-
-      var existing = repo.findByCampusAndSubjectIgnoreCaseAndCourseIgnoreCaseAndSectionIgnoreCaseAndStartTime(
-          campus, p.subject(), p.course(), p.section(), p.startTime()
-      );
-
-      if (existing.isPresent()) {
-        Exam e = existing.get();
-        boolean changed = false;
-        if (!Objects.equals(e.getDurationMin(), p.durationMin())) { changed = true; }
-        if (!Objects.equals(e.getBuilding(), p.building()))       { changed = true; }
-        if (!Objects.equals(e.getRoom(), p.room()))               { changed = true; }
-
-        if (changed) {
-          updated++;
-          if (!dryRun) {
-            e.setDurationMin(p.durationMin());
-            e.setBuilding(p.building());
-            e.setRoom(p.room());
-            repo.save(e);
-          }
-        } else {
-          skipped++;
-        }
-      } else {
-        inserted++;
-        if (!dryRun) {
-          Exam e = new Exam();
-          e.setCampus(campus);
-          e.setSubject(p.subject());
-          e.setCourse(p.course());
-          e.setSection(p.section());
-          e.setStartTime(p.startTime());
-          e.setDurationMin(p.durationMin());
-          e.setBuilding(p.building());
-          e.setRoom(p.room());
-          repo.save(e);
-        }
+      boolean dryRun,
+      boolean force,
+      ImportProgress progress,
+      long fetchStarted
+  ) throws IOException {
+    progress.phase("reading");
+    String canonicalCampus = ExamKeys.campus(campus);
+    long started = System.nanoTime();
+    String outcome = "failed";
+    Path document = Files.createTempFile("exam-import-", ".html");
+    try {
+      String hash = spool(in, document);
+      metrics.phase(source, canonicalCampus, "fetch", System.nanoTime() - fetchStarted);
+
+      // the digest itself was taken while spooling; what is left is the lookup
+      long lookupStarted = System.nanoTime();
+      String sourceKey = ImportSourceHashes.key(canonicalCampus, subject, course, term);
+      boolean unchanged = !force && hashes.unchanged(sourceKey, hash);
+      metrics.phase(source, canonicalCampus, "hash", System.nanoTime() - lookupStarted);
+      if (unchanged) {
+        log.info("Import source {} unchanged ({}), skipped", sourceKey, hash);
+        outcome = "unchanged";
+        return ImportSummary.unchangedSource();
       }
-    }
 
-    List<ParsedExam> samples = parsed.stream().limit(3).toList();
-    return new ImportSummary(inserted, updated, skipped, samples);
-  }
-
-  private Element findExamTable(Document doc) {
-    for (Element t : doc.select("table")) {
-      Elements ths = t.select("thead th, tr th");
-      String header = ths.text().toLowerCase(Locale.ROOT);
-      if (header.contains("course") && header.contains("section") &&
-          (header.contains("exam") || header.contains("date")) &&
-          (header.contains("time") || header.contains("start"))) {
-        return t;
+      // StreamParser needs a Reader that supports mark()
+      try (StreamParser streamer = new StreamParser(Parser.htmlParser()).parse(
+          new BufferedReader(new InputStreamReader(Files.newInputStream(document), StandardCharsets.UTF_8)), "")) {
+        ImportSummary summary = importFromStream(streamer, source, canonicalCampus, subject, course, term,
+            dryRun, progress);
+        if (!dryRun && summary != null) {
+          hashes.record(sourceKey, hash, summary.inserted() + summary.updated() + summary.skipped());
+        }
+        outcome = "done";
+        return (summary != null) ? summary : new ImportSummary(0, 0, 0, List.of());
       }
+    } finally {
+      Files.deleteIfExists(document);
+      metrics.finished(source, canonicalCampus, outcome, started);
     }
-    return null;
-  }
-
-  private List<ParsedExam> parseRows(Element table, String subjectFilter, String courseFilter, String term) {
-    Map<String, Integer> col = mapHeaderIndexes(table);
-
-    List<ParsedExam> out = new ArrayList<>();
-    for (Element tr : table.select("tbody tr")) {
-      Elements tds = tr.select("td");
-      if (tds.isEmpty()) continue;
-
-      String courseStr = textAt(tds, col, "course");
-      String section   = textAt(tds, col, "section");
-      String dateStr   = textAt(tds, col, "date");
-      String timeStr   = textAt(tds, col, "time");
-      String building  = textAt(tds, col, "building");
-      String room      = textAt(tds, col, "room");
-      String duration  = textAt(tds, col, "duration");
-
-      if (courseStr == null || section == null) continue;
-
-      String[] parts = courseStr.trim().split("\\s+");
-      String subject = parts.length > 0 ? parts[0] : "";
-      String course  = parts.length > 1 ? parts[1] : "";
-
-      if (subjectFilter != null && !subject.equalsIgnoreCase(subjectFilter)) continue;
-      if (courseFilter  != null && !course.equalsIgnoreCase(courseFilter))   continue;
-
-      log.info("DEBUG dateStr='{}' timeStr='{}'", dateStr, timeStr);
-      OffsetDateTime start = parseDateTimeVancouver(dateStr, timeStr, term);
-      log.info("DEBUG start='{}'", start);
-      Integer durMin = parseDuration(duration, timeStr);
-
-      out.add(new ParsedExam(subject, course, section, start, durMin, emptyToNull(building), emptyToNull(room)));
-    }
-    return out;
   }
 
-  private Map<String, Integer> mapHeaderIndexes(Element table) {
-    Map<String, Integer> map = new HashMap<>();
-    Elements headerCells = table.select("thead th");
-    if (headerCells.isEmpty()) {
-      Element firstRow = table.selectFirst("tr");
-      if (firstRow != null) headerCells = firstRow.select("th,td");
+  /** Copies {@code in} to {@code file} and returns its SHA-256. */
+  private static String spool(InputStream in, Path file) throws IOException {
+    MessageDigest digest = ImportSourceHashes.digest();
+    try (OutputStream out = new DigestOutputStream(Files.newOutputStream(file), digest)) {
+      in.transferTo(out);
     }
-    for (int i = 0; i < headerCells.size(); i++) {
-      String t = headerCells.get(i).text().toLowerCase(Locale.ROOT);
-      if (t.contains("course"))   map.put("course", i);
-      if (t.contains("section"))  map.put("section", i);
-      if (t.contains("date"))     map.put("date", i);
-      if (t.contains("exam"))     map.putIfAbsent("date", i);   // “Exam Date”
-      if (t.contains("time"))     map.put("time", i);
-      if (t.contains("building")) map.put("building", i);
-      if (t.contains("room"))     map.put("room", i);
-      if (t.contains("duration")) map.put("duration", i);
-    }
-    return map;
-  }
-
-  private String textAt(Elements tds, Map<String,Integer> col, String key) {
-    Integer idx = col.get(key);
-    if (idx == null || idx >= tds.size()) return null;
-    String s = tds.get(idx).text();
-    return s != null ? s.trim() : null;
+    return ImportSourceHashes.hex(digest.digest());
   }
 
-  private static String emptyToNull(String s) {
-    return (s == null || s.isBlank()) ? null : s;
-  }
-
-  private OffsetDateTime parseDateTimeVancouver(String dateStr, String timeStr, String term) {
-    if (dateStr == null || timeStr == null) return null;
-  
-    String d = normalizeWs(dateStr);
-    String t = normalizeWs(timeStr);
-  
-    // If time is a range like "9:00 AM - 12:00 PM", take the start
-    int dash = t.indexOf('-');
-    if (dash > 0) t = t.substring(0, dash).trim();
-  
-    // Extract date like "Dec 15, 2025" (month abbr, day, year)
-    java.util.regex.Matcher dm = DATE_RE.matcher(d);
-    if (!dm.find()) {
-      log.warn("DATE PARSE FAIL: '{}'", d);
-      return null;
+  /** Returns null if the document has no exam table. */
+  private ImportSummary importFromStream(
+      StreamParser streamer,
+      String source,
+      String campus,
+      String subject,
+      String course,
+      String term,
+      boolean dryRun,
+      ImportProgress progress
+  ) {
+    progress.phase("importing");
+    long started = System.nanoTime();
+    ExamBatchWriter.Session session = writer.open(ExamTerms.key(term), campus, dryRun);
+    List<ParsedExam> samples = new ArrayList<>(3);
+
+    boolean found;
+    try {
+      found = ExamHtmlParser.streamRows(streamer, subject, course, term, p -> {
+        progress.checkCancelled();
+        if (samples.size() < 3) samples.add(p);
+        session.accept(p);
+        progress.rows(1);
+      });
+      if (found) session.flush();
+    } catch (RuntimeException ex) {
+      // batches flushed before the failure (or cancellation) are committed; report how far it got
+      throw new PartialImportException(new ImportSummary(session.inserted(), session.updated(), session.skipped(),
+          samples, false, List.of(), ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName()), ex);
+    } finally {
+      // parsing is interleaved with the writer, so it is whatever time the session did not spend
+      long streamNanos = System.nanoTime() - started;
+      metrics.phase(source, campus, "parse", Math.max(0, streamNanos - session.diffNanos() - session.writeNanos()));
+      metrics.session(source, campus, session);
+      // earlier batches are committed even if this import stops part way
+      if (!dryRun && session.inserted() + session.updated() > 0) {
+        events.publishEvent(new ExamsChangedEvent("html"));
+      }
     }
-    String monAbbr = dm.group(1);
-    int day  = Integer.parseInt(dm.group(2));
-    int year = Integer.parseInt(dm.group(3));
-    int month = monthFromAbbr(monAbbr);
-  
-    // Extract time like "9:00 AM" or "15:30"
-    java.util.regex.Matcher tm = TIME_RE.matcher(t);
-    if (!tm.find()) {
-      log.warn("TIME PARSE FAIL: '{}'", t);
+    if (!found) {
       return null;
     }
-    int hour   = Integer.parseInt(tm.group(1));
-    int minute = Integer.parseInt(tm.group(2));
-    String ampm = tm.group(3); // may be null for 24h format
-  
-    if (ampm != null) {
-      if (ampm.equalsIgnoreCase("PM") && hour != 12) hour += 12;
-      if (ampm.equalsIgnoreCase("AM") && hour == 12) hour = 0;
-    }
-  
-    LocalDate date = LocalDate.of(year, month, day);
-    LocalTime time = LocalTime.of(hour, minute);
-    return ZonedDateTime.of(date, time, ZoneId.of("America/Vancouver")).toOffsetDateTime();
-  }
-  
-  // --- helpers and patterns ---
-  
-  private static final java.util.regex.Pattern DATE_RE =
-      java.util.regex.Pattern.compile("(?i)\\b(Jan|Feb|Mar|Apr|May|Jun|Jul|Aug|Sep|Oct|Nov|Dec)\\b\\s+(\\d{1,2}),\\s*(\\d{4})");
-  
-  private static final java.util.regex.Pattern TIME_RE =
-      java.util.regex.Pattern.compile("(\\d{1,2}):(\\d{2})\\s*(AM|PM|am|pm)?");
-  
-  // Replace NBSPs and narrow NBSPs, then trim
-  private static String normalizeWs(String s) {
-    return s.replace('\u00A0', ' ')
-            .replace('\u202F', ' ')
-            .trim();
-  }
-  
-  private static int monthFromAbbr(String abbr) {
-    String m = abbr.substring(0, 3).toLowerCase(Locale.ROOT);
-    return switch (m) {
-      case "jan" -> 1; case "feb" -> 2; case "mar" -> 3; case "apr" -> 4;
-      case "may" -> 5; case "jun" -> 6; case "jul" -> 7; case "aug" -> 8;
-      case "sep" -> 9; case "oct" -> 10; case "nov" -> 11; case "dec" -> 12;
-      default -> throw new IllegalArgumentException("Unknown month: " + abbr);
-    };
-  }
-
-  private Integer parseDuration(String durationCell, String timeCell) {
-    if (durationCell != null) {
-      String digits = durationCell.replaceAll("[^0-9]", "");
-      if (!digits.isEmpty()) return Integer.parseInt(digits);
-    }
-    return (timeCell != null) ? 120 : null;
-  }
 
-  private String normalizeCampus(String campus) {
-    if (campus == null || campus.isBlank()) return "V";
-    String c = campus.trim();
-    if (c.equalsIgnoreCase("Vancouver") || c.equalsIgnoreCase("V")) return "V";
-    return c;
+    // the snapshot and room index were rebuilt when ExamsChangedEvent was published above; a dry
+    // run or an import that changed nothing did not touch the served schedule, so it reports none
+    boolean changed = !dryRun && session.inserted() + session.updated() > 0;
+    return new ImportSummary(session.inserted(), session.updated(), session.skipped(), samples, false,
+        changed ? rooms.doubleBookings(readModel.snapshot(term), campus, subject, course, MAX_REPORTED_DOUBLE_BOOKINGS)
+            : List.of(), null);
   }
 }
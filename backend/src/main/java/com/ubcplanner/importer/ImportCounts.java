@@ -0,0 +1,16 @@
+package com.ubcplanner.importer;
+
+/**
+ * What every import summary reports, so a {@link PartialImportException} can carry either kind.
+ * {@code error} is why the import stopped, or null once it finished.
+ */
+public sealed interface ImportCounts permits ExamImportService.ImportSummary, ExamCsvImportService.CsvImportSummary {
+
+    int inserted();
+
+    int updated();
+
+    int skipped();
+
+    String error();
+}
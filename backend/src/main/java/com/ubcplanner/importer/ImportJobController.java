@@ -0,0 +1,148 @@
+package com.ubcplanner.importer;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Background variants of the {@link ExamImportController} endpoints. Each returns 202 with the job
+ * status right away; poll {@code GET /admin/import/jobs/{id}} and cancel with {@code DELETE}.
+ */
+@RestController
+@RequestMapping("/admin/import/jobs")
+@CrossOrigin
+public class ImportJobController {
+
+    private final ImportJobs jobs;
+    private final ExamImportService service;
+    private final ExamCsvImportService csvService;
+    private final ExamCrawlService crawlService;
+
+    public ImportJobController(ImportJobs jobs,
+                               ExamImportService service,
+                               ExamCsvImportService csvService,
+                               ExamCrawlService crawlService) {
+        this.jobs = jobs;
+        this.service = service;
+        this.csvService = csvService;
+        this.crawlService = crawlService;
+    }
+
+    // POST /admin/import/jobs/exams?source=live&subject=CPSC&dryRun=false
+    @PostMapping(path = "/exams", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportJobs.Status> importByQuery(
+            @RequestParam(required = false) String subject,
+            @RequestParam(required = false) String course,
+            @RequestParam(required = false) String term,
+            @RequestParam(defaultValue = "V") String campus,
+            @RequestParam(defaultValue = "true") boolean dryRun,
+            @RequestParam(defaultValue = "false") boolean force,
+            @RequestParam(defaultValue = "static") String source // static | live
+    ) {
+        return accepted(jobs.submit("html", progress -> service.importBySubjectCourseTerm(
+                subject, course, term, campus, dryRun, force, source, progress), () -> {}));
+    }
+
+    @PostMapping(path = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportJobs.Status> importFromUpload(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "V") String campus,
+            @RequestParam(required = false) String subject,
+            @RequestParam(required = false) String course,
+            @RequestParam(required = false) String term,
+            @RequestParam(defaultValue = "true") boolean dryRun,
+            @RequestParam(defaultValue = "false") boolean force
+    ) {
+        Path upload = keep(file);
+        return accepted(jobs.submit("upload", progress -> {
+            try (InputStream in = Files.newInputStream(upload)) {
+                return service.importFromUploadedHtml(in, campus, subject, course, term, dryRun, force, progress);
+            }
+        }, () -> delete(upload)));
+    }
+
+    @PostMapping(path = "/csv", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportJobs.Status> importFromCsv(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "V") String campus,
+            @RequestParam(defaultValue = "true") boolean dryRun
+    ) {
+        Path upload = keep(file);
+        return accepted(jobs.submit("csv", progress -> {
+            try (InputStream in = Files.newInputStream(upload)) {
+                return csvService.importFromCsv(in, campus, dryRun, progress);
+            }
+        }, () -> delete(upload)));
+    }
+
+    // POST /admin/import/jobs/crawl?subjects=CPSC,MATH&terms=2025W1&dryRun=false
+    @PostMapping(path = "/crawl", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportJobs.Status> crawl(
+            @RequestParam(defaultValue = "V") String campus,
+            @RequestParam(required = false) List<String> subjects,
+            @RequestParam(required = false) List<String> terms,
+            @RequestParam(defaultValue = "true") boolean dryRun,
+            @RequestParam(defaultValue = "false") boolean force
+    ) {
+        return accepted(jobs.submit("crawl", progress -> crawlService.crawl(
+                campus, subjects, terms, dryRun, force, progress), () -> {}));
+    }
+
+    // GET /admin/import/jobs -> recent jobs, newest first
+    @GetMapping
+    public List<ImportJobs.Status> list() {
+        return jobs.list();
+    }
+
+    // GET /admin/import/jobs/{id} -> phase, rows processed, rows per second, result once done
+    @GetMapping("/{id}")
+    public ImportJobs.Status status(@PathVariable String id) {
+        return jobs.status(id).orElseThrow(() -> notFound(id));
+    }
+
+    // DELETE /admin/import/jobs/{id} -> cancels; rows committed so far stay
+    @DeleteMapping("/{id}")
+    public ImportJobs.Status cancel(@PathVariable String id) {
+        return jobs.cancel(id).orElseThrow(() -> notFound(id));
+    }
+
+    private static ResponseEntity<ImportJobs.Status> accepted(ImportJobs.Status status) {
+        return ResponseEntity.accepted().location(URI.create("/admin/import/jobs/" + status.id())).body(status);
+    }
+
+    // The multipart temp file is gone once the request ends, so the job gets its own copy.
+    private static Path keep(MultipartFile file) {
+        try {
+            Path copy = Files.createTempFile("exam-import-", ".upload");
+            file.transferTo(copy);
+            return copy;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store upload for background import", e);
+        }
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // temp directory; cleaned up by the OS eventually
+        }
+    }
+
+    private static ResponseStatusException notFound(String id) {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "No import job " + id);
+    }
+}
@@ -0,0 +1,218 @@
+package com.ubcplanner.importer;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Imports run as background jobs on a small bounded pool, off the request threads.
+ *
+ * A job reports its phase and row count through {@link ImportProgress}. Cancelling sets a flag the
+ * importer checks between rows and interrupts the worker; whatever was committed before that
+ * stays, since every import commits in chunks. An importer that throws
+ * {@link PartialImportException} has its counts so far kept as the job's result. When the pool and its queue are full, new jobs are
+ * rejected with 503 rather than piling up. Finished jobs are kept in memory for inspection, up to
+ * {@code ubc.import.jobs.keep}.
+ */
+@Service
+public class ImportJobs {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportJobs.class);
+
+    public enum State { QUEUED, RUNNING, DONE, FAILED, CANCELLED }
+
+    public record Status(String id, String kind, State state, String phase,
+                         long rowsProcessed, double rowsPerSecond, long elapsedMs,
+                         OffsetDateTime submittedAt, OffsetDateTime startedAt, OffsetDateTime finishedAt,
+                         Object result, String error) {}
+
+    /** The import itself; runs on a job thread. */
+    @FunctionalInterface
+    public interface Work {
+        Object run(ImportProgress progress) throws Exception;
+    }
+
+    private final ThreadPoolExecutor pool;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Deque<String> order = new ConcurrentLinkedDeque<>();
+
+    @Value("${ubc.import.jobs.keep:100}")
+    private int keep;
+
+    public ImportJobs(@Value("${ubc.import.jobs.threads:2}") int threads,
+                      @Value("${ubc.import.jobs.queue:16}") int queue) {
+        AtomicInteger n = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queue), r -> {
+                    Thread t = new Thread(r, "import-job-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    /**
+     * Queues {@code work} and returns its status right away. {@code cleanup} runs once the job is
+     * over, whether it ran, failed, was cancelled or was never accepted.
+     */
+    public Status submit(String kind, Work work, Runnable cleanup) {
+        Job job = new Job(UUID.randomUUID().toString(), kind);
+        jobs.put(job.id, job);
+        order.addLast(job.id);
+        try {
+            job.future = pool.submit(() -> job.run(work, cleanup));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            order.remove(job.id);
+            cleanup.run();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Import queue is full, try again later");
+        }
+        prune();
+        return job.status();
+    }
+
+    public Optional<Status> status(String id) {
+        return Optional.ofNullable(jobs.get(id)).map(Job::status);
+    }
+
+    /** Newest first. */
+    public List<Status> list() {
+        List<Status> out = new ArrayList<>();
+        for (Iterator<String> it = order.descendingIterator(); it.hasNext(); ) {
+            Job job = jobs.get(it.next());
+            if (job != null) out.add(job.status());
+        }
+        return out;
+    }
+
+    public Optional<Status> cancel(String id) {
+        Job job = jobs.get(id);
+        if (job == null) return Optional.empty();
+        job.cancel();
+        return Optional.of(job.status());
+    }
+
+    private void prune() {
+        int excess = order.size() - keep;
+        for (Iterator<String> it = order.iterator(); excess > 0 && it.hasNext(); ) {
+            String id = it.next();
+            Job job = jobs.get(id);
+            if (job == null || job.finished()) {
+                it.remove();
+                jobs.remove(id);
+                excess--;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static final class Job implements ImportProgress {
+        final String id;
+        final String kind;
+        final OffsetDateTime submittedAt = OffsetDateTime.now(ZoneOffset.UTC);
+        final AtomicLong rows = new AtomicLong();
+        volatile Future<?> future;
+        volatile State state = State.QUEUED;
+        volatile String phase = "queued";
+        volatile boolean cancelled;
+        volatile long startNanos, endNanos;
+        volatile OffsetDateTime startedAt, finishedAt;
+        volatile Object result;
+        volatile String error;
+
+        Job(String id, String kind) {
+            this.id = id;
+            this.kind = kind;
+        }
+
+        void run(Work work, Runnable cleanup) {
+            try {
+                synchronized (this) {
+                    if (cancelled) return;
+                    state = State.RUNNING;
+                    phase = "starting";
+                    startedAt = OffsetDateTime.now(ZoneOffset.UTC);
+                    startNanos = System.nanoTime();
+                }
+                result = work.run(this);
+                finish(State.DONE, null);
+            } catch (CancellationException | InterruptedException e) {
+                finish(State.CANCELLED, null);
+            } catch (Exception e) {
+                // committed chunks stay, so report how far the import got
+                if (e instanceof PartialImportException partial) result = partial.partial();
+                if (cancelled) {
+                    finish(State.CANCELLED, null);
+                } else {
+                    log.error("Import job {} ({}) failed", id, kind, e);
+                    finish(State.FAILED, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+                }
+            } finally {
+                cleanup.run();
+            }
+        }
+
+        synchronized void cancel() {
+            if (finished()) return;
+            cancelled = true;
+            if (state == State.QUEUED) {
+                // finished here; when the pool reaches it, run() only does the cleanup
+                finish(State.CANCELLED, null);
+            } else {
+                Future<?> f = future;
+                if (f != null) f.cancel(true);
+            }
+        }
+
+        private synchronized void finish(State s, String err) {
+            if (finished()) return;
+            endNanos = System.nanoTime();
+            finishedAt = OffsetDateTime.now(ZoneOffset.UTC);
+            error = err;
+            phase = s.name().toLowerCase(Locale.ROOT);
+            state = s;
+        }
+
+        boolean finished() {
+            State s = state;
+            return s == State.DONE || s == State.FAILED || s == State.CANCELLED;
+        }
+
+        Status status() {
+            long elapsedNanos = (startedAt == null) ? 0 : (finished() ? endNanos : System.nanoTime()) - startNanos;
+            long n = rows.get();
+            double rate = elapsedNanos > 0 ? n * 1_000_000_000d / elapsedNanos : 0d;
+            return new Status(id, kind, state, phase, n, rate, elapsedNanos / 1_000_000,
+                    submittedAt, startedAt, finishedAt, result, error);
+        }
+
+        @Override
+        public void phase(String phase) {
+            this.phase = phase;
+        }
+
+        @Override
+        public void rows(long count) {
+            rows.addAndGet(count);
+        }
+
+        @Override
+        public void checkCancelled() {
+            if (cancelled || Thread.currentThread().isInterrupted()) throw new CancellationException("Import cancelled");
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.ubcplanner.importer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters shared by the importers, exported at {@code /actuator/prometheus}. Every meter is tagged
+ * with {@code source} (static, live, upload, csv, crawl) and the canonical {@code campus}.
+ *
+ * <ul>
+ *   <li>{@code exam.import.phase}: time per phase. The phases are fetch, hash, parse, diff and
+ *       write for HTML, and stage and merge for CSV.</li>
+ *   <li>{@code exam.import.duration}: whole imports by {@code outcome} (done, unchanged, failed).</li>
+ *   <li>{@code exam.import.rows}: rows by {@code result} (inserted, updated, skipped, rejected).
+ *       Its rate is the import throughput.</li>
+ * </ul>
+ */
+@Component
+public class ImportMetrics {
+
+    private final MeterRegistry registry;
+
+    public ImportMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void phase(String source, String campus, String phase, long nanos) {
+        Timer.builder("exam.import.phase")
+                .description("Time spent in one import phase")
+                .tags("source", source, "campus", campus, "phase", phase)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** Diff and write time and row counts of a finished {@link ExamBatchWriter.Session}. */
+    public void session(String source, String campus, ExamBatchWriter.Session session) {
+        phase(source, campus, "diff", session.diffNanos());
+        phase(source, campus, "write", session.writeNanos());
+        rows(source, campus, session.inserted(), session.updated(), session.skipped(), 0);
+    }
+
+    public void rows(String source, String campus, long inserted, long updated, long skipped, long rejected) {
+        count(source, campus, "inserted", inserted);
+        count(source, campus, "updated", updated);
+        count(source, campus, "skipped", skipped);
+        count(source, campus, "rejected", rejected);
+    }
+
+    public void finished(String source, String campus, String outcome, long startedNanos) {
+        Timer.builder("exam.import.duration")
+                .description("Whole import, from document in hand to last commit")
+                .tags("source", source, "campus", campus, "outcome", outcome)
+                .register(registry)
+                .record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void count(String source, String campus, String result, long n) {
+        if (n <= 0) return;
+        Counter.builder("exam.import.rows")
+                .description("Rows processed by imports")
+                .tags("source", source, "campus", campus, "result", result)
+                .register(registry)
+                .increment(n);
+    }
+}
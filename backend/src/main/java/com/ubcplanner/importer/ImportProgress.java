@@ -0,0 +1,26 @@
+package com.ubcplanner.importer;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Progress sink an importer reports to while it runs. Background jobs ({@link ImportJobs}) expose
+ * it through the status API and use {@link #checkCancelled()} to stop an import between rows.
+ */
+public interface ImportProgress {
+
+    /** For synchronous imports: records nothing and never cancels. */
+    ImportProgress NONE = new ImportProgress() {
+        @Override public void phase(String phase) {}
+        @Override public void rows(long count) {}
+        @Override public void checkCancelled() {}
+    };
+
+    /** Names the current step, e.g. "reading", "importing". */
+    void phase(String phase);
+
+    /** Adds {@code count} to the rows processed so far. */
+    void rows(long count);
+
+    /** Throws {@link CancellationException} once the import has been cancelled. */
+    void checkCancelled();
+}
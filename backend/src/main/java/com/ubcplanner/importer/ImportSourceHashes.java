@@ -0,0 +1,89 @@
+package com.ubcplanner.importer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * SHA-256 of the last document imported per source, so an unchanged document can be skipped
+ * before it is parsed.
+ *
+ * A source is the campus plus the filters the document was imported with; the same page read
+ * with different filters yields different rows, so it is a different source.
+ */
+@Component
+public class ImportSourceHashes {
+
+    private static final String SELECT = "select content_hash from import_source where source_key = ?";
+
+    private static final String SELECT_ALL = "select source_key, content_hash from import_source";
+
+    private static final String UPSERT = """
+            insert into import_source (source_key, content_hash, row_count, imported_at)
+            values (?, ?, ?, now())
+            on conflict (source_key) do update
+               set content_hash = excluded.content_hash,
+                   row_count    = excluded.row_count,
+                   imported_at  = excluded.imported_at
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    public ImportSourceHashes(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    static String key(String campus, String subject, String course, String term) {
+        return String.join("|", part(campus), part(subject), part(course), part(term));
+    }
+
+    static String hash(byte[] document) {
+        return hex(digest().digest(document));
+    }
+
+    /** A fresh digest of the kind {@link #hash} uses, for documents hashed as they stream past. */
+    static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String hex(byte[] digest) {
+        return HexFormat.of().formatHex(digest);
+    }
+
+    /** True if the last document recorded for {@code key} had this hash. */
+    public boolean unchanged(String key, String hash) {
+        return jdbc.query(SELECT, rs -> rs.next() && hash.equals(rs.getString(1)), key);
+    }
+
+    /** Every recorded hash, for callers that check many sources at once. */
+    public Map<String, String> all() {
+        Map<String, String> out = new HashMap<>();
+        jdbc.query(SELECT_ALL, rs -> {
+            out.put(rs.getString(1), rs.getString(2));
+        });
+        return out;
+    }
+
+    /**
+     * Records a finished import. Imports commit in batches, so call this only after the last batch
+     * has committed; an import that fails part way leaves the hash unrecorded, and the next run of
+     * the same document is not skipped and retries the rows that did not make it.
+     */
+    public void record(String key, String hash, int rows) {
+        jdbc.update(UPSERT, key, hash, rows);
+    }
+
+    private static String part(String s) {
+        return (s == null) ? "" : s.trim().toUpperCase(Locale.ROOT);
+    }
+}
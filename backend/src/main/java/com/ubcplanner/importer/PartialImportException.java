@@ -0,0 +1,22 @@
+package com.ubcplanner.importer;
+
+/**
+ * An import that stopped part way, after some of its batches or chunks may already have been
+ * committed. {@link #partial()} holds the counts up to that point, with {@code error} set;
+ * {@link ImportJobs} reports them as the job's result.
+ */
+public class PartialImportException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient ImportCounts partial;
+
+    public PartialImportException(ImportCounts partial, Throwable cause) {
+        super(cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName(), cause);
+        this.partial = partial;
+    }
+
+    public ImportCounts partial() {
+        return partial;
+    }
+}
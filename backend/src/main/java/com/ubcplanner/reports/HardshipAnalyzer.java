@@ -0,0 +1,173 @@
+package com.ubcplanner.reports;
+
+import com.ubcplanner.exams.ExamSnapshot;
+import com.ubcplanner.schedule.ConflictDetector;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Finds course combinations that cannot be scheduled cleanly whatever sections a student picks.
+ *
+ * Every exam row of a course counts as one section choice, so a course reduces to three numbers:
+ * its earliest start, latest start and earliest end. With those, "every choice overlaps" and
+ * "every choice starts within 24 hours" become O(1) checks per combination.
+ * <ul>
+ *   <li>{@code CONFLICT}: two courses on a campus whose sections all overlap each other.</li>
+ *   <li>{@code HARDSHIP}: three courses of one subject whose sections always start within 24 hours.</li>
+ * </ul>
+ * Courses are sorted once, so each one only scans forward through the courses that share its
+ * time bucket. The anchors are then split across a fork/join pool.
+ */
+final class HardshipAnalyzer {
+
+    private static final long WINDOW_SEC = ConflictDetector.HARDSHIP_WINDOW_SEC;
+    private static final int LEAF_ANCHORS = 32;
+
+    enum Kind { CONFLICT, HARDSHIP }
+
+    record CourseBounds(String campus, String subject, String course,
+                        int sittings, long minStart, long maxStart, long minEnd) {}
+
+    /** One reported combination; courses are in (subject, course) order. */
+    record Finding(Kind kind, String campus, List<CourseBounds> courses) {}
+
+    private interface AnchorScan {
+        void scan(CourseBounds[] c, int anchor, int groupEnd, List<Finding> out);
+    }
+
+    private final ForkJoinPool pool;
+
+    HardshipAnalyzer(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    static List<CourseBounds> bounds(ExamSnapshot snapshot) {
+        List<CourseBounds> out = new ArrayList<>(snapshot.courseKeys().size());
+        for (String key : snapshot.courseKeys()) {
+            int[] rows = snapshot.courseRows(key);
+            long minStart = Long.MAX_VALUE, maxStart = Long.MIN_VALUE, minEnd = Long.MAX_VALUE;
+            for (int r : rows) {
+                long start = snapshot.startEpochSec(r);
+                minStart = Math.min(minStart, start);
+                maxStart = Math.max(maxStart, start);
+                minEnd = Math.min(minEnd, start + snapshot.durationMin(r) * 60L);
+            }
+            String[] parts = key.split("\\|", 3);
+            out.add(new CourseBounds(parts[0], parts[1], parts[2], rows.length, minStart, maxStart, minEnd));
+        }
+        return out;
+    }
+
+    /** Number of anchors {@link #analyze} will report through {@code progress}. */
+    static long anchorCount(List<CourseBounds> courses) {
+        return 2L * courses.size();
+    }
+
+    List<Finding> analyze(List<CourseBounds> courses, AtomicLong progress) {
+        // Pairs: group by campus, order by latest start. A pair can only conflict if the later
+        // course's latest start is before the earlier course's earliest end.
+        CourseBounds[] byLatestStart = courses.toArray(new CourseBounds[0]);
+        Arrays.sort(byLatestStart, Comparator.comparing(CourseBounds::campus)
+                .thenComparingLong(CourseBounds::maxStart));
+        int[] campusEnd = groupEnds(byLatestStart, CourseBounds::campus);
+
+        // Triples: group by campus and subject, order by earliest start; one 24h bucket per anchor.
+        CourseBounds[] byEarliestStart = courses.toArray(new CourseBounds[0]);
+        Arrays.sort(byEarliestStart, Comparator.comparing(CourseBounds::campus)
+                .thenComparing(CourseBounds::subject)
+                .thenComparingLong(CourseBounds::minStart));
+        int[] subjectEnd = groupEnds(byEarliestStart, b -> b.campus() + '|' + b.subject());
+
+        List<Finding> out = new ArrayList<>(pool.invoke(
+                new Scan(HardshipAnalyzer::pairsFrom, byLatestStart, campusEnd, 0, byLatestStart.length, progress)));
+        out.addAll(pool.invoke(
+                new Scan(HardshipAnalyzer::triplesFrom, byEarliestStart, subjectEnd, 0, byEarliestStart.length, progress)));
+        return out;
+    }
+
+    private static void pairsFrom(CourseBounds[] c, int i, int end, List<Finding> out) {
+        CourseBounds a = c[i];
+        for (int j = i + 1; j < end && c[j].maxStart() < a.minEnd(); j++) {
+            if (a.maxStart() < c[j].minEnd()) {
+                out.add(finding(Kind.CONFLICT, a, c[j]));
+            }
+        }
+    }
+
+    private static void triplesFrom(CourseBounds[] c, int i, int end, List<Finding> out) {
+        CourseBounds a = c[i];
+        long limit = a.minStart() + WINDOW_SEC;
+        for (int j = i + 1; j < end && c[j].minStart() < limit; j++) {
+            for (int k = j + 1; k < end && c[k].minStart() < limit; k++) {
+                if (widestSpread(a, c[j], c[k]) < WINDOW_SEC) {
+                    out.add(finding(Kind.HARDSHIP, a, c[j], c[k]));
+                }
+            }
+        }
+    }
+
+    // Largest start-to-start gap over all section choices: one course's latest start against
+    // another course's earliest start.
+    private static long widestSpread(CourseBounds a, CourseBounds b, CourseBounds c) {
+        long spread = Math.max(a.maxStart() - b.minStart(), a.maxStart() - c.minStart());
+        spread = Math.max(spread, Math.max(b.maxStart() - a.minStart(), b.maxStart() - c.minStart()));
+        return Math.max(spread, Math.max(c.maxStart() - a.minStart(), c.maxStart() - b.minStart()));
+    }
+
+    private static Finding finding(Kind kind, CourseBounds... courses) {
+        CourseBounds[] sorted = courses.clone();
+        Arrays.sort(sorted, Comparator.comparing(CourseBounds::subject).thenComparing(CourseBounds::course));
+        return new Finding(kind, sorted[0].campus(), List.of(sorted));
+    }
+
+    private static int[] groupEnds(CourseBounds[] c, Function<CourseBounds, String> group) {
+        int[] ends = new int[c.length];
+        int end = c.length;
+        for (int i = c.length - 1; i >= 0; i--) {
+            if (i + 1 < c.length && !group.apply(c[i]).equals(group.apply(c[i + 1]))) end = i + 1;
+            ends[i] = end;
+        }
+        return ends;
+    }
+
+    /** Splits an anchor range in halves until it is small enough to scan directly. */
+    private static final class Scan extends RecursiveTask<List<Finding>> {
+        private static final long serialVersionUID = 1L;
+
+        private final AnchorScan scan;
+        private final CourseBounds[] courses;
+        private final int[] groupEnd;
+        private final int lo, hi;
+        private final AtomicLong progress;
+
+        Scan(AnchorScan scan, CourseBounds[] courses, int[] groupEnd, int lo, int hi, AtomicLong progress) {
+            this.scan = scan;
+            this.courses = courses;
+            this.groupEnd = groupEnd;
+            this.lo = lo;
+            this.hi = hi;
+            this.progress = progress;
+        }
+
+        @Override
+        protected List<Finding> compute() {
+            if (hi - lo <= LEAF_ANCHORS) {
+                List<Finding> out = new ArrayList<>();
+                for (int i = lo; i < hi; i++) scan.scan(courses, i, groupEnd[i], out);
+                progress.addAndGet(hi - lo);
+                return out;
+            }
+            int mid = (lo + hi) >>> 1;
+            Scan left = new Scan(scan, courses, groupEnd, lo, mid, progress);
+            left.fork();
+            List<Finding> right = new Scan(scan, courses, groupEnd, mid, hi, progress).compute();
+            List<Finding> out = left.join();
+            out.addAll(right);
+            return out;
+        }
+    }
+}
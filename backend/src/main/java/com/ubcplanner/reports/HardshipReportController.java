@@ -0,0 +1,57 @@
+package com.ubcplanner.reports;
+
+import com.ubcplanner.exams.ExamKeys;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/admin/reports/hardship")
+@CrossOrigin
+public class HardshipReportController {
+
+    private static final Set<String> KINDS = Set.of("CONFLICT", "HARDSHIP");
+    private static final int MAX_LIMIT = 5000;
+
+    private final HardshipReportService service;
+
+    public HardshipReportController(HardshipReportService service) {
+        this.service = service;
+    }
+
+    // POST /admin/reports/hardship -> starts a run (or queues one behind the current run)
+    @PostMapping
+    public ResponseEntity<HardshipReportService.Status> start() {
+        return ResponseEntity.accepted().body(service.start());
+    }
+
+    // GET /admin/reports/hardship/status -> state and progress of the latest run
+    @GetMapping("/status")
+    public HardshipReportService.Status status() {
+        return service.status();
+    }
+
+    // GET /admin/reports/hardship?campus=V&subject=CPSC&course=221&kind=CONFLICT
+    @GetMapping
+    public List<HardshipReportService.Entry> findings(@RequestParam(defaultValue = "V") String campus,
+                                                      @RequestParam(required = false) String subject,
+                                                      @RequestParam(required = false) String course,
+                                                      @RequestParam(required = false) String kind,
+                                                      @RequestParam(defaultValue = "500") int limit) {
+        String k = ExamKeys.key(kind);
+        if (k != null && !KINDS.contains(k)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "kind must be one of " + KINDS);
+        }
+        if (course != null && subject == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "course requires subject");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
+        return service.findings(ExamKeys.campus(campus), ExamKeys.key(subject), ExamKeys.key(course), k, limit);
+    }
+}
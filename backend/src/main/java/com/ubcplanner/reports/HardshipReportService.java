@@ -0,0 +1,248 @@
+package com.ubcplanner.reports;
+
+import com.ubcplanner.exams.ExamReadModel;
+import com.ubcplanner.exams.ExamSnapshot;
+import com.ubcplanner.exams.ExamSnapshotRebuiltEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs {@link HardshipAnalyzer} against the current exam snapshot and replaces the stored report.
+ *
+ * Runs start on demand, or once the snapshot has stopped changing: every rebuild (each import, but
+ * also each single-exam edit) pushes the automatic run back by {@code ubc.reports.hardship.debounceMs},
+ * so a burst of edits costs one run. Only one run is active at a time; requests that arrive
+ * meanwhile collapse into a single follow-up run.
+ */
+@Service
+public class HardshipReportService {
+
+    private static final Logger log = LoggerFactory.getLogger(HardshipReportService.class);
+
+    private static final int INSERT_BATCH = 1000;
+    private static final int KEEP_RUNS = 50;
+
+    private static final String INSERT_RUN = """
+            insert into exam_hardship_run
+              (snapshot_version, courses, conflicts, hardships, parallelism, started_at, finished_at)
+            values (?, ?, ?, ?, ?, ?, ?)
+            returning id
+            """;
+
+    private static final String INSERT_FINDING = """
+            insert into exam_hardship
+              (run_id, kind, campus, subject_a, course_a, subject_b, course_b, subject_c, course_c)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String PRUNE_RUNS = """
+            delete from exam_hardship_run
+            where id not in (select id from exam_hardship_run order by id desc limit ?)
+            """;
+
+    public enum State { IDLE, RUNNING, DONE, FAILED }
+
+    public record Status(State state, Long snapshotVersion, long anchorsDone, long anchorsTotal, double percent,
+                         OffsetDateTime startedAt, OffsetDateTime finishedAt,
+                         Integer conflicts, Integer hardships, String error) {}
+
+    public record Entry(String kind, String campus, List<String> courses) {}
+
+    // Immutable description of the latest run; progress is tracked separately while it runs.
+    private record Run(State state, Long snapshotVersion, long anchorsTotal,
+                       OffsetDateTime startedAt, OffsetDateTime finishedAt,
+                       Integer conflicts, Integer hardships, String error) {}
+
+    private final ExamReadModel readModel;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ForkJoinPool pool;
+    private final HardshipAnalyzer analyzer;
+    private final ScheduledExecutorService driver = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "hardship-report");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean rerun;
+    private final AtomicLong progress = new AtomicLong();
+    private volatile Run run = new Run(State.IDLE, null, 0, null, null, null, null, null);
+    private ScheduledFuture<?> pending; // guarded by this
+
+    @Value("${ubc.reports.hardship.auto:true}")
+    private boolean auto;
+
+    @Value("${ubc.reports.hardship.debounceMs:60000}")
+    private long debounceMs;
+
+    public HardshipReportService(ExamReadModel readModel,
+                                 JdbcTemplate jdbc,
+                                 TransactionTemplate tx,
+                                 @Value("${ubc.reports.hardship.parallelism:0}") int parallelism) {
+        this.readModel = readModel;
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.analyzer = new HardshipAnalyzer(pool);
+    }
+
+    @EventListener
+    public void onSnapshotRebuilt(ExamSnapshotRebuiltEvent event) {
+        // the report covers the current term; loading another term's snapshot changes nothing here
+        if (!auto || !event.current()) return;
+        synchronized (this) {
+            if (pending != null) pending.cancel(false);
+            pending = driver.schedule(this::start, debounceMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Starts a run, or schedules one follow-up run if one is already in progress. */
+    public Status start() {
+        if (running.compareAndSet(false, true)) {
+            driver.execute(this::runLoop);
+        } else {
+            rerun = true;
+        }
+        return status();
+    }
+
+    public Status status() {
+        Run r = run;
+        long done = (r.state() == State.RUNNING) ? progress.get() : r.anchorsTotal();
+        double percent = r.anchorsTotal() > 0 ? done * 100.0 / r.anchorsTotal() : (r.state() == State.DONE ? 100.0 : 0.0);
+        return new Status(r.state(), r.snapshotVersion(), done, r.anchorsTotal(), percent,
+                r.startedAt(), r.finishedAt(), r.conflicts(), r.hardships(), r.error());
+    }
+
+    /** Findings of the latest finished run, optionally narrowed to combinations containing a subject/course. */
+    public List<Entry> findings(String campus, String subject, String course, String kind, int limit) {
+        StringBuilder sql = new StringBuilder("""
+                select kind, campus, subject_a, course_a, subject_b, course_b, subject_c, course_c
+                from exam_hardship
+                where campus = ?
+                """);
+        List<Object> args = new ArrayList<>();
+        args.add(campus);
+        if (kind != null) {
+            sql.append(" and kind = ?");
+            args.add(kind);
+        }
+        if (subject != null) {
+            sql.append(" and (");
+            for (String pos : new String[] { "a", "b", "c" }) {
+                if (!"a".equals(pos)) sql.append(" or ");
+                sql.append("(subject_").append(pos).append(" = ?");
+                args.add(subject);
+                if (course != null) {
+                    sql.append(" and course_").append(pos).append(" = ?");
+                    args.add(course);
+                }
+                sql.append(')');
+            }
+            sql.append(')');
+        }
+        sql.append(" order by kind, subject_a, course_a, subject_b, course_b, subject_c, course_c limit ?");
+        args.add(limit);
+
+        return jdbc.query(sql.toString(), (rs, i) -> {
+            List<String> courses = new ArrayList<>(3);
+            courses.add(rs.getString("subject_a") + " " + rs.getString("course_a"));
+            courses.add(rs.getString("subject_b") + " " + rs.getString("course_b"));
+            if (rs.getString("subject_c") != null) {
+                courses.add(rs.getString("subject_c") + " " + rs.getString("course_c"));
+            }
+            return new Entry(rs.getString("kind"), rs.getString("campus"), courses);
+        }, args.toArray());
+    }
+
+    private void runLoop() {
+        try {
+            do {
+                rerun = false;
+                runOnce(readModel.snapshot());
+            } while (rerun);
+        } finally {
+            running.set(false);
+        }
+        // a request may have landed between the last check and releasing the flag
+        if (rerun && running.compareAndSet(false, true)) {
+            driver.execute(this::runLoop);
+        }
+    }
+
+    private void runOnce(ExamSnapshot snapshot) {
+        OffsetDateTime startedAt = OffsetDateTime.now(ZoneOffset.UTC);
+        try {
+            List<HardshipAnalyzer.CourseBounds> courses = HardshipAnalyzer.bounds(snapshot);
+            long total = HardshipAnalyzer.anchorCount(courses);
+            progress.set(0);
+            run = new Run(State.RUNNING, snapshot.version(), total, startedAt, null, null, null, null);
+
+            List<HardshipAnalyzer.Finding> findings = analyzer.analyze(courses, progress);
+            int conflicts = (int) findings.stream().filter(f -> f.kind() == HardshipAnalyzer.Kind.CONFLICT).count();
+            int hardships = findings.size() - conflicts;
+
+            OffsetDateTime finishedAt = OffsetDateTime.now(ZoneOffset.UTC);
+            persist(snapshot.version(), courses.size(), conflicts, hardships, findings, startedAt, finishedAt);
+            run = new Run(State.DONE, snapshot.version(), total, startedAt, finishedAt, conflicts, hardships, null);
+
+            log.info("Hardship report for snapshot v{}: {} courses, {} conflicts, {} hardships in {} ms on {} threads",
+                    snapshot.version(), courses.size(), conflicts, hardships,
+                    finishedAt.toInstant().toEpochMilli() - startedAt.toInstant().toEpochMilli(),
+                    pool.getParallelism());
+        } catch (RuntimeException ex) {
+            log.error("Hardship report for snapshot v{} failed", snapshot.version(), ex);
+            Run r = run;
+            run = new Run(State.FAILED, snapshot.version(), r.anchorsTotal(), startedAt,
+                    OffsetDateTime.now(ZoneOffset.UTC), null, null, ex.getMessage());
+        }
+    }
+
+    private void persist(long snapshotVersion, int courses, int conflicts, int hardships,
+                         List<HardshipAnalyzer.Finding> findings,
+                         OffsetDateTime startedAt, OffsetDateTime finishedAt) {
+        tx.executeWithoutResult(status -> {
+            jdbc.update("delete from exam_hardship");
+            Long runId = jdbc.queryForObject(INSERT_RUN, Long.class,
+                    snapshotVersion, courses, conflicts, hardships, pool.getParallelism(), startedAt, finishedAt);
+            jdbc.batchUpdate(INSERT_FINDING, findings, INSERT_BATCH, (ps, f) -> {
+                List<HardshipAnalyzer.CourseBounds> c = f.courses();
+                ps.setLong(1, runId);
+                ps.setString(2, f.kind().name());
+                ps.setString(3, f.campus());
+                ps.setString(4, c.get(0).subject());
+                ps.setString(5, c.get(0).course());
+                ps.setString(6, c.get(1).subject());
+                ps.setString(7, c.get(1).course());
+                ps.setString(8, c.size() > 2 ? c.get(2).subject() : null);
+                ps.setString(9, c.size() > 2 ? c.get(2).course() : null);
+            });
+            jdbc.update(PRUNE_RUNS, KEEP_RUNS);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        driver.shutdownNow();
+        pool.shutdownNow();
+    }
+}
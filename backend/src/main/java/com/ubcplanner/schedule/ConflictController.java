@@ -0,0 +1,80 @@
+package com.ubcplanner.schedule;
+
+import com.ubcplanner.exams.ExamKeys;
+import com.ubcplanner.exams.ExamReadModel;
+import com.ubcplanner.exams.ExamSnapshot;
+import com.ubcplanner.exams.ExamView;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+@RestController
+@RequestMapping("/api/exams")
+@CrossOrigin
+public class ConflictController {
+
+    private final ExamReadModel readModel;
+
+    public ConflictController(ExamReadModel readModel) {
+        this.readModel = readModel;
+    }
+
+    // POST /api/exams/conflicts  {"ids":[1,2], "sections":[{"subject":"CPSC","course":"221","section":"101"}]}
+    // ids and sections are looked up in one term: ?term=2025W1, or else the current one
+    @PostMapping("/conflicts")
+    public ConflictReport conflicts(@RequestBody ConflictRequest req,
+                                    @RequestParam(required = false) String term) {
+        ExamSnapshot snapshot = readModel.snapshot(term);
+        String campus = ExamKeys.campus(req.campus());
+
+        // row numbers are unique per exam, and ascending row order is start-time order
+        SortedSet<Integer> rows = new TreeSet<>();
+        List<Long> unknownIds = new ArrayList<>();
+        List<ConflictRequest.SectionRef> unknownSections = new ArrayList<>();
+
+        for (Long id : Objects.requireNonNullElse(req.ids(), List.<Long>of())) {
+            int row = (id == null) ? -1 : snapshot.rowOf(id);
+            if (row < 0) unknownIds.add(id);
+            else rows.add(row);
+        }
+        for (ConflictRequest.SectionRef ref : Objects.requireNonNullElse(req.sections(), List.<ConflictRequest.SectionRef>of())) {
+            // a course without a section would add every section as a separate choice, and
+            // sections of one course would then be reported as overlapping each other
+            if (ref == null || isBlank(ref.subject()) || isBlank(ref.course()) || isBlank(ref.section())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "sections need subject, course and section");
+            }
+            int[] matched = snapshot.rows(campus, ref.subject(), ref.course(), ref.section());
+            if (matched.length == 0) unknownSections.add(ref);
+            for (int r : matched) rows.add(r);
+        }
+
+        List<ExamView> exams = new ArrayList<>(rows.size());
+        List<ConflictDetector.Slot> slots = new ArrayList<>(rows.size());
+        for (int r : rows) {
+            ExamView e = snapshot.view(r);
+            exams.add(e);
+            slots.add(ConflictDetector.Slot.of(e));
+        }
+
+        ConflictDetector.Result result = ConflictDetector.detect(slots);
+        List<ConflictReport.HardshipWindow> hardships = result.hardships().stream()
+                .map(h -> new ConflictReport.HardshipWindow(h.examIds(), utc(h.windowStart()), utc(h.windowEnd())))
+                .toList();
+
+        return new ConflictReport(exams, result.overlaps(), result.backToBack(), hardships,
+                unknownIds, unknownSections);
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+
+    private static OffsetDateTime utc(long epochSec) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSec), ZoneOffset.UTC);
+    }
+}
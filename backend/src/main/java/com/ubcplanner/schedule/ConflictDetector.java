@@ -0,0 +1,101 @@
+package com.ubcplanner.schedule;
+
+import com.ubcplanner.exams.ExamView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Finds time overlaps, back-to-back exams and UBC exam hardships ("three or more exams within
+ * 24 hours") in one set of exams. Everything is a sweep over start times; nothing compares all pairs.
+ */
+public final class ConflictDetector {
+
+    public static final long HARDSHIP_WINDOW_SEC = 24 * 3600;
+    public static final long BACK_TO_BACK_GAP_SEC = 60 * 60;
+
+    private ConflictDetector() {}
+
+    /** One exam sitting, in epoch seconds. */
+    public record Slot(long examId, String subject, String course, String section, long start, long end) {
+        public static Slot of(ExamView e) {
+            long start = e.startTime().toEpochSecond();
+            int durationMin = (e.durationMin() != null) ? e.durationMin() : 120; // same fallback as ICS
+            return new Slot(e.id(), e.subject(), e.course(), e.section(), start, start + durationMin * 60L);
+        }
+    }
+
+    public record Overlap(long first, long second, long overlapMinutes) {}
+    public record BackToBack(long first, long second, long gapMinutes) {}
+    public record Hardship(List<Long> examIds, long windowStart, long windowEnd) {}
+
+    public record Result(List<Overlap> overlaps, List<BackToBack> backToBack, List<Hardship> hardships) {}
+
+    public static Result detect(List<Slot> input) {
+        Slot[] slots = input.toArray(new Slot[0]);
+        Arrays.sort(slots, Comparator.comparingLong(Slot::start).thenComparingLong(Slot::examId));
+        return new Result(overlaps(slots), backToBack(slots), hardships(slots));
+    }
+
+    // Sweep line: the heap holds exams still running at the current start, ordered by end time.
+    private static List<Overlap> overlaps(Slot[] slots) {
+        List<Overlap> out = new ArrayList<>();
+        PriorityQueue<Slot> active = new PriorityQueue<>(Comparator.comparingLong(Slot::end));
+        for (Slot s : slots) {
+            while (!active.isEmpty() && active.peek().end() <= s.start()) active.poll();
+            for (Slot a : active) {
+                long minutes = (Math.min(a.end(), s.end()) - s.start()) / 60;
+                out.add(new Overlap(a.examId(), s.examId(), minutes));
+            }
+            active.add(s);
+        }
+        return out;
+    }
+
+    // Exams starting within BACK_TO_BACK_GAP_SEC after another one ends (and not overlapping it).
+    private static List<BackToBack> backToBack(Slot[] slots) {
+        List<BackToBack> out = new ArrayList<>();
+        for (int i = 0; i < slots.length; i++) {
+            long end = slots[i].end();
+            int j = firstStartAtOrAfter(slots, end);
+            for (; j < slots.length && slots[j].start() - end <= BACK_TO_BACK_GAP_SEC; j++) {
+                out.add(new BackToBack(slots[i].examId(), slots[j].examId(), (slots[j].start() - end) / 60));
+            }
+        }
+        return out;
+    }
+
+    // Two pointers over start times; only maximal windows are reported.
+    private static List<Hardship> hardships(Slot[] slots) {
+        List<Hardship> out = new ArrayList<>();
+        int j = 0;
+        int lastEnd = -1;
+        for (int i = 0; i < slots.length; i++) {
+            if (j < i) j = i;
+            while (j + 1 < slots.length && slots[j + 1].start() - slots[i].start() < HARDSHIP_WINDOW_SEC) j++;
+            if (j - i + 1 >= 3 && j > lastEnd) {
+                List<Long> ids = new ArrayList<>(j - i + 1);
+                long windowEnd = 0;
+                for (int k = i; k <= j; k++) {
+                    ids.add(slots[k].examId());
+                    windowEnd = Math.max(windowEnd, slots[k].end());
+                }
+                out.add(new Hardship(ids, slots[i].start(), windowEnd));
+                lastEnd = j;
+            }
+        }
+        return out;
+    }
+
+    private static int firstStartAtOrAfter(Slot[] slots, long t) {
+        int lo = 0, hi = slots.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (slots[mid].start() < t) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,21 @@
+package com.ubcplanner.schedule;
+
+import com.ubcplanner.exams.ExamView;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Result of a conflict check: the exams that were resolved, direct overlaps, back-to-back pairs,
+ * hardship windows (three or more exams starting within 24 hours) and any inputs that matched nothing.
+ */
+public record ConflictReport(
+        List<ExamView> exams,
+        List<ConflictDetector.Overlap> overlaps,
+        List<ConflictDetector.BackToBack> backToBack,
+        List<HardshipWindow> hardships,
+        List<Long> unknownIds,
+        List<ConflictRequest.SectionRef> unknownSections
+) {
+    public record HardshipWindow(List<Long> examIds, OffsetDateTime from, OffsetDateTime to) {}
+}
@@ -0,0 +1,16 @@
+package com.ubcplanner.schedule;
+
+import java.util.List;
+
+/**
+ * Body for POST /api/exams/conflicts. Exams can be named by id, by (subject, course, section),
+ * or both; `campus` defaults to "V". A section ref must name the section, since each one is a
+ * single choice.
+ */
+public record ConflictRequest(
+        String campus,
+        List<Long> ids,
+        List<SectionRef> sections
+) {
+    public record SectionRef(String subject, String course, String section) {}
+}
@@ -0,0 +1,12 @@
+package com.ubcplanner.schedule;
+
+import java.util.List;
+
+/** Body for POST /api/schedules/optimize: the courses to combine and how many combinations to return. */
+public record OptimizeRequest(
+        String campus,
+        List<CourseRef> courses,
+        Integer topK
+) {
+    public record CourseRef(String subject, String course) {}
+}
@@ -0,0 +1,24 @@
+package com.ubcplanner.schedule;
+
+import com.ubcplanner.exams.ExamView;
+
+import java.util.List;
+
+/**
+ * Best section combinations first. {@code complete} is false when the latency budget ran out
+ * before the search space was exhausted; the combinations are then the best found so far.
+ */
+public record OptimizeResponse(
+        List<Combination> combinations,
+        List<OptimizeRequest.CourseRef> unknownCourses,
+        long explored,
+        boolean complete,
+        long elapsedMs
+) {
+    /** {@code minGapMinutes} is null when only one course was requested. */
+    public record Combination(List<Pick> picks, int conflicts, int hardships, Long minGapMinutes) {}
+
+    /** The chosen section, other sections with exactly the same exam times, and its exams. */
+    public record Pick(String subject, String course, String section,
+                       List<String> sameTimeSections, List<ExamView> exams) {}
+}
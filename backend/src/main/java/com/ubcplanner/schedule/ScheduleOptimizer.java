@@ -0,0 +1,295 @@
+package com.ubcplanner.schedule;
+
+import java.util.*;
+
+/**
+ * Branch-and-bound search over section combinations.
+ *
+ * Every section option gets a global index. "Overlaps with" and "starts within 24 hours of" are
+ * precomputed as one bitset per option, so extending a partial schedule costs a few AND/popcount
+ * operations over the options already picked. Combinations are ranked by direct conflicts, then
+ * hardship triples (three exams starting within 24 hours), then by the smallest gap between two
+ * exam starts (larger is better). All three only get worse as sections are added. For every
+ * option of a course still open, the search tracks the conflicts and gap it would add, so a
+ * partial schedule that cannot beat the current k-th best is cut off with its whole subtree and
+ * the next course branched on is the one with the fewest options left.
+ */
+public final class ScheduleOptimizer {
+
+    private static final long HARDSHIP_WINDOW_SEC = ConflictDetector.HARDSHIP_WINDOW_SEC;
+    private static final int DEADLINE_CHECK_MASK = 1023;
+
+    private ScheduleOptimizer() {}
+
+    /**
+     * One way to sit a course: the sections that share exactly these exam times, and the times
+     * themselves (epoch seconds, ordered by start).
+     */
+    public record Option(List<String> sections, long[] starts, long[] ends) {}
+
+    /** A complete combination; {@code picks[c]} indexes into the options of course {@code c}. */
+    public record Ranked(int[] picks, int conflicts, int hardships, long minGapSec) {}
+
+    public record Outcome(List<Ranked> ranked, long nodes, boolean complete) {}
+
+    public static Outcome search(List<List<Option>> courses, int topK, long budgetNanos) {
+        return new Search(courses, topK, System.nanoTime() + budgetNanos).run();
+    }
+
+    private static final class Search {
+        private final int courseCount;
+        private final int[] courseOf;       // global option -> course
+        private final int[] localIndex;     // global option -> index within its course
+        private final int[][] optionsOf;    // course -> global options
+        private final long[][] conflicts;   // global option -> bitset of overlapping options
+        private final long[][] near;        // global option -> bitset of options starting within 24h
+        private final long[][] gap;         // smallest start-to-start gap between two options
+        private final int words;
+
+        private final int topK;
+        private final long deadline;
+        private final PriorityQueue<Ranked> best; // worst of the kept combinations at the head
+
+        private final long[] chosen;
+        private final int[] stack;
+        private final boolean[] open;
+        private final long[][] scratch;
+        private final long[][] gapTo;       // depth -> option -> smallest gap to the options picked so far
+        private final int[][] conflictsTo;  // depth -> option -> conflicts with the options picked so far
+        private final int[][] candidates;   // depth -> options still worth trying at that depth
+        private final int[] fewest;         // course -> fewest conflicts any of its options would add
+        private long nodes;
+        private boolean timedOut;
+
+        Search(List<List<Option>> courses, int topK, long deadline) {
+            this.courseCount = courses.size();
+            this.topK = topK;
+            this.deadline = deadline;
+            this.best = new PriorityQueue<>(Search::compareRanked);
+
+            List<Option> all = new ArrayList<>();
+            this.optionsOf = new int[courseCount][];
+            int maxOptions = 0;
+            for (int c = 0; c < courseCount; c++) {
+                List<Option> opts = courses.get(c);
+                optionsOf[c] = new int[opts.size()];
+                for (int i = 0; i < opts.size(); i++) {
+                    optionsOf[c][i] = all.size();
+                    all.add(opts.get(i));
+                }
+                maxOptions = Math.max(maxOptions, opts.size());
+            }
+            int n = all.size();
+            this.words = Math.max(1, (n + 63) >>> 6);
+            this.courseOf = new int[n];
+            this.localIndex = new int[n];
+            for (int c = 0; c < courseCount; c++) {
+                for (int i = 0; i < optionsOf[c].length; i++) {
+                    courseOf[optionsOf[c][i]] = c;
+                    localIndex[optionsOf[c][i]] = i;
+                }
+            }
+
+            this.conflicts = new long[n][words];
+            this.near = new long[n][words];
+            this.gap = new long[n][n];
+            for (long[] row : gap) Arrays.fill(row, Long.MAX_VALUE);
+            for (int a = 0; a < n; a++) {
+                for (int b = a + 1; b < n; b++) {
+                    if (courseOf[a] == courseOf[b]) continue;
+                    Option x = all.get(a), y = all.get(b);
+                    long g = Long.MAX_VALUE;
+                    boolean overlap = false;
+                    for (int i = 0; i < x.starts().length; i++) {
+                        for (int j = 0; j < y.starts().length; j++) {
+                            g = Math.min(g, Math.abs(x.starts()[i] - y.starts()[j]));
+                            overlap |= x.starts()[i] < y.ends()[j] && y.starts()[j] < x.ends()[i];
+                        }
+                    }
+                    gap[a][b] = gap[b][a] = g;
+                    if (overlap) {
+                        set(conflicts[a], b);
+                        set(conflicts[b], a);
+                    }
+                    if (g < HARDSHIP_WINDOW_SEC) {
+                        set(near[a], b);
+                        set(near[b], a);
+                    }
+                }
+            }
+
+            this.chosen = new long[words];
+            this.stack = new int[courseCount];
+            this.open = new boolean[courseCount];
+            Arrays.fill(open, true);
+            this.scratch = new long[courseCount][words];
+            this.gapTo = new long[courseCount + 1][n];
+            this.conflictsTo = new int[courseCount + 1][n];
+            this.candidates = new int[courseCount][maxOptions];
+            this.fewest = new int[courseCount];
+            Arrays.fill(gapTo[0], Long.MAX_VALUE);
+        }
+
+        Outcome run() {
+            if (courseCount > 0) dfs(0, 0, 0, Long.MAX_VALUE);
+            List<Ranked> ranked = new ArrayList<>(best);
+            ranked.sort(Search::compareRanked);
+            Collections.reverse(ranked); // best first
+            return new Outcome(ranked, nodes, !timedOut);
+        }
+
+        private void dfs(int depth, int conflictCount, int hardshipCount, long minGap) {
+            if ((++nodes & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() > deadline) timedOut = true;
+            if (timedOut) return;
+
+            if (depth == courseCount) {
+                if (best.size() == topK && compare(conflictCount, hardshipCount, minGap, best.peek()) >= 0) return;
+                int[] picks = new int[courseCount];
+                for (int d = 0; d < depth; d++) picks[courseOf[stack[d]]] = localIndex[stack[d]];
+                best.add(new Ranked(picks, conflictCount, hardshipCount, minGap));
+                if (best.size() > topK) best.poll();
+                return;
+            }
+
+            int count = branch(depth, conflictCount, hardshipCount, minGap);
+            if (count == 0) return;
+            int[] next = candidates[depth];
+            int course = courseOf[next[0]];
+            long[] gaps = gapTo[depth];
+            int[] clashes = conflictsTo[depth];
+
+            open[course] = false;
+            for (int k = 0; k < count; k++) {
+                int x = next[k];
+                int c = conflictCount + clashes[x];
+                int h = hardshipCount + triplesWith(x, scratch[depth]);
+                long g = Math.min(minGap, gaps[x]);
+
+                long[] nextGaps = gapTo[depth + 1];
+                int[] nextClashes = conflictsTo[depth + 1];
+                for (int o = 0; o < nextGaps.length; o++) {
+                    nextGaps[o] = Math.min(gaps[o], gap[o][x]);
+                    nextClashes[o] = clashes[o] + (get(conflicts[x], o) ? 1 : 0);
+                }
+
+                stack[depth] = x;
+                set(chosen, x);
+                dfs(depth + 1, c, h, g);
+                clear(chosen, x);
+                if (timedOut) break;
+            }
+            open[course] = true;
+        }
+
+        /**
+         * Picks the open course to branch on and fills {@code candidates[depth]} with its options
+         * that can still beat the k-th best, best first. Returns how many there are; 0 prunes.
+         *
+         * The bound is optimistic: every open course adds at least its cheapest option's conflicts,
+         * and the final gap is no wider than the widest gap the most constrained course allows.
+         */
+        private int branch(int depth, int conflictCount, int hardshipCount, long minGap) {
+            long[] gaps = gapTo[depth];
+            int[] clashes = conflictsTo[depth];
+            boolean full = best.size() == topK;
+            Ranked worst = best.peek();
+
+            int extra = 0;
+            long widestOverall = minGap;
+            for (int r = 0; r < courseCount; r++) {
+                if (!open[r]) continue;
+                int f = Integer.MAX_VALUE;
+                long widest = Long.MIN_VALUE;
+                for (int o : optionsOf[r]) {
+                    f = Math.min(f, clashes[o]);
+                    widest = Math.max(widest, gaps[o]);
+                }
+                fewest[r] = f;
+                extra += f;
+                widestOverall = Math.min(widestOverall, widest);
+            }
+            if (full && compare(conflictCount + extra, hardshipCount, widestOverall, worst) >= 0) return 0;
+
+            // Fail first: branch on the open course with the fewest options that still fit.
+            int[] out = candidates[depth];
+            int bestCourse = -1, bestCount = Integer.MAX_VALUE;
+            for (int r = 0; r < courseCount; r++) {
+                if (!open[r]) continue;
+                int viable = 0;
+                for (int o : optionsOf[r]) {
+                    if (!full || compare(conflictCount + extra - fewest[r] + clashes[o], hardshipCount,
+                            Math.min(minGap, gaps[o]), worst) < 0) {
+                        viable++;
+                    }
+                }
+                if (viable == 0) return 0;
+                if (viable < bestCount) {
+                    bestCount = viable;
+                    bestCourse = r;
+                }
+            }
+
+            int n = 0;
+            for (int o : optionsOf[bestCourse]) {
+                if (!full || compare(conflictCount + extra - fewest[bestCourse] + clashes[o], hardshipCount,
+                        Math.min(minGap, gaps[o]), worst) < 0) {
+                    out[n++] = o;
+                }
+            }
+            sortCandidates(out, n, clashes, gaps);
+            return n;
+        }
+
+        // Insertion sort (a course has a handful of options): fewest conflicts, then widest gap.
+        private static void sortCandidates(int[] opts, int n, int[] clashes, long[] gaps) {
+            for (int i = 1; i < n; i++) {
+                int v = opts[i];
+                int j = i - 1;
+                while (j >= 0 && (clashes[opts[j]] > clashes[v]
+                        || (clashes[opts[j]] == clashes[v] && gaps[opts[j]] < gaps[v]))) {
+                    opts[j + 1] = opts[j];
+                    j--;
+                }
+                opts[j + 1] = v;
+            }
+        }
+
+        // New hardship triples formed by adding x: pairs of already-picked options that are both
+        // within 24h of x and of each other.
+        private int triplesWith(int x, long[] within) {
+            int count = 0;
+            for (int w = 0; w < words; w++) within[w] = near[x][w] & chosen[w];
+            for (int w = 0; w < words; w++) {
+                long bits = within[w];
+                while (bits != 0) {
+                    int y = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    count += popcountAnd(near[y], within);
+                }
+            }
+            return count / 2;
+        }
+
+        // Orders combinations worst first: more conflicts, more hardships, tighter spacing.
+        private static int compareRanked(Ranked a, Ranked b) {
+            return -compare(a.conflicts(), a.hardships(), a.minGapSec(), b);
+        }
+
+        // < 0 when (c, h, g) ranks better than r.
+        private static int compare(int c, int h, long g, Ranked r) {
+            if (c != r.conflicts()) return Integer.compare(c, r.conflicts());
+            if (h != r.hardships()) return Integer.compare(h, r.hardships());
+            return Long.compare(r.minGapSec(), g);
+        }
+
+        private int popcountAnd(long[] a, long[] b) {
+            int n = 0;
+            for (int w = 0; w < words; w++) n += Long.bitCount(a[w] & b[w]);
+            return n;
+        }
+
+        private static boolean get(long[] bits, int i) { return (bits[i >>> 6] & (1L << (i & 63))) != 0; }
+        private static void set(long[] bits, int i)   { bits[i >>> 6] |= 1L << (i & 63); }
+        private static void clear(long[] bits, int i) { bits[i >>> 6] &= ~(1L << (i & 63)); }
+    }
+}
@@ -0,0 +1,126 @@
+package com.ubcplanner.schedule;
+
+import com.ubcplanner.exams.ExamKeys;
+import com.ubcplanner.exams.ExamReadModel;
+import com.ubcplanner.exams.ExamSnapshot;
+import com.ubcplanner.exams.ExamView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.*;
+
+@RestController
+@RequestMapping("/api/schedules")
+@CrossOrigin
+public class ScheduleOptimizerController {
+
+    private static final int MAX_COURSES = 12;
+    private static final int MAX_TOP_K = 20;
+
+    private final ExamReadModel readModel;
+
+    @Value("${ubc.schedule.optimize.budgetMs:40}")
+    private long budgetMs;
+
+    public ScheduleOptimizerController(ExamReadModel readModel) {
+        this.readModel = readModel;
+    }
+
+    // Sections of one course that sit exactly the same exams, merged into one search option
+    private record SectionGroup(List<String> sections, List<ExamView> exams) {}
+
+    // POST /api/schedules/optimize  {"courses":[{"subject":"CPSC","course":"221"}, ...], "topK":5}
+    // courses are looked up in one term: ?term=2025W1, or else the current one
+    @PostMapping("/optimize")
+    public OptimizeResponse optimize(@RequestBody OptimizeRequest req,
+                                     @RequestParam(required = false) String term) {
+        long started = System.nanoTime();
+        List<OptimizeRequest.CourseRef> refs = Objects.requireNonNullElse(req.courses(), List.of());
+        if (refs.isEmpty() || refs.size() > MAX_COURSES) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "courses must list 1 to " + MAX_COURSES + " courses");
+        }
+        int topK = Objects.requireNonNullElse(req.topK(), 5);
+        if (topK < 1 || topK > MAX_TOP_K) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "topK must be between 1 and " + MAX_TOP_K);
+        }
+
+        ExamSnapshot snapshot = readModel.snapshot(term);
+        String campus = ExamKeys.campus(req.campus());
+
+        List<OptimizeRequest.CourseRef> known = new ArrayList<>();
+        List<OptimizeRequest.CourseRef> unknown = new ArrayList<>();
+        List<List<SectionGroup>> groups = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (OptimizeRequest.CourseRef ref : refs) {
+            if (ref == null || ref.subject() == null || ref.subject().isBlank()
+                    || ref.course() == null || ref.course().isBlank()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "courses need subject and course");
+            }
+            String subject = ExamKeys.key(ref.subject());
+            String course = ExamKeys.key(ref.course());
+            if (!seen.add(subject + '|' + course)) continue;
+
+            List<SectionGroup> g = sectionGroups(snapshot, snapshot.rows(campus, subject, course, null));
+            if (g.isEmpty()) {
+                unknown.add(ref);
+            } else {
+                known.add(new OptimizeRequest.CourseRef(subject, course));
+                groups.add(g);
+            }
+        }
+
+        List<List<ScheduleOptimizer.Option>> options = groups.stream()
+                .map(g -> g.stream().map(ScheduleOptimizerController::option).toList())
+                .toList();
+        ScheduleOptimizer.Outcome outcome = ScheduleOptimizer.search(options, topK, budgetMs * 1_000_000L);
+
+        List<OptimizeResponse.Combination> combinations = new ArrayList<>(outcome.ranked().size());
+        for (ScheduleOptimizer.Ranked ranked : outcome.ranked()) {
+            List<OptimizeResponse.Pick> picks = new ArrayList<>(known.size());
+            for (int c = 0; c < known.size(); c++) {
+                SectionGroup chosen = groups.get(c).get(ranked.picks()[c]);
+                picks.add(new OptimizeResponse.Pick(known.get(c).subject(), known.get(c).course(),
+                        chosen.sections().get(0), chosen.sections().subList(1, chosen.sections().size()),
+                        chosen.exams()));
+            }
+            Long minGap = (ranked.minGapSec() == Long.MAX_VALUE) ? null : ranked.minGapSec() / 60;
+            combinations.add(new OptimizeResponse.Combination(picks, ranked.conflicts(), ranked.hardships(), minGap));
+        }
+
+        return new OptimizeResponse(combinations, unknown, outcome.nodes(), outcome.complete(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // Rows come in (startTime, id) order, so each section's exam list is already ordered.
+    private static List<SectionGroup> sectionGroups(ExamSnapshot snapshot, int[] rows) {
+        Map<String, List<ExamView>> bySection = new TreeMap<>();
+        for (int r : rows) {
+            ExamView e = snapshot.view(r);
+            bySection.computeIfAbsent(e.section(), k -> new ArrayList<>()).add(e);
+        }
+        Map<List<Long>, SectionGroup> byTimes = new LinkedHashMap<>();
+        bySection.forEach((section, exams) -> {
+            List<Long> times = new ArrayList<>(exams.size() * 2);
+            for (ExamView e : exams) {
+                ConflictDetector.Slot slot = ConflictDetector.Slot.of(e);
+                times.add(slot.start());
+                times.add(slot.end());
+            }
+            byTimes.computeIfAbsent(times, k -> new SectionGroup(new ArrayList<>(), exams)).sections().add(section);
+        });
+        return List.copyOf(byTimes.values());
+    }
+
+    private static ScheduleOptimizer.Option option(SectionGroup g) {
+        List<ExamView> exams = g.exams();
+        long[] starts = new long[exams.size()], ends = new long[exams.size()];
+        for (int i = 0; i < exams.size(); i++) {
+            ConflictDetector.Slot slot = ConflictDetector.Slot.of(exams.get(i));
+            starts[i] = slot.start();
+            ends[i] = slot.end();
+        }
+        return new ScheduleOptimizer.Option(g.sections(), starts, ends);
+    }
+}
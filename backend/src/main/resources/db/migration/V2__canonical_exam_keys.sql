@@ -0,0 +1,44 @@
+-- Canonical keys: campus, subject, course and section are stored trimmed and upper-cased,
+-- so finders can use plain equality and be served by the btree indexes below.
+
+-- Rows that only differed by case or surrounding whitespace collapse to the newest one.
+DELETE FROM exam a
+USING exam b
+WHERE a.id < b.id
+  AND upper(trim(a.campus))  = upper(trim(b.campus))
+  AND upper(trim(a.subject)) = upper(trim(b.subject))
+  AND upper(trim(a.course))  = upper(trim(b.course))
+  AND upper(trim(a.section)) = upper(trim(b.section))
+  AND a.start_time = b.start_time;
+
+UPDATE exam
+   SET campus  = upper(trim(campus)),
+       subject = upper(trim(subject)),
+       course  = upper(trim(course)),
+       section = upper(trim(section))
+ WHERE campus  <> upper(trim(campus))
+    OR subject <> upper(trim(subject))
+    OR course  <> upper(trim(course))
+    OR section <> upper(trim(section));
+
+ALTER TABLE exam
+  ADD CONSTRAINT ck_exam_canonical_keys CHECK (
+        campus  = upper(trim(campus))
+    AND subject = upper(trim(subject))
+    AND course  = upper(trim(course))
+    AND section = upper(trim(section))
+  );
+
+-- Superseded by the campus-leading indexes (every finder filters on campus first).
+DROP INDEX IF EXISTS idx_exam_subject_course_start;
+
+-- uk_exam_unique (campus, subject, course, section, start_time) already serves the
+-- upsert lookup and the section-level finders.
+CREATE INDEX IF NOT EXISTS idx_exam_campus_start
+  ON exam(campus, start_time);
+
+CREATE INDEX IF NOT EXISTS idx_exam_campus_subject_start
+  ON exam(campus, subject, start_time);
+
+CREATE INDEX IF NOT EXISTS idx_exam_campus_subject_course_start
+  ON exam(campus, subject, course, start_time);
@@ -0,0 +1,27 @@
+-- Row version for cache keys and ETags. Bumped by trigger on any real change, so every
+-- writer (JPA, batch upserts, COPY merges) is covered without having to remember it.
+ALTER TABLE exam
+  ADD COLUMN IF NOT EXISTS version    BIGINT      NOT NULL DEFAULT 0,
+  ADD COLUMN IF NOT EXISTS updated_at TIMESTAMPTZ NOT NULL DEFAULT now();
+
+CREATE OR REPLACE FUNCTION exam_touch_version() RETURNS trigger AS $$
+BEGIN
+  IF ROW(NEW.campus, NEW.subject, NEW.course, NEW.section, NEW.start_time,
+         NEW.duration_min, NEW.building, NEW.room)
+     IS DISTINCT FROM
+     ROW(OLD.campus, OLD.subject, OLD.course, OLD.section, OLD.start_time,
+         OLD.duration_min, OLD.building, OLD.room) THEN
+    NEW.version    := OLD.version + 1;
+    NEW.updated_at := now();
+  ELSE
+    NEW.version    := OLD.version;
+    NEW.updated_at := OLD.updated_at;
+  END IF;
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_exam_touch_version ON exam;
+CREATE TRIGGER trg_exam_touch_version
+  BEFORE UPDATE ON exam
+  FOR EACH ROW EXECUTE FUNCTION exam_touch_version();
@@ -0,0 +1,36 @@
+-- Campus-wide hardship report. Each run replaces the findings; the run table keeps a short history.
+CREATE TABLE IF NOT EXISTS exam_hardship_run (
+  id               BIGSERIAL PRIMARY KEY,
+  snapshot_version BIGINT      NOT NULL,
+  courses          INTEGER     NOT NULL,
+  conflicts        INTEGER     NOT NULL,
+  hardships        INTEGER     NOT NULL,
+  parallelism      INTEGER     NOT NULL,
+  started_at       TIMESTAMPTZ NOT NULL,
+  finished_at      TIMESTAMPTZ NOT NULL
+);
+
+-- CONFLICT rows name two courses, HARDSHIP rows three; courses are stored in (subject, course) order.
+CREATE TABLE IF NOT EXISTS exam_hardship (
+  id        BIGSERIAL PRIMARY KEY,
+  run_id    BIGINT      NOT NULL REFERENCES exam_hardship_run(id) ON DELETE CASCADE,
+  kind      VARCHAR(16) NOT NULL,
+  campus    VARCHAR(1)  NOT NULL,
+  subject_a VARCHAR(32) NOT NULL,
+  course_a  VARCHAR(32) NOT NULL,
+  subject_b VARCHAR(32) NOT NULL,
+  course_b  VARCHAR(32) NOT NULL,
+  subject_c VARCHAR(32),
+  course_c  VARCHAR(32),
+
+  CONSTRAINT ck_exam_hardship_kind CHECK (
+        (kind = 'CONFLICT' AND subject_c IS NULL AND course_c IS NULL)
+     OR (kind = 'HARDSHIP' AND subject_c IS NOT NULL AND course_c IS NOT NULL)
+  )
+);
+
+-- "Which combinations involve CPSC (221)?" is an OR across the three positions.
+CREATE INDEX IF NOT EXISTS idx_exam_hardship_a ON exam_hardship(campus, subject_a, course_a);
+CREATE INDEX IF NOT EXISTS idx_exam_hardship_b ON exam_hardship(campus, subject_b, course_b);
+CREATE INDEX IF NOT EXISTS idx_exam_hardship_c ON exam_hardship(campus, subject_c, course_c);
+CREATE INDEX IF NOT EXISTS idx_exam_hardship_run ON exam_hardship(run_id);
@@ -0,0 +1,93 @@
+-- Append-only change log behind GET /api/exams/changes?since=N.
+-- Filled by statement-level triggers, so every writer (JPA, batch upserts, COPY merges,
+-- manual SQL) is captured and bulk statements log all their rows in one INSERT.
+CREATE TABLE IF NOT EXISTS exam_change (
+  seq          BIGSERIAL   PRIMARY KEY,
+  exam_id      BIGINT      NOT NULL,
+  op           CHAR(1)     NOT NULL,     -- 'I' insert, 'U' update, 'D' delete
+  campus       VARCHAR(1),               -- row image after the change; NULL for deletes
+  subject      VARCHAR(32),
+  course       VARCHAR(32),
+  section      VARCHAR(32),
+  start_time   TIMESTAMPTZ,
+  duration_min INTEGER,
+  building     VARCHAR(128),
+  room         VARCHAR(64),
+  row_version  BIGINT,
+  changed_at   TIMESTAMPTZ NOT NULL DEFAULT now(),
+
+  CONSTRAINT ck_exam_change_op CHECK (op IN ('I', 'U', 'D'))
+);
+
+CREATE INDEX IF NOT EXISTS idx_exam_change_changed_at ON exam_change(changed_at);
+
+-- Writers take a transaction-scoped advisory lock before drawing sequence numbers, so seq order
+-- is commit order: once a reader has seen seq N, no smaller seq can become visible later.
+CREATE OR REPLACE FUNCTION exam_log_insert() RETURNS trigger AS $$
+BEGIN
+  IF EXISTS (SELECT 1 FROM new_rows) THEN
+    PERFORM pg_advisory_xact_lock(hashtext('exam_change'));
+    INSERT INTO exam_change (exam_id, op, campus, subject, course, section, start_time,
+                             duration_min, building, room, row_version)
+    SELECT id, 'I', campus, subject, course, section, start_time,
+           duration_min, building, room, version
+    FROM new_rows
+    ORDER BY id;
+  END IF;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Only rows whose version moved (see exam_touch_version) are logged; no-op upserts are skipped.
+CREATE OR REPLACE FUNCTION exam_log_update() RETURNS trigger AS $$
+BEGIN
+  IF EXISTS (SELECT 1 FROM new_rows n JOIN old_rows o ON o.id = n.id WHERE n.version <> o.version) THEN
+    PERFORM pg_advisory_xact_lock(hashtext('exam_change'));
+    INSERT INTO exam_change (exam_id, op, campus, subject, course, section, start_time,
+                             duration_min, building, room, row_version)
+    SELECT n.id, 'U', n.campus, n.subject, n.course, n.section, n.start_time,
+           n.duration_min, n.building, n.room, n.version
+    FROM new_rows n
+    JOIN old_rows o ON o.id = n.id
+    WHERE n.version <> o.version
+    ORDER BY n.id;
+  END IF;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION exam_log_delete() RETURNS trigger AS $$
+BEGIN
+  IF EXISTS (SELECT 1 FROM old_rows) THEN
+    PERFORM pg_advisory_xact_lock(hashtext('exam_change'));
+    INSERT INTO exam_change (exam_id, op)
+    SELECT id, 'D' FROM old_rows ORDER BY id;
+  END IF;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_exam_log_insert ON exam;
+CREATE TRIGGER trg_exam_log_insert
+  AFTER INSERT ON exam
+  REFERENCING NEW TABLE AS new_rows
+  FOR EACH STATEMENT EXECUTE FUNCTION exam_log_insert();
+
+DROP TRIGGER IF EXISTS trg_exam_log_update ON exam;
+CREATE TRIGGER trg_exam_log_update
+  AFTER UPDATE ON exam
+  REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+  FOR EACH STATEMENT EXECUTE FUNCTION exam_log_update();
+
+DROP TRIGGER IF EXISTS trg_exam_log_delete ON exam;
+CREATE TRIGGER trg_exam_log_delete
+  AFTER DELETE ON exam
+  REFERENCING OLD TABLE AS old_rows
+  FOR EACH STATEMENT EXECUTE FUNCTION exam_log_delete();
+
+-- Existing rows become the starting point of the log.
+INSERT INTO exam_change (exam_id, op, campus, subject, course, section, start_time,
+                         duration_min, building, room, row_version)
+SELECT id, 'I', campus, subject, course, section, start_time, duration_min, building, room, version
+FROM exam
+ORDER BY start_time, id;
@@ -0,0 +1,18 @@
+-- Content hashes for imports that re-read an unchanged source.
+--
+-- import_source: one row per (campus, subject, course, term) filter, holding the SHA-256 of the
+-- last document imported with it. A document with the same hash is skipped without parsing.
+CREATE TABLE IF NOT EXISTS import_source (
+  source_key   VARCHAR(256) PRIMARY KEY,
+  content_hash CHAR(64)     NOT NULL,
+  row_count    INTEGER      NOT NULL,
+  imported_at  TIMESTAMPTZ  NOT NULL DEFAULT now()
+);
+
+-- row_hash: md5 of the mutable part of an exam row. Generated, so every writer keeps it current;
+-- ExamBatchWriter loads it instead of the columns it covers and compares it with the hash of the
+-- parsed row. Must match ExamBatchWriter.rowHash.
+ALTER TABLE exam
+  ADD COLUMN IF NOT EXISTS row_hash CHAR(32) GENERATED ALWAYS AS (
+    md5(coalesce(duration_min::text, '') || '|' || coalesce(building, '') || '|' || coalesce(room, ''))
+  ) STORED;
@@ -0,0 +1,187 @@
+-- Exam sessions by term, with `exam` list-partitioned on it.
+--
+-- Terms are UBC session codes: 2025W1 (Sep-Dec 2025, December finals), 2025W2 (Jan-Apr 2026,
+-- April finals), 2026S1 (May-Jun 2026), 2026S2 (Jul-Aug 2026). They sort chronologically as text.
+-- Each term lives in its own partition, exam_<term>, so a finder that filters on term touches one
+-- partition and an old session can be detached or dropped without rewriting the rest.
+--
+-- Partitions are created on demand by exam_ensure_term_partition(); the importers call it before
+-- writing a new term. exam_default catches anything else and should stay empty: a partition for a
+-- term cannot be created while the default partition holds rows of that term.
+
+-- Session an exam falls in, from its start time in Vancouver. Used to back-fill existing rows and
+-- as the fallback when an import does not name a term. Must match ExamTerms.of.
+CREATE OR REPLACE FUNCTION exam_term_of(ts TIMESTAMPTZ) RETURNS VARCHAR(6) AS $$
+  SELECT CASE
+           WHEN m >= 9 THEN y::text || 'W1'
+           WHEN m <= 4 THEN (y - 1)::text || 'W2'
+           WHEN m <= 6 THEN y::text || 'S1'
+           ELSE y::text || 'S2'
+         END
+  FROM (SELECT extract(year  FROM ts AT TIME ZONE 'America/Vancouver')::int AS y,
+               extract(month FROM ts AT TIME ZONE 'America/Vancouver')::int AS m) t;
+$$ LANGUAGE sql STABLE;
+
+-- ---------- Swap in the partitioned table ----------
+
+ALTER TABLE exam RENAME TO exam_unpartitioned;
+ALTER SEQUENCE exam_id_seq OWNED BY NONE;
+-- constraint and index names are schema-wide; free them for the new table
+ALTER TABLE exam_unpartitioned RENAME CONSTRAINT uk_exam_unique TO uk_exam_unique_unpartitioned;
+DROP INDEX idx_exam_campus_start, idx_exam_campus_subject_start, idx_exam_campus_subject_course_start;
+
+CREATE TABLE exam (
+  id           BIGINT      NOT NULL DEFAULT nextval('exam_id_seq'),
+  term         VARCHAR(6)  NOT NULL,
+  campus       VARCHAR(1)  NOT NULL,     -- 'V' Vancouver, 'O' Okanagan
+  subject      VARCHAR(32) NOT NULL,
+  course       VARCHAR(32) NOT NULL,
+  section      VARCHAR(32) NOT NULL,
+  start_time   TIMESTAMPTZ NOT NULL,
+  duration_min INTEGER     NOT NULL,
+  building     VARCHAR(128),
+  room         VARCHAR(64),
+  version      BIGINT      NOT NULL DEFAULT 0,
+  updated_at   TIMESTAMPTZ NOT NULL DEFAULT now(),
+  -- same expression as V6; must match ExamBatchWriter.rowHash
+  row_hash     CHAR(32) GENERATED ALWAYS AS (
+    md5(coalesce(duration_min::text, '') || '|' || coalesce(building, '') || '|' || coalesce(room, ''))
+  ) STORED,
+
+  -- Unique keys on a partitioned table must include the partition key. Ids still come from one
+  -- sequence, so they stay unique across terms.
+  CONSTRAINT pk_exam PRIMARY KEY (term, id),
+  CONSTRAINT uk_exam_unique UNIQUE (term, campus, subject, course, section, start_time),
+  CONSTRAINT ck_exam_term CHECK (term ~ '^[0-9]{4}[WS][12]$'),
+  CONSTRAINT ck_exam_canonical_keys CHECK (
+        campus  = upper(trim(campus))
+    AND subject = upper(trim(subject))
+    AND course  = upper(trim(course))
+    AND section = upper(trim(section))
+  )
+) PARTITION BY LIST (term);
+
+ALTER SEQUENCE exam_id_seq OWNED BY exam.id;
+
+CREATE TABLE exam_default PARTITION OF exam DEFAULT;
+
+-- Idempotent; safe to call before every import. Term codes are checked before they become
+-- part of a table name, and the lock makes concurrent callers for a new term wait for each other
+-- instead of failing on the catalog.
+CREATE OR REPLACE FUNCTION exam_ensure_term_partition(t TEXT) RETURNS VOID AS $$
+BEGIN
+  IF t !~ '^[0-9]{4}[WS][12]$' THEN
+    RAISE EXCEPTION 'Invalid term %', t;
+  END IF;
+  PERFORM pg_advisory_xact_lock(hashtext('exam_partition'));
+  EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF exam FOR VALUES IN (%L)',
+                 'exam_' || lower(t), t);
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT exam_ensure_term_partition(t)
+FROM (SELECT DISTINCT exam_term_of(start_time) AS t FROM exam_unpartitioned) terms;
+
+-- Same finder indexes as V2, created once on the parent and cloned into every partition.
+-- Within a partition the term is fixed, so they do not need to lead with it.
+CREATE INDEX idx_exam_campus_start                ON exam(campus, start_time);
+CREATE INDEX idx_exam_campus_subject_start        ON exam(campus, subject, start_time);
+CREATE INDEX idx_exam_campus_subject_course_start ON exam(campus, subject, course, start_time);
+-- lookups by id alone (deletes, ICS by id list), which pk_exam cannot serve without the term
+CREATE INDEX idx_exam_id                          ON exam(id);
+
+-- Copied before the triggers exist: version and updated_at carry over, and exam_change already
+-- holds these rows.
+INSERT INTO exam (id, term, campus, subject, course, section, start_time, duration_min,
+                  building, room, version, updated_at)
+SELECT id, exam_term_of(start_time), campus, subject, course, section, start_time, duration_min,
+       building, room, version, updated_at
+FROM exam_unpartitioned;
+
+DROP TABLE exam_unpartitioned;
+
+-- ---------- Triggers (V3, V5), now aware of term ----------
+
+CREATE OR REPLACE FUNCTION exam_touch_version() RETURNS trigger AS $$
+BEGIN
+  IF ROW(NEW.term, NEW.campus, NEW.subject, NEW.course, NEW.section, NEW.start_time,
+         NEW.duration_min, NEW.building, NEW.room)
+     IS DISTINCT FROM
+     ROW(OLD.term, OLD.campus, OLD.subject, OLD.course, OLD.section, OLD.start_time,
+         OLD.duration_min, OLD.building, OLD.room) THEN
+    NEW.version    := OLD.version + 1;
+    NEW.updated_at := now();
+  ELSE
+    NEW.version    := OLD.version;
+    NEW.updated_at := OLD.updated_at;
+  END IF;
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_exam_touch_version
+  BEFORE UPDATE ON exam
+  FOR EACH ROW EXECUTE FUNCTION exam_touch_version();
+
+-- Deletes carry their term too, so the feed can be filtered by term.
+ALTER TABLE exam_change ADD COLUMN IF NOT EXISTS term VARCHAR(6);
+UPDATE exam_change SET term = exam_term_of(start_time) WHERE start_time IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_exam_change_term_seq ON exam_change(term, seq);
+
+CREATE OR REPLACE FUNCTION exam_log_insert() RETURNS trigger AS $$
+BEGIN
+  IF EXISTS (SELECT 1 FROM new_rows) THEN
+    PERFORM pg_advisory_xact_lock(hashtext('exam_change'));
+    INSERT INTO exam_change (exam_id, op, term, campus, subject, course, section, start_time,
+                             duration_min, building, room, row_version)
+    SELECT id, 'I', term, campus, subject, course, section, start_time,
+           duration_min, building, room, version
+    FROM new_rows
+    ORDER BY id;
+  END IF;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION exam_log_update() RETURNS trigger AS $$
+BEGIN
+  IF EXISTS (SELECT 1 FROM new_rows n JOIN old_rows o ON o.id = n.id WHERE n.version <> o.version) THEN
+    PERFORM pg_advisory_xact_lock(hashtext('exam_change'));
+    INSERT INTO exam_change (exam_id, op, term, campus, subject, course, section, start_time,
+                             duration_min, building, room, row_version)
+    SELECT n.id, 'U', n.term, n.campus, n.subject, n.course, n.section, n.start_time,
+           n.duration_min, n.building, n.room, n.version
+    FROM new_rows n
+    JOIN old_rows o ON o.id = n.id
+    WHERE n.version <> o.version
+    ORDER BY n.id;
+  END IF;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION exam_log_delete() RETURNS trigger AS $$
+BEGIN
+  IF EXISTS (SELECT 1 FROM old_rows) THEN
+    PERFORM pg_advisory_xact_lock(hashtext('exam_change'));
+    INSERT INTO exam_change (exam_id, op, term)
+    SELECT id, 'D', term FROM old_rows ORDER BY id;
+  END IF;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_exam_log_insert
+  AFTER INSERT ON exam
+  REFERENCING NEW TABLE AS new_rows
+  FOR EACH STATEMENT EXECUTE FUNCTION exam_log_insert();
+
+CREATE TRIGGER trg_exam_log_update
+  AFTER UPDATE ON exam
+  REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+  FOR EACH STATEMENT EXECUTE FUNCTION exam_log_update();
+
+CREATE TRIGGER trg_exam_log_delete
+  AFTER DELETE ON exam
+  REFERENCING OLD TABLE AS old_rows
+  FOR EACH STATEMENT EXECUTE FUNCTION exam_log_delete();
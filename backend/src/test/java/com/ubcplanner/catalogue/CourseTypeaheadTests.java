@@ -0,0 +1,96 @@
+package com.ubcplanner.catalog;
+
+import com.ubcplanner.exams.ExamSnapshot;
+import com.ubcplanner.exams.ExamSnapshotRebuiltEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CourseTypeaheadTests {
+
+    private static final OffsetDateTime UPDATED = OffsetDateTime.of(2025, 11, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private ExamSnapshot snapshot;
+    private CourseTypeahead typeahead;
+
+    @BeforeEach
+    void build() {
+        ExamSnapshot.Builder b = new ExamSnapshot.Builder(1).term("2025W1");
+        long id = 0;
+        // CPSC 221 101 and CPSC 2211 01 share the search key "CPSC221101"
+        id = add(b, id, "V", "CPSC", "221", "101", 2);
+        id = add(b, id, "V", "CPSC", "221", "102", 1);
+        id = add(b, id, "V", "CPSC", "2211", "01", 1);
+        id = add(b, id, "V", "CPSC", "110", "101", 1);
+        id = add(b, id, "V", "MATH", "221", "201", 1);
+        add(b, id, "O", "CPSC", "221", "001", 1);
+
+        snapshot = b.build();
+        typeahead = new CourseTypeahead();
+        typeahead.onSnapshotRebuilt(new ExamSnapshotRebuiltEvent(snapshot));
+    }
+
+    @Test
+    void prefixMatchesOneContiguousRange() {
+        assertThat(labels("cp")).containsExactly("CPSC", "CPSC 221", "CPSC 110", "CPSC 2211",
+                "CPSC 221 101", "CPSC 110 101", "CPSC 221 102", "CPSC 2211 01");
+        assertThat(labels("CPSC 22")).containsExactly("CPSC 221", "CPSC 2211",
+                "CPSC 221 101", "CPSC 221 102", "CPSC 2211 01");
+        assertThat(labels("cpsc3")).isEmpty();
+        assertThat(labels("MATHS")).isEmpty();
+    }
+
+    @Test
+    void exactMatchRanksFirstThenCoursesThenSections() {
+        assertThat(labels("cpsc-221")).containsExactly("CPSC 221", "CPSC 2211",
+                "CPSC 221 101", "CPSC 221 102", "CPSC 2211 01");
+        assertThat(labels("CPSC110")).containsExactly("CPSC 110", "CPSC 110 101");
+    }
+
+    @Test
+    void entriesSharingASearchKeyStaySeparate() {
+        List<CourseTypeahead.Suggestion> found = typeahead.suggest(snapshot, "V", "CPSC221101", 10);
+
+        assertThat(found).extracting(CourseTypeahead.Suggestion::label)
+                .containsExactlyInAnyOrder("CPSC 221 101", "CPSC 2211 01");
+        assertThat(found).extracting(CourseTypeahead.Suggestion::exams).containsExactlyInAnyOrder(2, 1);
+    }
+
+    @Test
+    void digitQueriesSearchCourseNumbers() {
+        assertThat(labels("221")).containsExactly("CPSC 221", "MATH 221", "CPSC 2211",
+                "CPSC 221 101", "CPSC 221 102", "CPSC 2211 01", "MATH 221 201");
+        assertThat(typeahead.suggest(snapshot, "O", "221", 10)).extracting(CourseTypeahead.Suggestion::label)
+                .containsExactly("CPSC 221", "CPSC 221 001");
+    }
+
+    @Test
+    void limitBoundsTheResult() {
+        assertThat(typeahead.suggest(snapshot, "V", "cpsc", 1)).extracting(CourseTypeahead.Suggestion::label)
+                .containsExactly("CPSC");
+        assertThat(typeahead.suggest(snapshot, "V", "cpsc", 3)).hasSize(3);
+        assertThat(typeahead.suggest(snapshot, "V", "cpsc", 100)).hasSize(8);
+        assertThat(typeahead.suggest(snapshot, "V", "cpsc", 0)).isEmpty();
+        assertThat(typeahead.suggest(snapshot, "V", " - ", 10)).isEmpty();
+        assertThat(typeahead.suggest(snapshot, "X", "cpsc", 10)).isEmpty();
+    }
+
+    private List<String> labels(String query) {
+        return typeahead.suggest(snapshot, "V", query, 20).stream().map(CourseTypeahead.Suggestion::label).toList();
+    }
+
+    private static long add(ExamSnapshot.Builder b, long id, String campus, String subject, String course,
+                            String section, int exams) {
+        for (int i = 0; i < exams; i++) {
+            id++;
+            b.add(id, 0, UPDATED, campus, subject, course, section,
+                    OffsetDateTime.of(2025, 12, 10, 9, 0, 0, 0, ZoneOffset.ofHours(-8)).plusDays(id), 150, null, null);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,105 @@
+package com.ubcplanner.exams;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Snapshots per term: the current term by default, any other one loaded on first use. Works on
+ * its own campus code so it does not disturb other data.
+ */
+@SpringBootTest(properties = { "ubc.exams.currentTerm=2025W1", "ubc.exams.maxTerms=2" })
+class ExamReadModelTests {
+
+    private static final String CAMPUS = "Y";
+
+    @Autowired
+    private ExamReadModel readModel;
+
+    @Autowired
+    private ExamTermService terms;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void seed() {
+        clear();
+        insert("2024W1", "CPSC", "2024-12-16T09:00-08:00");
+        insert("2025W1", "CPSC", "2025-12-15T09:00-08:00");
+        insert("2025W1", "MATH", "2025-12-16T09:00-08:00");
+        insert("2025W2", "PHYS", "2026-04-20T09:00-07:00");
+        readModel.rebuild();
+    }
+
+    @AfterEach
+    void clear() {
+        jdbc.update("delete from exam where campus = ?", CAMPUS);
+    }
+
+    @Test
+    void defaultsToTheCurrentTerm() {
+        assertThat(readModel.snapshot().term()).isEqualTo("2025W1");
+        assertThat(readModel.snapshot(" ")).isSameAs(readModel.snapshot());
+        assertThat(readModel.snapshot().list(CAMPUS, null, null))
+                .extracting(ExamView::subject, ExamView::term)
+                .containsExactly(tuple("CPSC", "2025W1"), tuple("MATH", "2025W1"));
+    }
+
+    @Test
+    void otherTermsLoadOnFirstUseAndStay() {
+        ExamSnapshot past = readModel.snapshot("2024w1");
+
+        assertThat(past.term()).isEqualTo("2024W1");
+        assertThat(past.list(CAMPUS, null, null)).extracting(ExamView::subject).containsExactly("CPSC");
+        assertThat(readModel.snapshot("2024W1")).isSameAs(past);
+    }
+
+    @Test
+    void theOldestOtherTermMakesWayAndTheCurrentOneStays() {
+        ExamSnapshot current = readModel.snapshot();
+        ExamSnapshot past = readModel.snapshot("2024W1");
+
+        // maxTerms=2: loading a third term drops 2024W1, never the current term
+        ExamSnapshot next = readModel.snapshot("2025W2");
+
+        assertThat(next.list(CAMPUS, null, null)).extracting(ExamView::subject).containsExactly("PHYS");
+        assertThat(readModel.snapshot()).isSameAs(current);
+        assertThat(readModel.snapshot("2024W1")).isNotSameAs(past);
+    }
+
+    @Test
+    void aWriteDropsTheOtherTerms() {
+        ExamSnapshot past = readModel.snapshot("2024W1");
+        insert("2024W1", "MATH", "2024-12-17T09:00-08:00");
+
+        readModel.onExamsChanged(new ExamsChangedEvent("test"));
+
+        assertThat(readModel.snapshot("2024W1")).isNotSameAs(past);
+        assertThat(readModel.snapshot("2024W1").list(CAMPUS, null, null))
+                .extracting(ExamView::subject).containsExactly("CPSC", "MATH");
+    }
+
+    @Test
+    void malformedTermsAreRejected() {
+        assertThatThrownBy(() -> readModel.snapshot("fall"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Invalid term");
+    }
+
+    private void insert(String term, String subject, String start) {
+        terms.ensurePartition(term);
+        jdbc.update("""
+                insert into exam (term, campus, subject, course, section, start_time, duration_min)
+                values (?, ?, ?, '100', '101', ?, 120)
+                """, term, CAMPUS, subject, OffsetDateTime.parse(start));
+    }
+}
@@ -0,0 +1,208 @@
+package com.ubcplanner.exams;
+
+import com.ubcplanner.reports.HardshipReportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the queries behind the snapshot load and the endpoints that still read Postgres per
+ * request, records the SQL and bind values they send through the DataSource, and explains
+ * exactly those. Sequential scans are disabled for the transaction, so a plan still showing
+ * "Seq Scan" means no index matches the predicate.
+ */
+@SpringBootTest
+@Import(ExamReadQueryPlanTests.CaptureConfig.class)
+@Transactional
+class ExamReadQueryPlanTests {
+
+    private static final String TERM = "2025W1";
+
+    @Autowired
+    private ExamRowStream rows;
+
+    @Autowired
+    private ExamChangeFeed changes;
+
+    @Autowired
+    private HardshipReportService hardship;
+
+    @Autowired
+    private ExamTermService terms;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void disableSeqScan() {
+        terms.ensurePartition(TERM);
+        terms.ensurePartition("2024W1");
+        jdbc.execute("set local enable_seqscan = off");
+    }
+
+    @Test
+    void snapshotLoadReadsOnePartition() {
+        // the load reads the whole term in (start_time, id) order, so pruning is what matters
+        List<String> plans = explain(() -> rows.termVersioned(TERM, rs -> {}));
+
+        assertThat(plans).singleElement().asString()
+                .contains("exam_2025w1").doesNotContain("exam_2024w1").doesNotContain("exam_default");
+    }
+
+    @Test
+    void changeFeedUsesIndexes() {
+        jdbc.update("""
+                insert into exam (term, campus, subject, course, section, start_time, duration_min)
+                values (?, 'V', 'CPSC', '110', '101', timestamptz '2025-12-15 09:00-08', 150)
+                """, TERM);
+        long latest = jdbc.queryForObject("select max(seq) from exam_change", Long.class);
+
+        // bounds, then the page after the client's position
+        List<String> plans = explain(() -> changes.since(null, latest - 1, 10));
+
+        assertThat(plans).hasSize(2).allSatisfy(ExamReadQueryPlanTests::assertIndexScan);
+    }
+
+    @Test
+    void hardshipFindingsUseIndexes() {
+        List<String> plans = new ArrayList<>();
+        plans.addAll(explain(() -> hardship.findings("V", null, null, null, 50)));
+        plans.addAll(explain(() -> hardship.findings("V", null, null, "HARDSHIP", 50)));
+        plans.addAll(explain(() -> hardship.findings("V", "CPSC", null, null, 50)));
+        plans.addAll(explain(() -> hardship.findings("V", "CPSC", "110", "CONFLICT", 50)));
+
+        assertThat(plans).hasSize(4).allSatisfy(ExamReadQueryPlanTests::assertIndexScan);
+    }
+
+    private static void assertIndexScan(String plan) {
+        assertThat(plan).doesNotContain("Seq Scan").containsPattern("Index (Only )?Scan|Bitmap Index Scan");
+    }
+
+    /** Runs {@code call} and returns the plan of every statement it sent, in order. */
+    private List<String> explain(Runnable call) {
+        List<Captured> statements = SqlCapture.during(call);
+        assertThat(statements).isNotEmpty();
+
+        List<String> plans = new ArrayList<>();
+        for (Captured s : statements) {
+            StringBuilder numbered = new StringBuilder();
+            int params = 0;
+            for (char ch : s.sql().toCharArray()) {
+                if (ch == '?') numbered.append('$').append(++params);
+                else numbered.append(ch);
+            }
+            // untyped literals, so Postgres infers each parameter's type as it did for the real call
+            StringJoiner values = new StringJoiner(", ", "(", ")");
+            for (int i = 1; i <= params; i++) {
+                Object v = s.params().get(i);
+                values.add(v == null ? "null" : "'" + v.toString().replace("'", "''") + "'");
+            }
+
+            jdbc.execute("prepare read_stmt as " + numbered);
+            try {
+                plans.add(String.join("\n", jdbc.queryForList(
+                        "explain execute read_stmt" + (params > 0 ? values : ""), String.class)));
+            } finally {
+                jdbc.execute("deallocate read_stmt");
+            }
+        }
+        return plans;
+    }
+
+    record Captured(String sql, Map<Integer, Object> params) {}
+
+    @TestConfiguration
+    static class CaptureConfig {
+        @Bean
+        static BeanPostProcessor sqlCapture() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String name) {
+                    return (bean instanceof DataSource ds) ? SqlCapture.wrap(ds, DataSource.class) : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Records statements the calling thread sends while {@link #during} runs; other threads (the
+     * hardship report, snapshot rebuilds) are ignored.
+     */
+    static final class SqlCapture {
+        private static final ThreadLocal<List<Captured>> ACTIVE = new ThreadLocal<>();
+
+        static List<Captured> during(Runnable call) {
+            List<Captured> out = new ArrayList<>();
+            ACTIVE.set(out);
+            try {
+                call.run();
+            } finally {
+                ACTIVE.remove();
+            }
+            return out;
+        }
+
+        @SuppressWarnings("unchecked")
+        static <T> T wrap(T target, Class<T> type) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler(target, null));
+        }
+
+        private static InvocationHandler handler(Object target, Captured statement) {
+            return (proxy, method, args) -> {
+                String name = method.getName();
+                List<Captured> active = ACTIVE.get();
+                if (active != null && statement != null && name.startsWith("set")
+                        && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    statement.params().put(index, args[1]);
+                }
+                if (active != null && statement == null && target instanceof Statement
+                        && name.startsWith("execute") && args != null && args.length > 0 && args[0] instanceof String sql) {
+                    active.add(new Captured(sql, Map.of()));
+                }
+
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+
+                if (result instanceof Connection c) {
+                    return wrap(c, Connection.class);
+                }
+                if (result instanceof PreparedStatement ps && args != null && args[0] instanceof String sql) {
+                    Captured captured = new Captured(sql, new TreeMap<>());
+                    if (active != null) active.add(captured);
+                    return Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                            new Class<?>[] { PreparedStatement.class }, handler(ps, captured));
+                }
+                if (result instanceof Statement st && name.equals("createStatement")) {
+                    return wrap(st, Statement.class);
+                }
+                return result;
+            };
+        }
+    }
+}
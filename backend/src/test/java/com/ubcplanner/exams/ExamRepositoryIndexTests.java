@@ -0,0 +1,139 @@
+package com.ubcplanner.exams;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every ExamRepository finder, captures the SQL Hibernate sends, and checks with EXPLAIN
+ * that Postgres can answer it from an index. Sequential scans are disabled for the transaction,
+ * so a plan still showing "Seq Scan" means no index matches the predicate.
+ */
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.ubcplanner.exams.ExamRepositoryIndexTests$SqlCapture")
+@Transactional
+class ExamRepositoryIndexTests {
+
+    private static final PageRequest PAGE = PageRequest.of(0, 20, Sort.by("startTime"));
+    private static final String TERM = "2025W1";
+
+    @Autowired
+    private ExamRepository repo;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ExamTermService terms;
+
+    private String lastPlan;
+
+    @BeforeEach
+    void disableSeqScan() {
+        jdbc.execute("set local enable_seqscan = off");
+    }
+
+    @Test
+    void listFindersUseIndex() {
+        assertIndexScans(() -> repo.findByTermAndCampusOrderByStartTimeAsc(TERM, "V"), TERM, "V");
+        assertIndexScans(() -> repo.findByTermAndCampusAndSubjectOrderByStartTimeAsc(TERM, "V", "CPSC"),
+                TERM, "V", "CPSC");
+        assertIndexScans(() -> repo.findByTermAndCampusAndSubjectAndCourseOrderByStartTimeAsc(TERM, "V", "CPSC", "221"),
+                TERM, "V", "CPSC", "221");
+    }
+
+    @Test
+    void upsertLookupUsesIndex() {
+        OffsetDateTime start = OffsetDateTime.parse("2025-12-15T09:00:00-08:00");
+        assertIndexScans(() -> repo.findByTermAndCampusAndSubjectAndCourseAndSectionAndStartTime(
+                TERM, "V", "CPSC", "221", "101", start), TERM, "V", "CPSC", "221", "101", start.toString());
+    }
+
+    @Test
+    void distinctLookupsUseIndex() {
+        assertIndexScans(() -> repo.findDistinctSubjects(TERM, "V"), TERM, "V");
+        assertIndexScans(() -> repo.findDistinctCourses(TERM, "V", "CPSC"), TERM, "V", "CPSC");
+        assertIndexScans(() -> repo.findDistinctSections(TERM, "V", "CPSC", "221"), TERM, "V", "CPSC", "221");
+    }
+
+    @Test
+    void pagedFindersUseIndex() {
+        assertIndexScans(() -> repo.findByTermAndCampus(TERM, "V", PAGE), TERM, "V");
+        assertIndexScans(() -> repo.findByTermAndCampusAndSubject(TERM, "V", "CPSC", PAGE), TERM, "V", "CPSC");
+        assertIndexScans(() -> repo.findByTermAndCampusAndSubjectAndCourse(TERM, "V", "CPSC", "221", PAGE),
+                TERM, "V", "CPSC", "221");
+        assertIndexScans(() -> repo.findByTermAndCampusAndSubjectAndCourseAndSection(TERM, "V", "CPSC", "221", "101", PAGE),
+                TERM, "V", "CPSC", "221", "101");
+    }
+
+    @Test
+    void termPrunesToOnePartition() {
+        terms.ensurePartition(TERM);
+        terms.ensurePartition("2024W1");
+        assertIndexScans(() -> repo.findByTermAndCampus(TERM, "V", PAGE), TERM, "V");
+        assertThat(lastPlan).contains("exam_2025w1").doesNotContain("exam_2024w1").doesNotContain("exam_default");
+    }
+
+    /**
+     * Explains each statement the call issued. Bind values are passed as untyped literals so
+     * Postgres infers their types; placeholders beyond {@code args} (limit/offset) get the page size.
+     */
+    private void assertIndexScans(Runnable call, String... args) {
+        SqlCapture.CAPTURED.clear();
+        call.run();
+        List<String> statements = new ArrayList<>(SqlCapture.CAPTURED);
+        assertThat(statements).isNotEmpty();
+
+        for (String sql : statements) {
+            StringBuilder numbered = new StringBuilder();
+            int params = 0;
+            for (char ch : sql.toCharArray()) {
+                if (ch == '?') numbered.append('$').append(++params);
+                else numbered.append(ch);
+            }
+
+            StringJoiner values = new StringJoiner(", ", "(", ")");
+            for (int i = 0; i < params; i++) {
+                String v = i < args.length ? args[i] : String.valueOf(PAGE.getPageSize());
+                values.add("'" + v.replace("'", "''") + "'");
+            }
+
+            jdbc.execute("prepare repo_stmt as " + numbered);
+            try {
+                String plan = String.join("\n", jdbc.queryForList(
+                        "explain execute repo_stmt" + (params > 0 ? values : ""), String.class));
+                lastPlan = plan;
+                assertThat(plan)
+                        .as("plan for %s", sql)
+                        .doesNotContain("Seq Scan")
+                        .containsPattern("Index (Only )?Scan|Bitmap Index Scan");
+            } finally {
+                jdbc.execute("deallocate repo_stmt");
+            }
+        }
+    }
+
+    public static class SqlCapture implements StatementInspector {
+        static final List<String> CAPTURED = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            CAPTURED.add(sql);
+            return sql;
+        }
+    }
+}
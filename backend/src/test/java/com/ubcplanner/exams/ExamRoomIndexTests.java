@@ -0,0 +1,91 @@
+package com.ubcplanner.exams;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Builds {@link ExamRoomIndex} from a hand-made snapshot; rows are added in start order, as
+ * {@link ExamReadModel} does.
+ */
+class ExamRoomIndexTests {
+
+    private static final ZoneOffset PST = ZoneOffset.ofHours(-8);
+    private static final OffsetDateTime UPDATED = OffsetDateTime.of(2025, 11, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private ExamSnapshot snapshot;
+    private ExamRoomIndex index;
+
+    @BeforeEach
+    void build() {
+        snapshot = new ExamSnapshot.Builder(1).term("2025W1")
+                .add(1, 0, UPDATED, "V", "CPSC", "110", "101", at(9, 0), 120, "HEBB", "100")
+                .add(2, 0, UPDATED, "V", "CPSC", "121", "101", at(9, 0), 120, "HEBB", null)
+                .add(3, 0, UPDATED, "O", "COSC", "111", "001", at(9, 30), 120, "HEBB", "100")
+                .add(4, 0, UPDATED, "V", "MATH", "100", "101", at(11, 0), 60, "HEBB", "100")
+                .add(5, 0, UPDATED, "V", "MATH", "100", "102", at(11, 0), 60, "HEBB", "100")
+                .add(6, 0, UPDATED, "V", "PHYS", "117", "101", at(11, 30), 90, "hebb", "100")
+                .build();
+        index = new ExamRoomIndex();
+        index.onSnapshotRebuilt(new ExamSnapshotRebuiltEvent(snapshot));
+    }
+
+    @Test
+    void adjacentExamsAreNotDoubleBooked() {
+        List<ExamRoomIndex.DoubleBooking> found = index.doubleBookings(snapshot, "V", null, null, 100);
+
+        // CPSC 110 ends at 11:00 when MATH 100 starts; only PHYS 117 overlaps the MATH sittings
+        assertThat(found).extracting(d -> d.first().id() + "-" + d.second().id())
+                .containsExactly("4-6", "5-6");
+        assertThat(found.get(0).overlapStart()).isEqualTo(at(11, 30));
+        assertThat(found.get(0).overlapEnd()).isEqualTo(at(12, 0));
+    }
+
+    @Test
+    void sectionsSharingASittingAreNotDoubleBooked() {
+        assertThat(index.doubleBookings(snapshot, "V", "MATH", "100", 100))
+                .noneMatch(d -> d.first().id() == 4 && d.second().id() == 5);
+    }
+
+    @Test
+    void rowsWithoutARoomAreNotIndexed() {
+        ExamRoomIndex.RoomSchedule schedule = index.schedule(snapshot, "V", "HEBB", "100", epoch(9, 0), epoch(10, 0));
+
+        assertThat(schedule.exams()).extracting(ExamView::id).containsExactly(1L);
+        assertThat(index.doubleBookings(snapshot, "V", "CPSC", "121", 100)).isEmpty();
+    }
+
+    @Test
+    void campusesAreSeparate() {
+        assertThat(index.doubleBookings(snapshot, "O", null, null, 100)).isEmpty();
+        assertThat(index.schedule(snapshot, "O", "HEBB", "100", epoch(0, 0), epoch(23, 0)).exams())
+                .extracting(ExamView::id).containsExactly(3L);
+        assertThat(index.doubleBookings(snapshot, "V", "CPSC", "110", 100)).isEmpty();
+    }
+
+    @Test
+    void scheduleWindowIsHalfOpen() {
+        // [11:00, 11:30): CPSC 110 ended at 11:00 and PHYS 117 only starts at 11:30
+        ExamRoomIndex.RoomSchedule schedule = index.schedule(snapshot, "V", "hebb", "100", epoch(11, 0), epoch(11, 30));
+
+        assertThat(schedule.exams()).extracting(ExamView::id).containsExactly(4L, 5L);
+    }
+
+    @Test
+    void limitCapsTheResult() {
+        assertThat(index.doubleBookings(snapshot, "V", null, null, 1)).hasSize(1);
+    }
+
+    private static OffsetDateTime at(int hour, int minute) {
+        return OffsetDateTime.of(2025, 12, 15, hour, minute, 0, 0, PST);
+    }
+
+    private static long epoch(int hour, int minute) {
+        return at(hour, minute).toEpochSecond();
+    }
+}
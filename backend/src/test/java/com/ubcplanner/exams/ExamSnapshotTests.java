@@ -0,0 +1,103 @@
+package com.ubcplanner.exams;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keyset paging and start-time windows over a hand-made snapshot; rows are added in
+ * (startTime, id) order, as {@link ExamReadModel} does.
+ */
+class ExamSnapshotTests {
+
+    private static final ZoneOffset PST = ZoneOffset.ofHours(-8);
+    private static final OffsetDateTime UPDATED = OffsetDateTime.of(2025, 11, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    // three exams share 9:00 on the 15th; one starts exactly at midnight on the 16th
+    private final ExamSnapshot snapshot = new ExamSnapshot.Builder(1).term("2025W1")
+            .add(1, 0, UPDATED, "V", "CPSC", "110", "101", at(15, 9), 120, "HEBB", "100")
+            .add(2, 0, UPDATED, "V", "CPSC", "110", "102", at(15, 9), 120, "HEBB", "200")
+            .add(3, 0, UPDATED, "V", "CPSC", "121", "101", at(15, 9), 120, "DMP", "110")
+            .add(4, 0, UPDATED, "V", "MATH", "100", "101", at(15, 12), 60, "LSK", "200")
+            .add(5, 0, UPDATED, "V", "MATH", "100", "102", at(16, 0), 60, "LSK", "201")
+            .add(6, 0, UPDATED, "V", "PHYS", "117", "101", at(16, 9), 90, "HENN", "200")
+            .build();
+
+    @Test
+    void cursorWalksEqualStartTimesWithoutSkippingOrRepeating() {
+        assertThat(walk(false, 2)).containsExactly(1L, 2L, 3L, 4L, 5L, 6L);
+        assertThat(walk(true, 2)).containsExactly(6L, 5L, 4L, 3L, 2L, 1L);
+        // a page boundary inside the 9:00 group, in both directions
+        assertThat(ids(snapshot.searchAfter("V", null, null, null, cursor(1), false, 10)))
+                .containsExactly(2L, 3L, 4L, 5L, 6L);
+        assertThat(ids(snapshot.searchAfter("V", null, null, null, cursor(3), true, 10)))
+                .containsExactly(2L, 1L);
+    }
+
+    @Test
+    void theLastPageHasNoMore() {
+        ExamSnapshot.KeysetPage exact = snapshot.searchAfter("V", null, null, null, cursor(4), false, 2);
+        assertThat(ids(exact)).containsExactly(5L, 6L);
+        assertThat(exact.hasMore()).isFalse();
+        assertThat(exact.total()).isEqualTo(6);
+
+        ExamSnapshot.KeysetPage past = snapshot.searchAfter("V", null, null, null, cursor(6), false, 2);
+        assertThat(past.content()).isEmpty();
+        assertThat(past.hasMore()).isFalse();
+
+        ExamSnapshot.KeysetPage first = snapshot.searchAfter("V", null, null, null, cursor(1), true, 2);
+        assertThat(first.content()).isEmpty();
+        assertThat(first.hasMore()).isFalse();
+    }
+
+    @Test
+    void windowsIncludeTheirStartAndExcludeTheirEnd() {
+        long dec15 = at(15, 0).toEpochSecond();
+        long dec16 = at(16, 0).toEpochSecond();
+        long dec17 = at(17, 0).toEpochSecond();
+
+        // exam 5 starts exactly at midnight, so it belongs to the 16th only
+        assertThat(ids(snapshot.searchAfter("V", null, null, null, dec15, dec16, null, false, 10)))
+                .containsExactly(1L, 2L, 3L, 4L);
+        assertThat(ids(snapshot.searchAfter("V", null, null, null, dec16, dec17, null, false, 10)))
+                .containsExactly(5L, 6L);
+        assertThat(snapshot.rows("V", "MATH", null, null, dec16, dec16)).isEmpty();
+
+        // a window starting on a shared start time keeps every exam at that time
+        long nine = at(15, 9).toEpochSecond();
+        ExamSnapshot.KeysetPage page = snapshot.searchAfter("V", null, null, null, nine, nine + 1, cursor(1), false, 10);
+        assertThat(ids(page)).containsExactly(2L, 3L);
+        assertThat(page.total()).isEqualTo(3);
+    }
+
+    private List<Long> walk(boolean descending, int limit) {
+        List<Long> seen = new ArrayList<>();
+        long[] after = null;
+        ExamSnapshot.KeysetPage page;
+        do {
+            page = snapshot.searchAfter("V", null, null, null, after, descending, limit);
+            seen.addAll(ids(page));
+            ExamView last = page.content().get(page.content().size() - 1);
+            after = new long[] { last.startTime().toEpochSecond(), last.id() };
+        } while (page.hasMore());
+        return seen;
+    }
+
+    private long[] cursor(long examId) {
+        int row = snapshot.rowOf(examId);
+        return new long[] { snapshot.startEpochSec(row), examId };
+    }
+
+    private static List<Long> ids(ExamSnapshot.KeysetPage page) {
+        return page.content().stream().map(ExamView::id).toList();
+    }
+
+    private static OffsetDateTime at(int day, int hour) {
+        return OffsetDateTime.of(2025, 12, day, hour, 0, 0, 0, PST);
+    }
+}
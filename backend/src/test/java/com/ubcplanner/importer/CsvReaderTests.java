@@ -0,0 +1,97 @@
+package com.ubcplanner.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvReaderTests {
+
+    @Test
+    void quotedFieldsKeepSeparatorsAndDoubledQuotes() throws IOException {
+        assertThat(records("CPSC,\"110, Lab\",\"say \"\"hi\"\"\"\n"))
+                .containsExactly(List.of("CPSC", "110, Lab", "say \"hi\""));
+    }
+
+    @Test
+    void crlfLfAndCrEndRecords() throws IOException {
+        assertThat(records("a,b\r\nc,d\ne,f\rg,h"))
+                .containsExactly(List.of("a", "b"), List.of("c", "d"), List.of("e", "f"), List.of("g", "h"));
+    }
+
+    @Test
+    void lineBreaksInsideQuotesStayInTheField() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a,\"two\nlines\"\r\nb,c\n"));
+
+        assertThat(reader.next()).containsExactly("a", "two\nlines");
+        assertThat(reader.recordLine()).isEqualTo(1);
+        assertThat(reader.next()).containsExactly("b", "c");
+        assertThat(reader.recordLine()).isEqualTo(3);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void trailingSeparatorYieldsAnEmptyField() throws IOException {
+        assertThat(records("a,b,\n,\n"))
+                .containsExactly(List.of("a", "b", ""), List.of("", ""));
+    }
+
+    @Test
+    void byteOrderMarkIsSkipped() throws IOException {
+        assertThat(records("\uFEFFsubject,course\n")).containsExactly(List.of("subject", "course"));
+    }
+
+    @Test
+    void unterminatedQuoteFails() {
+        assertThatThrownBy(() -> records("a,b\nc,\"open\n"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("line 2");
+    }
+
+    @Test
+    void recordsSplitAcrossReadsParseTheSame() throws IOException {
+        String csv = "a,\"b,\"\"c\"\"\"\r\n\"d\re\",f\r";
+        List<List<String>> whole = records(new StringReader(csv));
+
+        assertThat(records(new OneCharReader(csv))).isEqualTo(whole);
+        assertThat(whole).containsExactly(List.of("a", "b,\"c\""), List.of("d\re", "f"));
+    }
+
+    private static List<List<String>> records(String csv) throws IOException {
+        return records(new StringReader(csv));
+    }
+
+    private static List<List<String>> records(Reader in) throws IOException {
+        CsvReader reader = new CsvReader(in);
+        List<List<String>> out = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.next()) != null) out.add(record);
+        return out;
+    }
+
+    /** Hands out one char per read, so every CR and quote lands on a buffer boundary. */
+    private static final class OneCharReader extends Reader {
+        private final String s;
+        private int pos;
+
+        OneCharReader(String s) {
+            this.s = s;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            if (pos == s.length()) return -1;
+            cbuf[off] = s.charAt(pos++);
+            return 1;
+        }
+
+        @Override
+        public void close() {}
+    }
+}
@@ -0,0 +1,166 @@
+package com.ubcplanner.importer;
+
+import com.ubcplanner.exams.ExamTermService;
+import com.ubcplanner.exams.ExamTerms;
+import com.ubcplanner.importer.ExamImportService.ParsedExam;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the same rows through {@link ExamBatchWriter} and through the row-by-row import it
+ * replaced (look each row up, compare duration, building and room, then insert or update), and
+ * expects the same counts and the same table afterwards. Works on its own campus code so it does
+ * not disturb other data; a batch size of 2 makes the writer flush part way through.
+ */
+@SpringBootTest(properties = "ubc.import.batchSize=2")
+class ExamBatchWriterTests {
+
+    private static final String CAMPUS = "Z";
+
+    private static final List<ParsedExam> SEED = List.of(
+            exam("CPSC", "110", "101", 9, 150, "HEBB", "100"),
+            exam("CPSC", "110", "102", 12, 150, "HEBB", "100"),
+            exam("MATH", "100", "101", 15, 120, null, null));
+
+    @Autowired
+    private ExamBatchWriter writer;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ExamTermService terms;
+
+    @BeforeEach
+    void partition() {
+        // the row-by-row inserts below would otherwise land in exam_default
+        terms.ensurePartition("2025W1");
+        clear();
+    }
+
+    @AfterEach
+    void clear() {
+        jdbc.update("delete from exam where campus = ?", CAMPUS);
+    }
+
+    @Test
+    void countsMatchRowByRowImport() {
+        List<ParsedExam> rows = List.of(
+                exam("CPSC", "110", "101", 9, 150, "HEBB", "100"),   // unchanged
+                exam("CPSC", "110", "102", 12, 150, "HEBB", "200"),  // room moved
+                exam("MATH", "100", "101", 15, 120, "WOOD", "2"),    // room assigned
+                exam("PHYS", "117", "101", 9, 90, "HENN", "200"),    // new
+                new ParsedExam("PHYS", "118", "101", null, 90, null, null),
+                exam("PHYS", "117", "101", 9, 90, "HENN", "202"),    // same key again, changed
+                exam("PHYS", "117", "101", 9, 90, "HENN", "202"),    // and again, unchanged
+                exam("CHEM", "121", "101", 12, 150, null, null));    // new, no room yet
+
+        seed();
+        int[] expected = rowByRow(rows, false);
+        List<Map<String, Object>> expectedTable = table();
+
+        clear();
+        seed();
+        assertThat(batched(rows, false)).containsExactly(expected);
+        assertThat(table()).isEqualTo(expectedTable);
+        assertThat(expected).containsExactly(2, 3, 3);
+    }
+
+    @Test
+    void dryRunCountsWhatARealImportWould() {
+        // PHYS 117 101 is new and repeated: a real import inserts it once and then finds it
+        // unchanged. The row-by-row dry run saved nothing, so it counted the repeat as a second
+        // insert; the batch writer's dry run counts like the real import instead.
+        List<ParsedExam> rows = List.of(
+                exam("CPSC", "110", "101", 9, 150, "HEBB", "100"),
+                exam("CPSC", "110", "102", 12, 180, "HEBB", "100"),
+                exam("PHYS", "117", "101", 9, 90, "HENN", "200"),
+                exam("PHYS", "117", "101", 9, 90, "HENN", "200"),
+                new ParsedExam("PHYS", "118", "101", null, 90, null, null));
+
+        seed();
+        List<Map<String, Object>> before = table();
+        assertThat(rowByRow(rows, true)).containsExactly(2, 1, 2);
+
+        assertThat(batched(rows, true)).containsExactly(1, 1, 3);
+        assertThat(table()).isEqualTo(before);
+        assertThat(rowByRow(rows, false)).containsExactly(1, 1, 3);
+    }
+
+    private int[] batched(List<ParsedExam> rows, boolean dryRun) {
+        ExamBatchWriter.Session session = writer.open(null, CAMPUS, dryRun);
+        rows.forEach(session::accept);
+        session.flush();
+        return new int[] { session.inserted(), session.updated(), session.skipped() };
+    }
+
+    // The importer before ExamBatchWriter: one lookup per row, then one save per change.
+    private int[] rowByRow(List<ParsedExam> rows, boolean dryRun) {
+        int inserted = 0, updated = 0, skipped = 0;
+        for (ParsedExam p : rows) {
+            if (p.startTime() == null) { skipped++; continue; }
+
+            List<Map<String, Object>> existing = jdbc.queryForList("""
+                    select term, id, duration_min, building, room from exam
+                    where campus = ? and subject = ? and course = ? and section = ? and start_time = ?
+                    """, CAMPUS, p.subject(), p.course(), p.section(), p.startTime());
+            if (!existing.isEmpty()) {
+                Map<String, Object> e = existing.get(0);
+                boolean changed = !Objects.equals(e.get("duration_min"), p.durationMin())
+                        || !Objects.equals(e.get("building"), p.building())
+                        || !Objects.equals(e.get("room"), p.room());
+                if (changed) {
+                    updated++;
+                    if (!dryRun) {
+                        jdbc.update("update exam set duration_min = ?, building = ?, room = ? where term = ? and id = ?",
+                                p.durationMin(), p.building(), p.room(), e.get("term"), e.get("id"));
+                    }
+                } else {
+                    skipped++;
+                }
+            } else {
+                inserted++;
+                if (!dryRun) insert(p);
+            }
+        }
+        return new int[] { inserted, updated, skipped };
+    }
+
+    private void seed() {
+        SEED.forEach(this::insert);
+    }
+
+    private void insert(ParsedExam p) {
+        jdbc.update("""
+                insert into exam (term, campus, subject, course, section, start_time, duration_min, building, room)
+                values (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, ExamTerms.of(p.startTime()), CAMPUS, p.subject(), p.course(), p.section(), p.startTime(),
+                p.durationMin(), p.building(), p.room());
+    }
+
+    private List<Map<String, Object>> table() {
+        return jdbc.queryForList("""
+                select term, subject, course, section, start_time, duration_min, building, room
+                from exam where campus = ?
+                order by subject, course, section, start_time
+                """, CAMPUS);
+    }
+
+    private static ParsedExam exam(String subject, String course, String section, int hour, int durationMin,
+                                   String building, String room) {
+        return new ParsedExam(subject, course, section,
+                OffsetDateTime.of(2025, 12, 15, hour, 0, 0, 0, ZoneOffset.ofHours(-8)), durationMin, building, room);
+    }
+}
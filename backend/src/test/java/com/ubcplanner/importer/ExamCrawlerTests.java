@@ -0,0 +1,141 @@
+package com.ubcplanner.importer;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Runs {@link ExamCrawler} against a local HTTP server serving {@code samples/sample_exams.html}.
+ */
+class ExamCrawlerTests {
+
+    private static final String ETAG = "\"sample-v1\"";
+
+    private HttpServer server;
+    private byte[] page;
+    private final AtomicInteger conditionalHits = new AtomicInteger();
+    private final AtomicInteger flakyCalls = new AtomicInteger();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        page = Files.readAllBytes(Path.of("samples/sample_exams.html"));
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/exams", ex -> {
+            if (ETAG.equals(ex.getRequestHeaders().getFirst("If-None-Match"))) {
+                conditionalHits.incrementAndGet();
+                respond(ex, 304, null);
+            } else {
+                ex.getResponseHeaders().set("ETag", ETAG);
+                respond(ex, 200, page);
+            }
+        });
+        server.createContext("/flaky", ex -> {
+            boolean fail = flakyCalls.incrementAndGet() <= 2;
+            respond(ex, fail ? 503 : 200, fail ? null : page);
+        });
+        server.createContext("/down", ex -> respond(ex, 500, null));
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void crawlsPagesAndSkipsUnchangedOnes() throws Exception {
+        try (ExamCrawler crawler = new ExamCrawler(settings(4))) {
+            List<ExamCrawler.Target> targets = List.of(
+                    target("/exams?subject=CPSC&term=2025W1", "CPSC", "2025W1"),
+                    target("/exams?subject=CPSC&term=2025W2", "CPSC", "2025W2"),
+                    target("/exams?subject=MATH&term=2025W1", "MATH", "2025W1"));
+
+            Queue<ExamCrawler.Page> pages = new ConcurrentLinkedQueue<>();
+            ExamCrawler.Stats first = crawler.crawl(targets, pages::add);
+
+            assertThat(first.fetched()).isEqualTo(3);
+            assertThat(first.failed()).isZero();
+            assertThat(pages).allMatch(ExamCrawler.Page::examTable);
+            List<ExamImportService.ParsedExam> cpsc = new ArrayList<>();
+            pages.stream().filter(p -> p.target().subject().equals("CPSC")).forEach(p -> cpsc.addAll(p.rows()));
+            assertThat(cpsc).hasSize(4).allMatch(r -> r.subject().equals("CPSC") && r.course().equals("221"));
+            // the sample spells months out ("December 15, 2025"); times are Vancouver local
+            assertThat(cpsc).extracting(ExamImportService.ParsedExam::section, ExamImportService.ParsedExam::startTime,
+                            ExamImportService.ParsedExam::durationMin)
+                    .containsOnly(
+                            tuple("101", OffsetDateTime.parse("2025-12-15T09:00-08:00"), 120),
+                            tuple("102", OffsetDateTime.parse("2025-12-18T13:00-08:00"), 180));
+            assertThat(pages.stream().filter(p -> p.target().subject().equals("MATH")).flatMap(p -> p.rows().stream()))
+                    .isEmpty();
+
+            pages.clear();
+            ExamCrawler.Stats second = crawler.crawl(targets, pages::add);
+            assertThat(second.notModified()).isEqualTo(3);
+            assertThat(second.fetched()).isZero();
+            assertThat(pages).isEmpty();
+            assertThat(conditionalHits).hasValue(3);
+        }
+    }
+
+    @Test
+    void retriesServerErrors() throws Exception {
+        try (ExamCrawler crawler = new ExamCrawler(settings(1))) {
+            Queue<ExamCrawler.Page> pages = new ConcurrentLinkedQueue<>();
+            ExamCrawler.Stats stats = crawler.crawl(List.of(target("/flaky", "CPSC", null)), pages::add);
+
+            assertThat(stats.fetched()).isEqualTo(1);
+            assertThat(stats.retries()).isEqualTo(2);
+            assertThat(pages).singleElement().satisfies(p -> assertThat(p.rows()).hasSize(2));
+        }
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() throws Exception {
+        try (ExamCrawler crawler = new ExamCrawler(settings(1))) {
+            ExamCrawler.Stats stats = crawler.crawl(List.of(target("/down", "CPSC", null)), p -> {});
+
+            assertThat(stats.fetched()).isZero();
+            assertThat(stats.failed()).isEqualTo(1);
+            assertThat(stats.errors()).singleElement().asString().contains("HTTP 500");
+        }
+    }
+
+    private static ExamCrawler.Settings settings(int concurrency) {
+        return new ExamCrawler.Settings(concurrency, Duration.ofMillis(5), 3, Duration.ofMillis(10),
+                Duration.ofSeconds(5), "test");
+    }
+
+    private ExamCrawler.Target target(String path, String subject, String term) {
+        return new ExamCrawler.Target(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path),
+                subject, term);
+    }
+
+    private static void respond(HttpExchange ex, int status, byte[] body) throws IOException {
+        ex.sendResponseHeaders(status, body == null ? -1 : body.length);
+        if (body != null) {
+            try (OutputStream out = ex.getResponseBody()) {
+                out.write(body);
+            }
+        }
+        ex.close();
+    }
+}
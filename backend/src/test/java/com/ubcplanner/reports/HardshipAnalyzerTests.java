@@ -0,0 +1,152 @@
+package com.ubcplanner.reports;
+
+import com.ubcplanner.exams.ExamSnapshot;
+import com.ubcplanner.reports.HardshipAnalyzer.CourseBounds;
+import com.ubcplanner.reports.HardshipAnalyzer.Finding;
+import com.ubcplanner.reports.HardshipAnalyzer.Kind;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HardshipAnalyzerTests {
+
+    private static final long HOUR = 3600;
+    private static final long DAY = 24 * HOUR;
+    private static final long SITTING = 150 * 60;
+    private static final long T0 = OffsetDateTime.of(2025, 12, 10, 8, 30, 0, 0, ZoneOffset.ofHours(-8)).toEpochSecond();
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(2);
+
+    private final HardshipAnalyzer analyzer = new HardshipAnalyzer(POOL);
+
+    @AfterAll
+    static void shutdown() {
+        POOL.shutdown();
+    }
+
+    @Test
+    void pairConflictsOnlyWhenEveryChoiceOverlaps() {
+        List<Finding> found = analyze(
+                course("V", "CPSC", "110", T0),
+                course("V", "MATH", "100", T0 + HOUR),                     // overlaps CPSC 110
+                course("V", "PHYS", "117", T0 + HOUR, T0 + DAY),           // one section is clear
+                course("V", "CHEM", "121", T0 + SITTING),                  // starts as CPSC 110 ends
+                course("V", "BIOL", "112", T0 + SITTING - 60));            // a minute before it ends
+
+        assertThat(pairs(found)).containsExactlyInAnyOrder(
+                "BIOL 112 + CPSC 110", "CPSC 110 + MATH 100", "BIOL 112 + MATH 100", "BIOL 112 + CHEM 121",
+                "CHEM 121 + MATH 100");
+    }
+
+    @Test
+    void pairsStayWithinACampus() {
+        List<Finding> found = analyze(
+                course("V", "CPSC", "110", T0),
+                course("O", "COSC", "111", T0));
+
+        assertThat(found).isEmpty();
+    }
+
+    @Test
+    void tripleNeedsEverySpreadUnderTwentyFourHours() {
+        List<Finding> found = analyze(
+                course("V", "CPSC", "110", T0),
+                course("V", "CPSC", "121", T0 + 12 * HOUR),
+                course("V", "CPSC", "210", T0 + DAY - 1),
+                course("V", "CPSC", "213", T0 + DAY));                   // exactly 24h after CPSC 110
+
+        assertThat(triples(found)).containsExactly("CPSC 110 + CPSC 121 + CPSC 210",
+                "CPSC 121 + CPSC 210 + CPSC 213");
+    }
+
+    @Test
+    void tripleUsesTheWidestSectionChoice() {
+        // CPSC 221's late section sits 25h after CPSC 110, so not every choice is a hardship
+        List<Finding> found = analyze(
+                course("V", "CPSC", "110", T0),
+                course("V", "CPSC", "121", T0 + 4 * HOUR),
+                course("V", "CPSC", "221", T0 + 8 * HOUR, T0 + DAY + HOUR));
+
+        assertThat(triples(found)).isEmpty();
+    }
+
+    @Test
+    void triplesStayWithinASubjectAndCampus() {
+        List<Finding> found = analyze(
+                course("V", "CPSC", "110", T0),
+                course("V", "MATH", "100", T0 + 4 * HOUR),
+                course("V", "PHYS", "117", T0 + 8 * HOUR),
+                course("O", "CPSC", "121", T0 + 4 * HOUR),
+                course("O", "CPSC", "221", T0 + 8 * HOUR));
+
+        assertThat(triples(found)).isEmpty();
+
+        found = analyze(
+                course("V", "CPSC", "110", T0),
+                course("V", "CPSC", "121", T0 + 4 * HOUR),
+                course("V", "CPSC", "221", T0 + 8 * HOUR),
+                course("O", "CPSC", "110", T0 + 4 * HOUR));
+        assertThat(found).filteredOn(f -> f.kind() == Kind.HARDSHIP)
+                .extracting(Finding::campus).containsExactly("V");
+    }
+
+    @Test
+    void boundsReduceEachCourseToItsSections() {
+        ExamSnapshot.Builder b = new ExamSnapshot.Builder(1).term("2025W1");
+        OffsetDateTime start = OffsetDateTime.of(2025, 12, 10, 8, 30, 0, 0, ZoneOffset.ofHours(-8));
+        b.add(1, 0, start, "V", "CPSC", "110", "101", start, 120, null, null);
+        b.add(2, 0, start, "V", "CPSC", "110", "102", start.plusHours(2), 150, null, null);
+        b.add(3, 0, start, "V", "MATH", "100", "101", start.plusDays(1), 150, null, null);
+
+        List<CourseBounds> bounds = HardshipAnalyzer.bounds(b.build());
+
+        assertThat(bounds).containsExactlyInAnyOrder(
+                new CourseBounds("V", "CPSC", "110", 2, T0, T0 + 2 * HOUR, T0 + 2 * HOUR),
+                new CourseBounds("V", "MATH", "100", 1, T0 + DAY, T0 + DAY, T0 + DAY + SITTING));
+    }
+
+    @Test
+    void progressCountsEveryAnchor() {
+        List<CourseBounds> courses = new ArrayList<>();
+        for (int i = 0; i < 100; i++) courses.add(course("V", "S" + (i % 7), String.valueOf(100 + i), T0 + i * HOUR));
+        AtomicLong progress = new AtomicLong();
+
+        analyzer.analyze(courses, progress);
+
+        assertThat(progress.get()).isEqualTo(HardshipAnalyzer.anchorCount(courses));
+    }
+
+    private List<Finding> analyze(CourseBounds... courses) {
+        return analyzer.analyze(Arrays.asList(courses), new AtomicLong());
+    }
+
+    private static CourseBounds course(String campus, String subject, String course, long... starts) {
+        long min = Arrays.stream(starts).min().orElseThrow();
+        long max = Arrays.stream(starts).max().orElseThrow();
+        return new CourseBounds(campus, subject, course, starts.length, min, max, min + SITTING);
+    }
+
+    private static List<String> pairs(List<Finding> found) {
+        return labels(found, Kind.CONFLICT);
+    }
+
+    private static List<String> triples(List<Finding> found) {
+        return labels(found, Kind.HARDSHIP);
+    }
+
+    private static List<String> labels(List<Finding> found, Kind kind) {
+        return found.stream().filter(f -> f.kind() == kind)
+                .map(f -> String.join(" + ", f.courses().stream().map(c -> c.subject() + " " + c.course()).toList()))
+                .sorted()
+                .toList();
+    }
+}
@@ -0,0 +1,69 @@
+package com.ubcplanner.schedule;
+
+import com.ubcplanner.exams.ExamView;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConflictDetectorTests {
+
+    @Test
+    void touchingExamsAreBackToBackNotOverlapping() {
+        ConflictDetector.Result result = ConflictDetector.detect(List.of(
+                slot(1, "2025-12-15T09:00-08:00", 120),
+                slot(2, "2025-12-15T11:00-08:00", 120)));
+
+        // one ends exactly as the other starts
+        assertThat(result.overlaps()).isEmpty();
+        assertThat(result.backToBack()).containsExactly(new ConflictDetector.BackToBack(1, 2, 0));
+    }
+
+    @Test
+    void identicalSlotsOverlapOncePerPair() {
+        ConflictDetector.Result result = ConflictDetector.detect(List.of(
+                slot(3, "2025-12-15T09:00-08:00", 150),
+                slot(1, "2025-12-15T09:00-08:00", 150),
+                slot(2, "2025-12-15T09:00-08:00", 150)));
+
+        // each pair once, the lower id first, for the whole sitting
+        assertThat(result.overlaps()).containsExactlyInAnyOrder(
+                new ConflictDetector.Overlap(1, 2, 150),
+                new ConflictDetector.Overlap(1, 3, 150),
+                new ConflictDetector.Overlap(2, 3, 150));
+        assertThat(result.backToBack()).isEmpty();
+        assertThat(result.hardships()).singleElement()
+                .satisfies(h -> assertThat(h.examIds()).containsExactly(1L, 2L, 3L));
+    }
+
+    @Test
+    void examsWithoutADurationLastTwoHours() {
+        // start_time is NOT NULL, so the time an exam can be missing is its length
+        List<ConflictDetector.Slot> slots = List.of(
+                slot(1, "2025-12-15T09:00-08:00", null),
+                slot(2, "2025-12-15T10:30-08:00", 30),
+                slot(3, "2025-12-15T11:00-08:00", null));
+
+        assertThat(slots.get(0).end() - slots.get(0).start()).isEqualTo(2 * 3600);
+        ConflictDetector.Result result = ConflictDetector.detect(slots);
+        assertThat(result.overlaps()).containsExactly(new ConflictDetector.Overlap(1, 2, 30));
+        assertThat(result.backToBack()).contains(new ConflictDetector.BackToBack(1, 3, 0));
+    }
+
+    @Test
+    void aThirdExamExactlyADayLaterIsNotAHardship() {
+        ConflictDetector.Result result = ConflictDetector.detect(List.of(
+                slot(1, "2025-12-15T09:00-08:00", 120),
+                slot(2, "2025-12-15T15:30-08:00", 120),
+                slot(3, "2025-12-16T09:00-08:00", 120)));
+
+        assertThat(result.hardships()).isEmpty();
+    }
+
+    private static ConflictDetector.Slot slot(long id, String start, Integer durationMin) {
+        return ConflictDetector.Slot.of(new ExamView(id, "2025W1", "V", "CPSC", "1" + id, "101",
+                OffsetDateTime.parse(start), durationMin, null, null));
+    }
+}
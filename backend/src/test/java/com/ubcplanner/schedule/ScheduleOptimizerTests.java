@@ -0,0 +1,195 @@
+package com.ubcplanner.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScheduleOptimizerTests {
+
+    private static final long HOUR = 3600;
+    private static final long DAY = 24 * HOUR;
+    private static final long UNBOUNDED = TimeUnit.SECONDS.toNanos(30);
+
+    // Exam days start 8:30, 12:00, 15:30 and 19:00; sittings last 2.5 hours
+    private static final long[] SLOT_OFFSETS = { 8 * HOUR + 1800, 12 * HOUR, 15 * HOUR + 1800, 19 * HOUR };
+
+    @Test
+    void matchesBruteForceOnSmallInputs() {
+        Random random = new Random(7);
+        for (int round = 0; round < 300; round++) {
+            List<List<ScheduleOptimizer.Option>> courses = randomCourses(random, 2 + random.nextInt(4), 1, 4, 3);
+            int topK = 1 + random.nextInt(5);
+
+            ScheduleOptimizer.Outcome outcome = ScheduleOptimizer.search(courses, topK, UNBOUNDED);
+
+            assertThat(outcome.complete()).isTrue();
+            List<long[]> expected = bruteForce(courses);
+            List<long[]> found = new ArrayList<>();
+            for (ScheduleOptimizer.Ranked r : outcome.ranked()) {
+                long[] score = score(courses, r.picks());
+                // the reported score is the one the picks actually have
+                assertThat(new long[] { r.conflicts(), r.hardships(), r.minGapSec() })
+                        .as("round %d", round).containsExactly(score);
+                found.add(score);
+            }
+            assertThat(found).as("round %d", round)
+                    .usingElementComparator(ScheduleOptimizerTests::compareScores)
+                    .containsExactlyElementsOf(expected.subList(0, Math.min(topK, expected.size())));
+        }
+    }
+
+    @Test
+    void tiesArePrunedInsteadOfEnumerated() {
+        // ten courses two days apart, each with four sections sitting at the same time: all 4^10
+        // combinations score the same, so once the top three are kept the bound cuts the rest
+        List<List<ScheduleOptimizer.Option>> courses = new ArrayList<>();
+        for (int c = 0; c < 10; c++) {
+            List<ScheduleOptimizer.Option> options = new ArrayList<>();
+            for (int o = 0; o < 4; o++) options.add(option(c * 2 * DAY + SLOT_OFFSETS[0], "10" + o));
+            courses.add(options);
+        }
+
+        ScheduleOptimizer.Outcome outcome = ScheduleOptimizer.search(courses, 3, UNBOUNDED);
+
+        assertThat(outcome.complete()).isTrue();
+        assertThat(outcome.ranked()).hasSize(3)
+                .allSatisfy(r -> {
+                    assertThat(r.conflicts()).isZero();
+                    assertThat(r.hardships()).isZero();
+                });
+        assertThat(outcome.ranked()).extracting(ScheduleOptimizer.Ranked::minGapSec).containsOnly(2 * DAY);
+        assertThat(outcome.nodes()).isLessThan(1_000);
+    }
+
+    @Test
+    void budgetStopsTheSearchAndKeepsTheBestSoFar() {
+        List<List<ScheduleOptimizer.Option>> courses = randomCourses(new Random(3), 12, 16, 16, 1);
+
+        // an already spent budget stops the search at its first deadline check
+        ScheduleOptimizer.Outcome outcome = ScheduleOptimizer.search(courses, 5, 0);
+
+        assertThat(outcome.complete()).isFalse();
+        assertThat(outcome.nodes()).isLessThanOrEqualTo(1_024);
+        assertThat(outcome.ranked()).isNotEmpty();
+    }
+
+    @Test
+    void eightCoursesOfTwelveSectionsStayInteractive() {
+        Random random = new Random(11);
+        List<List<List<ScheduleOptimizer.Option>>> inputs = new ArrayList<>();
+        for (int i = 0; i < 20; i++) inputs.add(randomCourses(random, 8, 12, 12, 1));
+
+        for (List<List<ScheduleOptimizer.Option>> courses : inputs) ScheduleOptimizer.search(courses, 5, UNBOUNDED); // warm up
+
+        // best of three per input, so a run that lost the CPU to another thread does not count
+        long[] millis = new long[inputs.size()];
+        for (int i = 0; i < inputs.size(); i++) {
+            long best = Long.MAX_VALUE;
+            for (int run = 0; run < 3; run++) {
+                long started = System.nanoTime();
+                ScheduleOptimizer.Outcome outcome = ScheduleOptimizer.search(inputs.get(i), 5, UNBOUNDED);
+                best = Math.min(best, System.nanoTime() - started);
+                assertThat(outcome.complete()).isTrue();
+            }
+            millis[i] = TimeUnit.NANOSECONDS.toMillis(best);
+        }
+        Arrays.sort(millis);
+        assertThat(millis[millis.length / 2]).as("median ms of full searches").isLessThan(50);
+    }
+
+    /**
+     * Courses with {@code minOptions} to {@code maxOptions} options each; every option has 1 to
+     * {@code maxExams} exams at random slots over a 16-day exam period.
+     */
+    private static List<List<ScheduleOptimizer.Option>> randomCourses(Random random, int courses, int minOptions,
+                                                                       int maxOptions, int maxExams) {
+        List<List<ScheduleOptimizer.Option>> out = new ArrayList<>();
+        for (int c = 0; c < courses; c++) {
+            List<ScheduleOptimizer.Option> opts = new ArrayList<>();
+            int n = minOptions + random.nextInt(maxOptions - minOptions + 1);
+            for (int o = 0; o < n; o++) {
+                int exams = 1 + random.nextInt(maxExams);
+                long[] starts = new long[exams];
+                for (int e = 0; e < exams; e++) {
+                    starts[e] = random.nextInt(16) * DAY + SLOT_OFFSETS[random.nextInt(SLOT_OFFSETS.length)]
+                            + (random.nextBoolean() ? 0 : 1800);
+                }
+                Arrays.sort(starts);
+                opts.add(option(starts, String.valueOf(100 + o)));
+            }
+            out.add(opts);
+        }
+        return out;
+    }
+
+    private static ScheduleOptimizer.Option option(long start, String section) {
+        return option(new long[] { start }, section);
+    }
+
+    private static ScheduleOptimizer.Option option(long[] starts, String section) {
+        long[] ends = new long[starts.length];
+        for (int i = 0; i < starts.length; i++) ends[i] = starts[i] + 2 * HOUR + 1800;
+        return new ScheduleOptimizer.Option(List.of(section), starts, ends);
+    }
+
+    /** Scores of every combination, best first. */
+    private static List<long[]> bruteForce(List<List<ScheduleOptimizer.Option>> courses) {
+        List<long[]> out = new ArrayList<>();
+        int[] picks = new int[courses.size()];
+        while (true) {
+            out.add(score(courses, picks));
+            int c = 0;
+            while (c < picks.length && ++picks[c] == courses.get(c).size()) picks[c++] = 0;
+            if (c == picks.length) break;
+        }
+        out.sort(ScheduleOptimizerTests::compareScores);
+        return out;
+    }
+
+    // {conflicts, hardships, minGapSec} by the optimizer's definitions, written out pair by pair
+    private static long[] score(List<List<ScheduleOptimizer.Option>> courses, int[] picks) {
+        int n = picks.length;
+        ScheduleOptimizer.Option[] chosen = new ScheduleOptimizer.Option[n];
+        for (int c = 0; c < n; c++) chosen[c] = courses.get(c).get(picks[c]);
+
+        long conflicts = 0, hardships = 0, minGap = Long.MAX_VALUE;
+        boolean[][] near = new boolean[n][n];
+        for (int a = 0; a < n; a++) {
+            for (int b = a + 1; b < n; b++) {
+                long gap = Long.MAX_VALUE;
+                boolean overlap = false;
+                for (int i = 0; i < chosen[a].starts().length; i++) {
+                    for (int j = 0; j < chosen[b].starts().length; j++) {
+                        gap = Math.min(gap, Math.abs(chosen[a].starts()[i] - chosen[b].starts()[j]));
+                        overlap |= chosen[a].starts()[i] < chosen[b].ends()[j]
+                                && chosen[b].starts()[j] < chosen[a].ends()[i];
+                    }
+                }
+                if (overlap) conflicts++;
+                near[a][b] = gap < ConflictDetector.HARDSHIP_WINDOW_SEC;
+                minGap = Math.min(minGap, gap);
+            }
+        }
+        for (int a = 0; a < n; a++) {
+            for (int b = a + 1; b < n; b++) {
+                for (int c = b + 1; c < n; c++) {
+                    if (near[a][b] && near[a][c] && near[b][c]) hardships++;
+                }
+            }
+        }
+        return new long[] { conflicts, hardships, minGap };
+    }
+
+    // < 0 when a ranks better: fewer conflicts, then fewer hardships, then a wider gap
+    private static int compareScores(long[] a, long[] b) {
+        if (a[0] != b[0]) return Long.compare(a[0], b[0]);
+        if (a[1] != b[1]) return Long.compare(a[1], b[1]);
+        return Long.compare(b[2], a[2]);
+    }
+}
@@ -1,11 +1,11 @@
-import { useState, useEffect } from "react";
+import { useState, useEffect, useMemo } from "react";
 import { Button } from "@/components/ui/button";
 import { Input } from "@/components/ui/input";
 import { Label } from "@/components/ui/label";
 import { Select, SelectContent, SelectItem, SelectTrigger, SelectValue } from "@/components/ui/select";
 import { Card, CardContent, CardHeader, CardTitle } from "@/components/ui/card";
 import { RotateCcw, Search } from "lucide-react";
-import { ApiService } from "@/lib/api";
+import { ApiService, type CatalogTree } from "@/lib/api";
 
 interface ExamFiltersProps {
   onFiltersChange: (filters: ExamFilters) => void;
@@ -29,78 +29,43 @@ export function ExamFilters({ onFiltersChange, isLoading }: ExamFiltersProps) {
     section: "",
   });
 
-  // State for API data
-  const [subjects, setSubjects] = useState<string[]>([]);
-  const [availableCourses, setAvailableCourses] = useState<string[]>([]);
-  const [availableSections, setAvailableSections] = useState<string[]>([]);
-  
-  // Loading states
-  const [loadingSubjects, setLoadingSubjects] = useState(false);
-  const [loadingCourses, setLoadingCourses] = useState(false);
-  const [loadingSections, setLoadingSections] = useState(false);
+  // Whole subject -> course -> section tree for the campus, fetched once and cached by the browser
+  const [tree, setTree] = useState<CatalogTree | null>(null);
+  const [loadingTree, setLoadingTree] = useState(false);
 
-  // Load subjects when component mounts
   useEffect(() => {
-    const loadSubjects = async () => {
-      setLoadingSubjects(true);
+    let cancelled = false;
+    const loadTree = async () => {
+      setLoadingTree(true);
       try {
-        const subjectData = await ApiService.getSubjects(filters.campus);
-        setSubjects(subjectData);
+        const data = await ApiService.getCatalogTree(filters.campus);
+        if (!cancelled) setTree(data);
       } catch (error) {
-        console.error('Failed to load subjects:', error);
+        console.error('Failed to load catalog:', error);
+        if (!cancelled) setTree(null);
       } finally {
-        setLoadingSubjects(false);
+        if (!cancelled) setLoadingTree(false);
       }
     };
 
-    loadSubjects();
+    loadTree();
+    return () => { cancelled = true; };
   }, [filters.campus]);
 
-  // Load courses when subject changes
-  useEffect(() => {
-    const loadCourses = async () => {
-      if (!filters.subject) {
-        setAvailableCourses([]);
-        return;
-      }
-
-      setLoadingCourses(true);
-      try {
-        const courseData = await ApiService.getCourses(filters.campus, filters.subject);
-        setAvailableCourses(courseData);
-      } catch (error) {
-        console.error('Failed to load courses:', error);
-        setAvailableCourses([]);
-      } finally {
-        setLoadingCourses(false);
-      }
-    };
-
-    loadCourses();
-  }, [filters.campus, filters.subject]);
-
-  // Load sections when course changes
-  useEffect(() => {
-    const loadSections = async () => {
-      if (!filters.subject || !filters.course) {
-        setAvailableSections([]);
-        return;
-      }
-
-      setLoadingSections(true);
-      try {
-        const sectionData = await ApiService.getSections(filters.campus, filters.subject, filters.course);
-        setAvailableSections(sectionData);
-      } catch (error) {
-        console.error('Failed to load sections:', error);
-        setAvailableSections([]);
-      } finally {
-        setLoadingSections(false);
-      }
-    };
-
-    loadSections();
-  }, [filters.campus, filters.subject, filters.course]);
+  const subjects = useMemo(() => (tree ? Object.keys(tree.subjects) : []), [tree]);
+  const availableCourses = useMemo(
+    () => (tree && filters.subject ? Object.keys(tree.subjects[filters.subject] ?? {}) : []),
+    [tree, filters.subject]
+  );
+  const availableSections = useMemo(
+    () => (tree && filters.subject && filters.course
+      ? tree.subjects[filters.subject]?.[filters.course] ?? []
+      : []),
+    [tree, filters.subject, filters.course]
+  );
+  const loadingSubjects = loadingTree;
+  const loadingCourses = loadingTree;
+  const loadingSections = loadingTree;
 
   const handleFilterChange = (key: keyof ExamFilters, value: string) => {
     const newFilters = { ...filters, [key]: value };
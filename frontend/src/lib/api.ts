@@ -34,6 +34,44 @@ export interface Exam {
   room?: string | null;
 }
 
+export interface CatalogTree {
+  campus: string;
+  version: string;          // changes only when the catalog does
+  subjects: Record<string, Record<string, string[]>>; // subject -> course -> sections
+}
+
+export interface Suggestion {
+  kind: "SUBJECT" | "COURSE" | "SECTION";
+  label: string;            // e.g. "CPSC 221 101"
+  subject: string;
+  course: string | null;
+  section: string | null;
+  exams: number;
+}
+
+// Columnar body of GET /exams/snapshot; string columns index into their dictionaries (-1 = null)
+export interface ExamSnapshotColumns {
+  campus: string;
+  term: string;             // session code, e.g. 2025W1
+  changeSeq: number;        // continue with /exams/changes?since=changeSeq
+  count: number;
+  id: number[];
+  subjects: string[];  subject: number[];
+  courses: string[];   course: number[];
+  sections: string[];  section: number[];
+  buildings: string[]; building: number[];
+  rooms: string[];     room: number[];
+  startDelta: number[];     // epoch seconds, delta from the previous row
+  durationMin: number[];
+}
+
+export interface ExamSnapshot {
+  campus: string;
+  term: string;
+  changeSeq: number;
+  exams: Exam[];
+}
+
 export interface PageResponse<T> {
   content: T[];
   totalElements: number;
@@ -51,6 +89,8 @@ export interface ExamSearchParams {
   subject?: string;
   course?: string;
   section?: string;
+  from?: string;            // start window, e.g. "2025-12-15" or "2025-12-15T08:00" (Vancouver)
+  to?: string;              // exclusive; a bare date includes that whole day
   page?: number;
   size?: number;
   sort?: string;            // e.g. "startTime,asc"
@@ -98,6 +138,27 @@ async function getJson<T>(path: string, params?: Dict): Promise<T> {
   }
 }
 
+function decodeSnapshot(c: ExamSnapshotColumns): ExamSnapshot {
+  const pick = (values: string[], code: number) => (code < 0 ? null : values[code]);
+  const exams: Exam[] = new Array(c.count);
+  let start = 0;
+  for (let i = 0; i < c.count; i++) {
+    start += c.startDelta[i];
+    exams[i] = {
+      id: c.id[i],
+      campus: c.campus,
+      subject: pick(c.subjects, c.subject[i]) ?? "",
+      course: pick(c.courses, c.course[i]) ?? "",
+      section: pick(c.sections, c.section[i]) ?? "",
+      startTime: new Date(start * 1000).toISOString(),
+      durationMin: c.durationMin[i],
+      building: pick(c.buildings, c.building[i]),
+      room: pick(c.rooms, c.room[i]),
+    };
+  }
+  return { campus: c.campus, term: c.term, changeSeq: c.changeSeq, exams };
+}
+
 // ---- API service ----
 export class ApiService {
   // Meta
@@ -113,6 +174,21 @@ export class ApiService {
     return getJson<string[]>("/meta/sections", { campus, subject, course });
   }
 
+  // Whole catalog in one request; revalidated with its ETag
+  static async getCatalogTree(campus: string = "V"): Promise<CatalogTree> {
+    return getJson<CatalogTree>("/catalog/tree", { campus });
+  }
+
+  // Typeahead ("cpsc 2", "CPSC221 1", "221")
+  static async suggest(q: string, campus: string = "V", limit: number = 10): Promise<Suggestion[]> {
+    return getJson<Suggestion[]>("/catalog/suggest", { q, campus, limit });
+  }
+
+  // Every exam on a campus for offline use (gzip, revalidated with its ETag)
+  static async getExamSnapshot(campus: string = "V"): Promise<ExamSnapshot> {
+    return decodeSnapshot(await getJson<ExamSnapshotColumns>("/exams/snapshot", { campus }));
+  }
+
   // Search
   static async searchExams(params: ExamSearchParams): Promise<PageResponse<Exam>> {
     const query: ExamSearchParams = {
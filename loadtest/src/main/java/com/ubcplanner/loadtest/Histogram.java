@@ -0,0 +1,64 @@
+package com.ubcplanner.loadtest;
+
+/**
+ * Latency histogram in microseconds with log-linear buckets: exact below 128 us, then 64 buckets
+ * per power of two, so any recorded value is reported within 1.6%. Not thread-safe; each worker
+ * keeps its own and they are merged for the report.
+ */
+final class Histogram {
+
+    private static final int SUB_BUCKETS = 64;
+    private static final int LINEAR = 2 * SUB_BUCKETS;
+    private static final int MAX_SHIFT = 40;
+
+    private final long[] counts = new long[LINEAR + MAX_SHIFT * SUB_BUCKETS];
+    private long total;
+    private long max;
+
+    void record(long micros) {
+        long v = Math.max(0, micros);
+        counts[index(v)]++;
+        total++;
+        if (v > max) max = v;
+    }
+
+    void add(Histogram other) {
+        for (int i = 0; i < counts.length; i++) counts[i] += other.counts[i];
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+
+    long count() {
+        return total;
+    }
+
+    long max() {
+        return max;
+    }
+
+    /** Smallest recorded value such that {@code q} of all values are at or below it. */
+    long percentile(double q) {
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(q * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= Math.max(rank, 1)) return Math.min(upperBound(i), max);
+        }
+        return max;
+    }
+
+    private static int index(long v) {
+        if (v < LINEAR) return (int) v;
+        int shift = 63 - Long.numberOfLeadingZeros(v) - 6; // v >>> shift lands in [64, 128)
+        if (shift > MAX_SHIFT) return LINEAR + MAX_SHIFT * SUB_BUCKETS - 1;
+        return LINEAR + (shift - 1) * SUB_BUCKETS + (int) (v >>> shift) - SUB_BUCKETS;
+    }
+
+    private static long upperBound(int index) {
+        if (index < LINEAR) return index;
+        int shift = (index - LINEAR) / SUB_BUCKETS + 1;
+        long sub = (index - LINEAR) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,173 @@
+package com.ubcplanner.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Release-day load test for the backend.
+ *
+ * <pre>
+ * seed  [--base=http://localhost:8080] [--campus=V] [--rows=3500] [--seed=42]
+ * run   [--base=...] [--campus=V] [--users=200] [--duration=60] [--warmup=10] [--ramp=10]
+ *       [--think-ms=300] [--timeout-ms=10000] [--seed=42]
+ * </pre>
+ *
+ * {@code seed} uploads a synthetic campus schedule through the CSV importer. {@code run} starts
+ * {@code users} simulated students over {@code ramp} seconds. Each one runs {@link Workload}
+ * sessions back to back until {@code warmup + duration} seconds have passed. Only the last
+ * {@code duration} seconds are reported.
+ *
+ * This is a closed model: a student waits for each response before the next request. When the
+ * backend slows down, the offered load drops with it. Compare throughput across runs as well as
+ * latency.
+ */
+public final class LoadTest {
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0 || !(args[0].equals("seed") || args[0].equals("run"))) {
+            System.err.println("usage: LoadTest seed|run [--option=value ...]  (see README.md)");
+            System.exit(2);
+        }
+        Map<String, String> opts = options(Arrays.copyOfRange(args, 1, args.length));
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        String base = opts.getOrDefault("base", "http://localhost:8080").replaceAll("/+$", "");
+        String campus = opts.getOrDefault("campus", "V");
+        long seed = Long.parseLong(opts.getOrDefault("seed", "42"));
+
+        if (args[0].equals("seed")) {
+            seed(http, base, campus, Integer.parseInt(opts.getOrDefault("rows", "3500")), seed);
+        } else {
+            run(http, base, campus, opts, seed);
+        }
+    }
+
+    private static void seed(HttpClient http, String base, String campus, int rows, long seed) throws Exception {
+        String boundary = "loadtest-" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"schedule.csv\"\r\n"
+                + "Content-Type: text/csv\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(Schedule.csv(rows, seed).getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/admin/import/exams/csv?dryRun=false&campus=" + campus))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .timeout(Duration.ofMinutes(5))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build();
+        HttpResponse<String> res = http.send(request, HttpResponse.BodyHandlers.ofString());
+        System.out.println("HTTP " + res.statusCode() + ": " + res.body());
+        if (res.statusCode() != 200) System.exit(1);
+    }
+
+    private static void run(HttpClient http, String base, String campus, Map<String, String> opts, long seed)
+            throws InterruptedException {
+        int users = Integer.parseInt(opts.getOrDefault("users", "200"));
+        long durationSec = Long.parseLong(opts.getOrDefault("duration", "60"));
+        long warmupSec = Long.parseLong(opts.getOrDefault("warmup", "10"));
+        long rampSec = Long.parseLong(opts.getOrDefault("ramp", "10"));
+        long thinkMs = Long.parseLong(opts.getOrDefault("think-ms", "300"));
+        Duration timeout = Duration.ofMillis(Long.parseLong(opts.getOrDefault("timeout-ms", "10000")));
+
+        AtomicLong requests = new AtomicLong();
+        AtomicLong failures = new AtomicLong();
+        Workload workload = new Workload(http, base, campus, timeout, thinkMs, requests, failures);
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmupSec * 1_000_000_000L;
+        long end = measureFrom + durationSec * 1_000_000_000L;
+
+        System.out.printf("%d users against %s, campus %s: %ds ramp, %ds warm-up, %ds measured%n",
+                users, base, campus, rampSec, warmupSec, durationSec);
+
+        List<Thread> threads = new ArrayList<>(users);
+        List<Workload.Recorder> recorders = new ArrayList<>(users);
+        for (int u = 0; u < users; u++) {
+            Workload.Recorder rec = new Workload.Recorder();
+            Random rnd = new Random(seed * 31 + u);
+            long delayNanos = (users > 1) ? rampSec * 1_000_000_000L * u / (users - 1) : 0;
+            Thread t = new Thread(() -> {
+                try {
+                    sleepUntil(start + delayNanos);
+                    while (System.nanoTime() < end) {
+                        rec.recording = System.nanoTime() >= measureFrom;
+                        workload.session(rnd, rec);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "student-" + u);
+            t.setDaemon(true);
+            recorders.add(rec);
+            threads.add(t);
+            t.start();
+        }
+
+        long lastRequests = 0, lastFailures = 0;
+        while (System.nanoTime() < end) {
+            Thread.sleep(5_000);
+            long r = requests.get(), f = failures.get();
+            long elapsed = (System.nanoTime() - start) / 1_000_000_000L;
+            System.out.printf("  %4ds  %8.1f req/s  %6d errors%n", elapsed, (r - lastRequests) / 5.0, f - lastFailures);
+            lastRequests = r;
+            lastFailures = f;
+        }
+        for (Thread t : threads) t.join(timeout.toMillis() + 1_000);
+
+        Workload.Recorder total = new Workload.Recorder();
+        recorders.forEach(total::add);
+        report(total, durationSec);
+    }
+
+    private static void report(Workload.Recorder total, long durationSec) {
+        System.out.println();
+        System.out.printf("%-8s %9s %8s %9s %9s %9s %9s %9s %9s%n",
+                "", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram all = new Histogram();
+        long allErrors = 0;
+        for (Workload.Endpoint e : Workload.Endpoint.values()) {
+            Histogram h = total.latency[e.ordinal()];
+            long errors = total.errors[e.ordinal()];
+            line(e.name().toLowerCase(Locale.ROOT), h, errors, durationSec);
+            all.add(h);
+            allErrors += errors;
+        }
+        line("all", all, allErrors, durationSec);
+    }
+
+    private static void line(String name, Histogram h, long errors, long durationSec) {
+        System.out.printf("%-8s %9d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, h.count(), errors, h.count() / (double) Math.max(durationSec, 1),
+                h.percentile(0.50) / 1000.0, h.percentile(0.90) / 1000.0, h.percentile(0.99) / 1000.0,
+                h.percentile(0.999) / 1000.0, h.max() / 1000.0);
+    }
+
+    private static void sleepUntil(long nanoTime) throws InterruptedException {
+        long wait = nanoTime - System.nanoTime();
+        if (wait > 0) Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+    }
+
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> out = new HashMap<>();
+        for (String a : args) {
+            if (!a.startsWith("--") || !a.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + a);
+            }
+            int eq = a.indexOf('=');
+            out.put(a.substring(2, eq), a.substring(eq + 1));
+        }
+        return out;
+    }
+}
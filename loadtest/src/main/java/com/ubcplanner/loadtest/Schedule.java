@@ -0,0 +1,84 @@
+package com.ubcplanner.loadtest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Random;
+
+/**
+ * Synthetic full-campus exam schedule in the backend's CSV upload format
+ * (subject,course,section,date,time,duration,building,room).
+ *
+ * The shape follows a Vancouver December session: about 230 subjects with a skewed size
+ * distribution, 16 exam days with four slots each, about 60 buildings, and large courses sitting
+ * several sections at once. The same seed always gives the same file.
+ */
+final class Schedule {
+
+    static final int SUBJECTS = 230;
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 12, 9);
+    private static final int EXAM_DAYS = 16;
+    private static final LocalTime[] SLOTS = {
+            LocalTime.of(8, 30), LocalTime.of(12, 0), LocalTime.of(15, 30), LocalTime.of(19, 0) };
+    private static final int[] DURATIONS = { 120, 120, 120, 150, 180 };
+    private static final int BUILDINGS = 60;
+
+    private Schedule() {}
+
+    static String csv(int rows, long seed) {
+        Random rnd = new Random(seed);
+        double[] weight = zipf(SUBJECTS);
+        StringBuilder sb = new StringBuilder(64 + rows * 60);
+        sb.append("subject,course,section,date,time,duration,building,room\n");
+        int written = 0;
+        while (written < rows) {
+            String subject = subject(pick(rnd, weight));
+            String course = String.valueOf(100 + rnd.nextInt(5) * 100 + rnd.nextInt(100));
+            LocalDate day = FIRST_DAY.plusDays(rnd.nextInt(EXAM_DAYS));
+            LocalTime slot = SLOTS[rnd.nextInt(SLOTS.length)];
+            int duration = DURATIONS[rnd.nextInt(DURATIONS.length)];
+            int sections = 1 + (rnd.nextInt(10) == 0 ? rnd.nextInt(12) : rnd.nextInt(3));
+            for (int s = 0; s < sections && written < rows; s++, written++) {
+                sb.append(subject).append(',').append(course).append(',').append(String.format("%03d", 101 + s))
+                        .append(',').append(day).append(',').append(slot).append(',').append(duration)
+                        .append(',').append(subject(SUBJECTS + rnd.nextInt(BUILDINGS)))
+                        .append(',').append(100 + rnd.nextInt(400)).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    /** Zipf-like weights, heaviest first, normalized to sum to 1. */
+    static double[] zipf(int n) {
+        double[] w = new double[n];
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            w[i] = 1.0 / (i + 1);
+            total += w[i];
+        }
+        for (int i = 0; i < n; i++) w[i] /= total;
+        return w;
+    }
+
+    static int pick(Random rnd, double[] weight) {
+        double x = rnd.nextDouble();
+        for (int i = 0; i < weight.length; i++) {
+            x -= weight[i];
+            if (x <= 0) return i;
+        }
+        return weight.length - 1;
+    }
+
+    /** Four-letter code for index i; 0 and 1 are CPSC and MATH. */
+    static String subject(int i) {
+        if (i == 0) return "CPSC";
+        if (i == 1) return "MATH";
+        StringBuilder sb = new StringBuilder(4);
+        int v = i;
+        for (int k = 0; k < 4; k++) {
+            sb.append((char) ('A' + v % 26));
+            v /= 26;
+        }
+        return sb.toString();
+    }
+}
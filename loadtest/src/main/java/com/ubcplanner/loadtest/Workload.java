@@ -0,0 +1,173 @@
+package com.ubcplanner.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One student building a schedule on release day. The student picks a subject, then a course,
+ * then a section from the cascading dropdowns, and searches the course's exams. This repeats for
+ * three to five courses, sometimes paging through a whole subject, and ends with one ICS download
+ * of the chosen exam ids. Think time between steps is exponential around {@code thinkMs}.
+ */
+final class Workload {
+
+    enum Endpoint { META, SEARCH, ICS }
+
+    private static final Pattern JSON_STRING = Pattern.compile("\"((?:[^\"\\\\]|\\\\.)*)\"");
+    private static final Pattern EXAM_ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final List<String> HOT_SUBJECTS = List.of("CPSC", "MATH");
+
+    /** Per-worker results; merged once the run is over. */
+    static final class Recorder {
+        final Histogram[] latency = new Histogram[Endpoint.values().length];
+        final long[] errors = new long[Endpoint.values().length];
+        boolean recording;
+
+        Recorder() {
+            for (int i = 0; i < latency.length; i++) latency[i] = new Histogram();
+        }
+
+        void add(Recorder other) {
+            for (int i = 0; i < latency.length; i++) {
+                latency[i].add(other.latency[i]);
+                errors[i] += other.errors[i];
+            }
+        }
+    }
+
+    /** Thrown to end a session after a failed request; the failure is already counted. */
+    private static final class Failed extends Exception {
+        Failed() {
+            super(null, null, false, false);
+        }
+    }
+
+    private final HttpClient http;
+    private final String base;
+    private final String campus;
+    private final Duration timeout;
+    private final long thinkMs;
+    private final AtomicLong requests;
+    private final AtomicLong failures;
+
+    Workload(HttpClient http, String base, String campus, Duration timeout, long thinkMs,
+             AtomicLong requests, AtomicLong failures) {
+        this.http = http;
+        this.base = base;
+        this.campus = campus;
+        this.timeout = timeout;
+        this.thinkMs = thinkMs;
+        this.requests = requests;
+        this.failures = failures;
+    }
+
+    void session(Random rnd, Recorder rec) throws InterruptedException {
+        try {
+            List<String> subjects = strings(get(rec, Endpoint.META, "/api/meta/subjects?campus=" + enc(campus)));
+            if (subjects.isEmpty()) return;
+            List<String> ids = new ArrayList<>();
+            int courses = 3 + rnd.nextInt(3);
+            for (int i = 0; i < courses; i++) {
+                think(rnd);
+                String subject = pickSubject(rnd, subjects);
+                List<String> courseList = strings(get(rec, Endpoint.META,
+                        "/api/meta/courses?campus=" + enc(campus) + "&subject=" + enc(subject)));
+                if (courseList.isEmpty()) continue;
+
+                think(rnd);
+                String course = courseList.get(rnd.nextInt(courseList.size()));
+                get(rec, Endpoint.META, "/api/meta/sections?campus=" + enc(campus)
+                        + "&subject=" + enc(subject) + "&course=" + enc(course));
+
+                think(rnd);
+                List<String> found = examIds(get(rec, Endpoint.SEARCH, "/api/exams/search?campus=" + enc(campus)
+                        + "&subject=" + enc(subject) + "&course=" + enc(course) + "&size=20"));
+                if (!found.isEmpty()) ids.add(found.get(rnd.nextInt(found.size())));
+
+                if (rnd.nextInt(5) == 0) {
+                    // browsing the whole subject instead of one course
+                    think(rnd);
+                    get(rec, Endpoint.SEARCH, "/api/exams/search?campus=" + enc(campus)
+                            + "&subject=" + enc(subject) + "&page=" + rnd.nextInt(3) + "&size=20");
+                }
+            }
+            if (!ids.isEmpty()) {
+                think(rnd);
+                StringJoiner joined = new StringJoiner(",");
+                ids.forEach(joined::add);
+                get(rec, Endpoint.ICS, "/api/exams/ics?ids=" + joined);
+            }
+        } catch (Failed e) {
+            // counted where it happened; the student gives up on this session
+        }
+    }
+
+    private String get(Recorder rec, Endpoint endpoint, String path) throws Failed, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + path)).timeout(timeout).GET().build();
+        long started = System.nanoTime();
+        int status;
+        String body;
+        try {
+            HttpResponse<String> res = http.send(request, HttpResponse.BodyHandlers.ofString());
+            status = res.statusCode();
+            body = res.body();
+        } catch (IOException e) {
+            status = -1;
+            body = null;
+        }
+        long micros = (System.nanoTime() - started) / 1_000;
+        requests.incrementAndGet();
+        if (rec.recording) rec.latency[endpoint.ordinal()].record(micros);
+        if (status < 200 || status >= 300) {
+            failures.incrementAndGet();
+            if (rec.recording) rec.errors[endpoint.ordinal()]++;
+            throw new Failed();
+        }
+        return body;
+    }
+
+    private void think(Random rnd) throws InterruptedException {
+        if (thinkMs <= 0) return;
+        Thread.sleep((long) (-Math.log(1 - rnd.nextDouble()) * thinkMs));
+    }
+
+    private static String pickSubject(Random rnd, List<String> subjects) {
+        // a third of lookups go to the big first-year subjects, as on the real release day
+        if (rnd.nextInt(3) == 0) {
+            String hot = HOT_SUBJECTS.get(rnd.nextInt(HOT_SUBJECTS.size()));
+            if (subjects.contains(hot)) return hot;
+        }
+        return subjects.get(rnd.nextInt(subjects.size()));
+    }
+
+    private static List<String> strings(String jsonArray) {
+        List<String> out = new ArrayList<>();
+        Matcher m = JSON_STRING.matcher(jsonArray);
+        while (m.find()) out.add(m.group(1));
+        return out;
+    }
+
+    private static List<String> examIds(String json) {
+        List<String> out = new ArrayList<>();
+        Matcher m = EXAM_ID.matcher(json);
+        while (m.find()) out.add(m.group(1));
+        return out;
+    }
+
+    private static String enc(String s) {
+        return URLEncoder.encode(s, StandardCharsets.UTF_8);
+    }
+}